@@ -0,0 +1,158 @@
+package org.gc.aiagents.service;
+
+import org.gc.aiagents.domain.dto.IntelligenceReportDTO;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Deterministic fixtures shaped like real pipeline data: preprocessor output for long PDF reports, DFIR
+ * chunk extractions with the overlap and quoting the LLM produces, and link-heavy blog index pages.
+ */
+final class BenchmarkFixtures {
+
+    private static final String[] WORDS = {
+            "threat", "actor", "deployed", "Cobalt", "Strike", "beacon", "via", "\"rundll32.exe\"", "lateral", "movement",
+            "credential", "dumping", "LSASS", "“mimikatz”", "scheduled", "task", "persistence", "exfiltration", "over", "HTTPS",
+            "the", "of", "and", "to", "on", "domain", "controller", "PowerShell", "encoded", "command"
+    };
+
+    private static final String[] TECHNIQUE_IDS = {
+            "T1059.001", "T1003.001", "T1053.005", "T1021.002", "T1071.001", "T1105", "T1486", "T1047",
+            "T1218.011", "T1078", "T1566.001", "T1041", "T1070.004", "T1082", "T1018", "T1569.002"
+    };
+
+    private static final String[] LINK_SECTIONS = {
+            "2024/03/04", "2024/04/01", "tag/ransomware", "category/threat-intel", "author/jdoe", "about", "contact",
+            "search", "feed", "page/2", "research", "blog", "archive/2023", "privacy-policy", "login"
+    };
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Preprocessor output ("raw_data"/"filtered_data"): one block per page with text paragraphs and the
+     * occasional table, whose content is structured and has to be serialized.
+     */
+    static List<Map<String, Object>> preprocessedPages(int pages, long seed) {
+        Random random = new Random(seed);
+        List<Map<String, Object>> result = new ArrayList<>(pages);
+        for (int page = 0; page < pages; page++) {
+            List<Map<String, Object>> elements = new ArrayList<>();
+            for (int block = 0; block < 12; block++) {
+                Map<String, Object> element = new HashMap<>();
+                if (block % 6 == 5) {
+                    element.put("type", "table");
+                    element.put("content", table(random, 8, 4));
+                } else {
+                    element.put("type", "text");
+                    element.put("content", sentence(random, 60 + random.nextInt(80)));
+                }
+                elements.add(element);
+            }
+            Map<String, Object> pageBlock = new HashMap<>();
+            pageBlock.put("page", page + 1);
+            pageBlock.put("elements", elements);
+            result.add(pageBlock);
+        }
+        return result;
+    }
+
+    /**
+     * DFIR techniques as aggregated over chunks: the same technique ids recur across chunks with
+     * differently quoted procedures, and a few entries repeat exactly.
+     */
+    static List<Map<String, Object>> dfirTechniques(int chunks, int perChunk, long seed) {
+        Random random = new Random(seed);
+        List<Map<String, Object>> result = new ArrayList<>(chunks * perChunk);
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            for (int i = 0; i < perChunk; i++) {
+                Map<String, Object> technique = new HashMap<>();
+                String id = TECHNIQUE_IDS[random.nextInt(TECHNIQUE_IDS.length)];
+                technique.put("technique_id", id);
+                technique.put("technique_name", "Technique " + id);
+                String procedure = random.nextInt(5) == 0
+                        ? "The actor executed \"whoami /all\" on " + id
+                        : sentence(random, 20 + random.nextInt(30));
+                technique.put("technique_procedure", procedure);
+                result.add(technique);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Techniques as parsed from the techniques call, before DFIR procedures are merged in.
+     */
+    static Map<String, IntelligenceReportDTO.Technique> primaryTechniques(long seed) {
+        Random random = new Random(seed);
+        Map<String, IntelligenceReportDTO.Technique> result = new LinkedHashMap<>();
+        for (int i = 0; i < TECHNIQUE_IDS.length / 2; i++) {
+            IntelligenceReportDTO.Technique technique = new IntelligenceReportDTO.Technique();
+            technique.setTechnique_id(TECHNIQUE_IDS[i]);
+            technique.setTechnique_name("Technique " + TECHNIQUE_IDS[i]);
+            Map<String, String> usage = new HashMap<>();
+            usage.put("from_table", "“" + sentence(random, 25) + "”");
+            usage.put("from_text", sentence(random, 40));
+            technique.setTechnique_usage(usage);
+            result.put(technique.getTechnique_id(), technique);
+        }
+        return result;
+    }
+
+    /**
+     * Links collected from a blog index page: article permalinks mixed with navigation, tag, author and
+     * pagination links, some relative to other paths of the same site.
+     */
+    static Set<String> collectedLinks(String baseUrl, int links, long seed) {
+        Random random = new Random(seed);
+        Set<String> result = new LinkedHashSet<>();
+        while (result.size() < links) {
+            String section = LINK_SECTIONS[random.nextInt(LINK_SECTIONS.length)];
+            StringBuilder url = new StringBuilder(baseUrl).append(section);
+            if (random.nextBoolean()) {
+                url.append('/').append(slug(random));
+            }
+            if (random.nextInt(4) == 0) {
+                url.append(random.nextBoolean() ? ".html" : "/");
+            }
+            result.add(url.toString());
+        }
+        return result;
+    }
+
+    private static List<Map<String, Object>> table(Random random, int rows, int columns) {
+        List<Map<String, Object>> table = new ArrayList<>(rows);
+        for (int row = 0; row < rows; row++) {
+            Map<String, Object> cells = new LinkedHashMap<>();
+            for (int column = 0; column < columns; column++) {
+                cells.put("col" + column, sentence(random, 3 + random.nextInt(6)));
+            }
+            table.add(cells);
+        }
+        return table;
+    }
+
+    private static String sentence(Random random, int words) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sentence.append(' ');
+            }
+            sentence.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sentence.append('.').toString();
+    }
+
+    private static String slug(Random random) {
+        return WORDS[random.nextInt(WORDS.length)].replaceAll("[^A-Za-z]", "").toLowerCase()
+                + "-" + WORDS[random.nextInt(WORDS.length)].replaceAll("[^A-Za-z]", "").toLowerCase()
+                + "-" + random.nextInt(1000);
+    }
+}
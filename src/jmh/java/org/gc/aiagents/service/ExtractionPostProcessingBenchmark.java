@@ -0,0 +1,94 @@
+package org.gc.aiagents.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.gc.aiagents.domain.dto.IntelligenceReportDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-article post-processing in {@link PythonApiService}: flattening preprocessor pages into the LLM
+ * prompt, merging DFIR chunk techniques into the parsed techniques, and building the final technique
+ * entries with their usage dedup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExtractionPostProcessingBenchmark {
+
+    @Param({"20", "200"})
+    private int pages;
+
+    @Param({"10", "60"})
+    private int dfirChunks;
+
+    private PythonApiService pythonApiService;
+    private List<Map<String, Object>> preprocessedPages;
+    private List<Map<String, Object>> dfirTechniques;
+    private Map<String, IntelligenceReportDTO.Technique> primaryTechniques;
+    private List<IntelligenceReportDTO.Technique> mergedTechniques;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Only the ObjectMapper is used by the methods under test
+        pythonApiService = new PythonApiService(null, new ObjectMapper(), null, null, null, null, null, null);
+        preprocessedPages = BenchmarkFixtures.preprocessedPages(pages, 42);
+        dfirTechniques = BenchmarkFixtures.dfirTechniques(dfirChunks, 6, 42);
+        primaryTechniques = BenchmarkFixtures.primaryTechniques(42);
+
+        Map<String, IntelligenceReportDTO.Technique> merged = copy(primaryTechniques);
+        pythonApiService.mergeDfirTechniques(merged, dfirTechniques);
+        mergedTechniques = List.copyOf(merged.values());
+    }
+
+    @Benchmark
+    public String prepareContentForLlm() {
+        return pythonApiService.prepareContentForLlm(preprocessedPages);
+    }
+
+    @Benchmark
+    public Map<String, IntelligenceReportDTO.Technique> mergeDfirTechniques() {
+        // mergeDfirTechniques mutates the techniques it merges into, so each call works on a fresh copy
+        Map<String, IntelligenceReportDTO.Technique> techniques = copy(primaryTechniques);
+        pythonApiService.mergeDfirTechniques(techniques, dfirTechniques);
+        return techniques;
+    }
+
+    @Benchmark
+    public void toFinalTechniques(Blackhole blackhole) {
+        for (IntelligenceReportDTO.Technique technique : mergedTechniques) {
+            blackhole.consume(pythonApiService.toFinalTechnique(technique));
+        }
+    }
+
+    private static Map<String, IntelligenceReportDTO.Technique> copy(Map<String, IntelligenceReportDTO.Technique> techniques) {
+        Map<String, IntelligenceReportDTO.Technique> copy = new LinkedHashMap<>();
+        techniques.forEach((id, technique) -> {
+            IntelligenceReportDTO.Technique techniqueCopy = new IntelligenceReportDTO.Technique();
+            techniqueCopy.setTechnique_id(technique.getTechnique_id());
+            techniqueCopy.setTechnique_name(technique.getTechnique_name());
+            techniqueCopy.setTechnique_usage(new HashMap<>(technique.getTechnique_usage()));
+            copy.put(id, techniqueCopy);
+        });
+        return copy;
+    }
+}
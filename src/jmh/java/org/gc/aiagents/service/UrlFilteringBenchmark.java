@@ -0,0 +1,77 @@
+package org.gc.aiagents.service;
+
+import org.gc.aiagents.properties.UrlClassifierProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-link filtering in {@link UrlCollectionService}, and the {@link UrlClassifier} that runs after it, over the links of a link-heavy blog index page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UrlFilteringBenchmark {
+
+    private static final String BASE_URL = "https://thedfirreport.com/";
+
+    @Param({"200", "5000"})
+    private int links;
+
+    private UrlCollectionService urlCollectionService;
+    private UrlClassifier urlClassifier;
+    private Set<String> collectedLinks;
+    private String[] linkArray;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // None of the methods under test touches the LLM client or the metrics
+        urlClassifier = new UrlClassifier(new UrlClassifierProperties());
+        urlCollectionService = new UrlCollectionService(null, null, urlClassifier);
+        collectedLinks = BenchmarkFixtures.collectedLinks(BASE_URL, links, 42);
+        linkArray = collectedLinks.toArray(new String[0]);
+    }
+
+    @Benchmark
+    public List<String> filterContentUrls() {
+        return urlCollectionService.filterContentUrls(collectedLinks, BASE_URL);
+    }
+
+    @Benchmark
+    public int containsExcludedKeywords() {
+        int excluded = 0;
+        for (String link : linkArray) {
+            if (urlCollectionService.containsExcludedKeywords(link)) {
+                excluded++;
+            }
+        }
+        return excluded;
+    }
+
+    @Benchmark
+    public int classifyUrls() {
+        int unsure = 0;
+        for (String link : linkArray) {
+            if (urlClassifier.classify(link) == UrlClassifier.Decision.UNSURE) {
+                unsure++;
+            }
+        }
+        return unsure;
+    }
+}
@@ -0,0 +1,165 @@
+package org.gc.aiagents.loadtest;
+
+import org.gc.aiagents.domain.ArticleScrapeStatus;
+import org.gc.aiagents.domain.ParentBlogSchedule;
+import org.gc.aiagents.repository.ArticleScrapeStatusRepository;
+import org.gc.aiagents.repository.ParentBlogScheduleRepository;
+import org.gc.aiagents.repository.ReportBlobRepository;
+import org.gc.aiagents.repository.TrainingDataRepository;
+import org.gc.aiagents.repository.es.ThreatIntelRepository;
+import org.springframework.data.annotation.Id;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Map-backed stand-ins for the Elasticsearch repositories. Only the calls the scan and article pipeline
+ * make are implemented; anything else fails loudly so a new repository call in the pipeline shows up as
+ * a harness error rather than a silently wrong result.
+ *
+ * The documents are stored by reference, like the pipeline expects from a save followed by a find, and
+ * each repository call costs nothing, so the harness measures the pipeline and its remote calls only.
+ * Reactive repositories get the same answers as a {@link Mono} or {@link Flux}, evaluated on subscription.
+ */
+final class InMemoryRepositories {
+
+    private InMemoryRepositories() {
+    }
+
+    static ParentBlogScheduleRepository parentBlogSchedules() {
+        Map<String, ParentBlogSchedule> documents = new ConcurrentHashMap<>();
+        Map<String, Function<Object[], Object>> queries = new HashMap<>();
+        queries.put("findByParentUrl", args -> documents.values().stream()
+                .filter(schedule -> schedule.getParentUrl().equals(args[0]))
+                .findFirst());
+        queries.put("findByNextScanDatetimeUtcLessThanEqual", args -> documents.values().stream()
+                .filter(schedule -> schedule.getNextScanDatetimeUtc() != null
+                        && !schedule.getNextScanDatetimeUtc().isAfter((Instant) args[0]))
+                .toList());
+        return repository(ParentBlogScheduleRepository.class, documents, queries, document -> { });
+    }
+
+    /**
+     * @param onSave called with every article saved, e.g. to time status transitions
+     */
+    static ArticleScrapeStatusRepository articleStatuses(Consumer<ArticleScrapeStatus> onSave) {
+        Map<String, ArticleScrapeStatus> documents = new ConcurrentHashMap<>();
+        Map<String, Function<Object[], Object>> queries = new HashMap<>();
+        queries.put("findByArticleUrl", args -> documents.values().stream()
+                .filter(article -> article.getArticleUrl().equals(args[0]))
+                .findFirst());
+        queries.put("existsByArticleUrl", args -> documents.values().stream()
+                .anyMatch(article -> article.getArticleUrl().equals(args[0])));
+        queries.put("findByScrapeStatus", args -> documents.values().stream()
+                .filter(article -> article.getScrapeStatus() == args[0])
+                .toList());
+        queries.put("countByScrapeStatus", args -> documents.values().stream()
+                .filter(article -> article.getScrapeStatus() == args[0])
+                .count());
+        return repository(ArticleScrapeStatusRepository.class, documents, queries, onSave);
+    }
+
+    static ThreatIntelRepository threatIntel() {
+        return repository(ThreatIntelRepository.class, new ConcurrentHashMap<>(), Map.of(), document -> { });
+    }
+
+    static ReportBlobRepository reportBlobs() {
+        return repository(ReportBlobRepository.class, new ConcurrentHashMap<>(), Map.of(), document -> { });
+    }
+
+    static TrainingDataRepository trainingData() {
+        return repository(TrainingDataRepository.class, new ConcurrentHashMap<>(), Map.of(), document -> { });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <R, T> R repository(Class<R> repositoryType, Map<String, T> documents,
+                                       Map<String, Function<Object[], Object>> queries, Consumer<T> onSave) {
+        return (R) Proxy.newProxyInstance(repositoryType.getClassLoader(), new Class<?>[] {repositoryType}, (proxy, method, args) -> {
+            if (method.getReturnType() == Mono.class) {
+                return Mono.defer(() -> Mono.justOrEmpty(unwrap(invoke(repositoryType, documents, queries, onSave, proxy, method, args))));
+            }
+            if (method.getReturnType() == Flux.class) {
+                return Flux.defer(() -> Flux.fromIterable((Iterable<?>) invoke(repositoryType, documents, queries, onSave, proxy, method, args)));
+            }
+            return invoke(repositoryType, documents, queries, onSave, proxy, method, args);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Object invoke(Class<?> repositoryType, Map<String, T> documents, Map<String, Function<Object[], Object>> queries,
+                                     Consumer<T> onSave, Object proxy, Method method, Object[] args) {
+        String name = method.getName();
+        Function<Object[], Object> query = queries.get(name);
+        if (query != null) {
+            return query.apply(args);
+        }
+        switch (name) {
+            case "save":
+            case "replace": // ThreatIntelRepository; one map, so no other backing index to look in
+                T document = (T) args[0];
+                documents.put(idOf(document), document);
+                onSave.accept(document);
+                return document;
+            case "saveAll":
+                for (T each : (Iterable<T>) args[0]) {
+                    documents.put(idOf(each), each);
+                    onSave.accept(each);
+                }
+                return args[0];
+            case "findById":
+                return Optional.ofNullable(documents.get((String) args[0]));
+            case "existsById":
+                return documents.containsKey((String) args[0]);
+            case "findAll":
+                return new ArrayList<>(documents.values());
+            case "count":
+                return (long) documents.size();
+            case "deleteById":
+                documents.remove((String) args[0]);
+                return null;
+            case "toString":
+                return "InMemory" + repositoryType.getSimpleName();
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            default:
+                throw new UnsupportedOperationException(repositoryType.getSimpleName() + "." + name
+                        + " is not implemented by the load test repositories");
+        }
+    }
+
+    private static Object unwrap(Object result) {
+        return result instanceof Optional<?> optional ? optional.orElse(null) : result;
+    }
+
+    private static String idOf(Object document) {
+        for (Field field : document.getClass().getDeclaredFields()) {
+            if (field.isAnnotationPresent(Id.class)) {
+                try {
+                    field.setAccessible(true);
+                    return (String) field.get(document);
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+        throw new IllegalArgumentException("No @Id field on " + document.getClass().getName());
+    }
+
+    static List<ArticleScrapeStatus> snapshot(ArticleScrapeStatusRepository repository) {
+        return repository.findAll().collectList().block();
+    }
+}
@@ -0,0 +1,352 @@
+package org.gc.aiagents.loadtest;
+
+import ch.qos.logback.classic.Level;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.propagation.Propagator;
+import org.gc.aiagents.domain.ArticleScrapeStatus;
+import org.gc.aiagents.properties.AzureOpenAIProperties;
+import org.gc.aiagents.properties.LlmProperties;
+import org.gc.aiagents.properties.PipelineSchedulerProperties;
+import org.gc.aiagents.properties.RetryBackoffProperties;
+import org.gc.aiagents.properties.TrainingDataProperties;
+import org.gc.aiagents.properties.UrlClassifierProperties;
+import org.gc.aiagents.properties.WorkQueueProperties;
+import org.gc.aiagents.repository.ArticleScrapeStatusRepository;
+import org.gc.aiagents.service.ArticleWorkScheduler;
+import org.gc.aiagents.service.AzureOpenAIService;
+import org.gc.aiagents.service.BlogManagerService;
+import org.gc.aiagents.service.ElasticsearchReportBlobStore;
+import org.gc.aiagents.service.HedgingPolicy;
+import org.gc.aiagents.service.LlmCallExecutor;
+import org.gc.aiagents.service.LlmRouter;
+import org.gc.aiagents.service.OpenAICompatibleLlmService;
+import org.gc.aiagents.service.ParentScanDispatcher;
+import org.gc.aiagents.service.PipelineMetrics;
+import org.gc.aiagents.service.PipelineSchedulers;
+import org.gc.aiagents.service.PipelineTracing;
+import org.gc.aiagents.service.PythonApiService;
+import org.gc.aiagents.service.ReportStore;
+import org.gc.aiagents.service.RetryBackoffPolicy;
+import org.gc.aiagents.service.TrainingDataHarvester;
+import org.gc.aiagents.service.UrlClassifier;
+import org.gc.aiagents.service.UrlCollectionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs {@link BlogManagerService} end to end, from the scheduled parent scan to the stored report, against
+ * local stand-ins: generated blog sites, a stub Python preprocessor, a stub Azure OpenAI endpoint with
+ * configurable latency and 429 rate, and in-memory repositories in place of Elasticsearch. The services
+ * are wired by hand with the same constructors and settings Spring uses, so no Elasticsearch or Azure
+ * configuration is needed.
+ *
+ * Options are passed as {@code --name=value}, see {@link Options}. Reports articles per minute, p50 and
+ * p99 per-article latency (from IN_PROGRESS to SUCCESS or FAILED), LLM calls and 429s per article, and
+ * the pipeline's own stage timers.
+ */
+public final class PipelineLoadTest {
+
+    private PipelineLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.toLevel(options.logLevel));
+
+        ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+        ArticleLatencies latencies = new ArticleLatencies();
+
+        try (StubBlogSites sites = new StubBlogSites(options.articlesPerParent);
+             StubPythonApi pythonApi = new StubPythonApi(objectMapper, options.preprocessLatencyMs, options.pages, options.dfirChunks);
+             StubAzureOpenAI openAi = new StubAzureOpenAI(objectMapper, options.llmLatencyMs, options.llmThrottleRate, options.llmRetryAfterMs,
+                     options.llmCapacity, options.llmSlowRate, options.llmSlowMs)) {
+
+            ArticleScrapeStatusRepository articleRepository = InMemoryRepositories.articleStatuses(latencies::onSave);
+            SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+            WorkQueueProperties workQueueProperties = new WorkQueueProperties();
+            workQueueProperties.setConcurrency(options.workConcurrency);
+            ArticleWorkScheduler articleWorkScheduler = new ArticleWorkScheduler(workQueueProperties, meterRegistry);
+            BlogManagerService blogManagerService = wire(options, objectMapper, meterRegistry, articleRepository, articleWorkScheduler,
+                    openAi.baseUrl(), pythonApi.baseUrl());
+
+            List<String> parentUrls = sites.parentUrls(options.parents);
+            for (String parentUrl : parentUrls) {
+                blogManagerService.addParentBlogForScanning(parentUrl, null).block();
+            }
+
+            System.out.printf("Scanning %d parents (%d articles each), work concurrency %d, %d LLM permits per client (%s), "
+                            + "LLM latency %d ms (%.2f at %d ms), 429 rate %.2f, deployment capacity %s, hedging %s%n",
+                    options.parents, options.articlesPerParent, options.workConcurrency, options.llmMaxConcurrent,
+                    options.llmAdaptive ? "adaptive up to " + options.llmMaxLimit : "fixed",
+                    options.llmLatencyMs, options.llmSlowRate, options.llmSlowMs, options.llmThrottleRate,
+                    options.llmCapacity > 0 ? options.llmCapacity : "unlimited", options.llmHedge ? "on" : "off");
+
+            long startNanos = System.nanoTime();
+            Long scanned = blogManagerService.runScheduledParentScans().block();
+            // Scans end once their articles are queued; the run ends when the work queue has drained
+            while (articleWorkScheduler.getQueuedCount() + articleWorkScheduler.getInFlightCount() > 0) {
+                Thread.sleep(50);
+            }
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+
+            report(scanned, elapsed, InMemoryRepositories.snapshot(articleRepository), latencies, openAi, pythonApi, meterRegistry);
+        }
+        // Reactor Netty and the Azure SDK keep non-daemon threads around
+        System.exit(0);
+    }
+
+    private static BlogManagerService wire(Options options, ObjectMapper objectMapper, SimpleMeterRegistry meterRegistry,
+                                           ArticleScrapeStatusRepository articleRepository, ArticleWorkScheduler articleWorkScheduler,
+                                           String openAiEndpoint, String pythonApiBaseUrl) {
+        PipelineTracing pipelineTracing = new PipelineTracing(ObservationRegistry.NOOP, Propagator.NOOP);
+        PipelineMetrics pipelineMetrics = new PipelineMetrics(meterRegistry, pipelineTracing, articleRepository);
+
+        AzureOpenAIProperties azureProperties = new AzureOpenAIProperties();
+        Map<String, AzureOpenAIProperties.Client> clients = new HashMap<>();
+        for (String clientName : new String[] {"azure-1", "azure-2"}) {
+            AzureOpenAIProperties.Client client = new AzureOpenAIProperties.Client();
+            client.setEndpoint(openAiEndpoint);
+            client.setApiKey("loadtest");
+            client.setDeploymentName(clientName.equals("azure-1") ? "gpt-4o" : "gpt-4o-mini");
+            client.setMaxConcurrentRequests(options.llmMaxConcurrent);
+            client.getAdaptiveConcurrency().setEnabled(options.llmAdaptive);
+            client.getAdaptiveConcurrency().setMaxConcurrentRequests(options.llmMaxLimit);
+            clients.put(clientName, client);
+        }
+        azureProperties.setClients(clients);
+        azureProperties.getHedging().setEnabled(options.llmHedge);
+        azureProperties.getHedging().setAlternates(Map.of("azure-1", "azure-2", "azure-2", "azure-1"));
+        RetryBackoffPolicy retryBackoffPolicy = new RetryBackoffPolicy(new RetryBackoffProperties());
+        LlmCallExecutor llmCallExecutor = new LlmCallExecutor(pipelineMetrics, pipelineTracing, retryBackoffPolicy);
+        AzureOpenAIService azureOpenAIService = new AzureOpenAIService(azureProperties, pipelineMetrics, pipelineTracing, llmCallExecutor,
+                new HedgingPolicy(azureProperties));
+
+        // Tasks given in --llm-local-tasks go to the same stub through the OpenAI-compatible provider
+        LlmProperties llmProperties = new LlmProperties();
+        LlmProperties.OpenAICompatibleClient localClient = new LlmProperties.OpenAICompatibleClient();
+        localClient.setBaseUrl(openAiEndpoint + "/v1");
+        localClient.setModel("local-model");
+        localClient.setMaxConcurrentRequests(options.llmMaxConcurrent);
+        llmProperties.getOpenaiCompatible().put("local", localClient);
+        options.llmLocalTasks.forEach(task -> llmProperties.getRoutes().put(task, OpenAICompatibleLlmService.NAME + ":local"));
+        LlmRouter llmRouter = new LlmRouter(List.of(azureOpenAIService,
+                new OpenAICompatibleLlmService(WebClient.builder(), llmProperties, pipelineMetrics, pipelineTracing, llmCallExecutor)),
+                llmProperties);
+
+        PipelineSchedulers pipelineSchedulers = new PipelineSchedulers(new PipelineSchedulerProperties(), meterRegistry);
+        PythonApiService pythonApiService = new PythonApiService(WebClient.builder(), objectMapper, llmRouter,
+                InMemoryRepositories.threatIntel(), pipelineMetrics,
+                new TrainingDataHarvester(InMemoryRepositories.trainingData(), new TrainingDataProperties(), pipelineMetrics, pipelineSchedulers),
+                pipelineSchedulers, retryBackoffPolicy);
+        ReflectionTestUtils.setField(pythonApiService, "pythonApiBaseUrl", pythonApiBaseUrl);
+        ReflectionTestUtils.setField(pythonApiService, "timeoutSeconds", 60);
+        ReflectionTestUtils.setField(pythonApiService, "maxConcurrentLlmCalls", 1);
+        ReflectionTestUtils.setField(pythonApiService, "llmCallMaxAttempts", 3);
+
+        ParentScanDispatcher parentScanDispatcher = new ParentScanDispatcher(meterRegistry);
+        ReflectionTestUtils.setField(parentScanDispatcher, "maxConcurrentScans", options.scanConcurrency);
+
+        UrlClassifierProperties urlClassifierProperties = new UrlClassifierProperties();
+        urlClassifierProperties.setEnabled(options.urlClassifier);
+
+        BlogManagerService blogManagerService = new BlogManagerService(
+                InMemoryRepositories.parentBlogSchedules(),
+                articleRepository,
+                new UrlCollectionService(llmRouter, pipelineMetrics, new UrlClassifier(urlClassifierProperties)),
+                pythonApiService,
+                new ReportStore(new ElasticsearchReportBlobStore(InMemoryRepositories.reportBlobs()), objectMapper, pipelineSchedulers),
+                articleWorkScheduler,
+                parentScanDispatcher,
+                pipelineTracing,
+                retryBackoffPolicy,
+                objectMapper,
+                pipelineSchedulers);
+        ReflectionTestUtils.setField(blogManagerService, "defaultScanIntervalHours", 168);
+        ReflectionTestUtils.setField(blogManagerService, "defaultRetryIntervalMinutes", 60);
+        ReflectionTestUtils.setField(blogManagerService, "maxFailureCount", 5);
+        ReflectionTestUtils.setField(blogManagerService, "pythonProvider", "azure");
+        ReflectionTestUtils.setField(blogManagerService, "stuckArticleTimeoutMinutes", 10);
+        ReflectionTestUtils.setField(blogManagerService, "maxReextractAttempts", 3);
+        // Every parent is due at once, the burst the scan dispatcher and work queue have to absorb
+        ReflectionTestUtils.setField(blogManagerService, "initialScanSpreadMinutes", 0);
+        return blogManagerService;
+    }
+
+    private static void report(Long scanned, Duration elapsed, List<ArticleScrapeStatus> articles, ArticleLatencies latencies,
+                               StubAzureOpenAI openAi, StubPythonApi pythonApi, SimpleMeterRegistry meterRegistry) {
+        long succeeded = articles.stream().filter(article -> article.getScrapeStatus() == ArticleScrapeStatus.ScrapeStatus.SUCCESS).count();
+        long failed = articles.stream().filter(article -> article.getScrapeStatus() == ArticleScrapeStatus.ScrapeStatus.FAILED).count();
+        long partial = articles.stream().filter(article -> article.getExtractionStatus() == ArticleScrapeStatus.ExtractionStatus.PARTIAL).count();
+        long finished = succeeded + failed;
+        double minutes = elapsed.toMillis() / 60_000.0;
+
+        List<Long> articleMillis = latencies.finishedMillis();
+        long extractionCalls = 0;
+        long extractionThrottled = 0;
+        for (String task : new String[] {StubAzureOpenAI.TASK_INDICATORS, StubAzureOpenAI.TASK_TECHNIQUES, StubAzureOpenAI.TASK_DFIR}) {
+            extractionCalls += openAi.completed(task);
+            extractionThrottled += openAi.throttled(task);
+        }
+
+        System.out.println();
+        System.out.printf("Parents scanned:        %d in %.1f s%n", scanned, elapsed.toMillis() / 1000.0);
+        System.out.printf("Articles:               %d finished (%d succeeded, %d partial, %d failed), %d preprocess calls%n",
+                finished, succeeded, partial, failed, pythonApi.requests());
+        System.out.printf("Throughput:             %.1f articles/min%n", minutes > 0 ? finished / minutes : 0.0);
+        System.out.printf("Per-article latency:    p50 %d ms, p99 %d ms, max %d ms%n",
+                percentile(articleMillis, 0.50), percentile(articleMillis, 0.99), percentile(articleMillis, 1.0));
+        System.out.printf("LLM calls per article:  %.2f completed, %.2f throttled (429)%n",
+                perArticle(extractionCalls, finished), perArticle(extractionThrottled, finished));
+        System.out.printf("Classification calls:   %d completed, %d throttled (429)%n",
+                openAi.completed(StubAzureOpenAI.TASK_CLASSIFY), openAi.throttled(StubAzureOpenAI.TASK_CLASSIFY));
+        for (Gauge limit : meterRegistry.find("blog.manager.llm.concurrency.limit").gauges()) {
+            System.out.printf("Final LLM limit:        %s %d%n", limit.getId().getTag("client"), (long) limit.value());
+        }
+        for (Counter hedges : meterRegistry.find("blog.manager.llm.hedges").counters()) {
+            System.out.printf("LLM hedges:             %s %s %d%n", hedges.getId().getTag("task"), hedges.getId().getTag("outcome"), (long) hedges.count());
+        }
+        for (FunctionCounter completed : meterRegistry.find("executor.completed").functionCounters()) {
+            System.out.printf("Scheduler tasks:        %s %d%n", completed.getId().getTag("name"), (long) completed.count());
+        }
+
+        System.out.println();
+        System.out.println("Stage timers (blog.manager.stage):");
+        List<Timer> timers = new ArrayList<>(meterRegistry.find("blog.manager.stage").timers());
+        timers.sort(Comparator.comparing((Timer timer) -> timer.getId().getTag("stage")).thenComparing(timer -> timer.getId().getTag("outcome")));
+        for (Timer timer : timers) {
+            System.out.printf("  %-20s %-8s count %6d  mean %8.1f ms  max %8.1f ms%n",
+                    timer.getId().getTag("stage"), timer.getId().getTag("outcome"), timer.count(),
+                    timer.mean(TimeUnit.MILLISECONDS), timer.max(TimeUnit.MILLISECONDS));
+        }
+    }
+
+    private static long percentile(List<Long> sortedMillis, double quantile) {
+        if (sortedMillis.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sortedMillis.size()) - 1;
+        return sortedMillis.get(Math.max(0, Math.min(index, sortedMillis.size() - 1)));
+    }
+
+    private static double perArticle(long count, long articles) {
+        return articles == 0 ? 0.0 : (double) count / articles;
+    }
+
+    /**
+     * Times each article from its first IN_PROGRESS save to its SUCCESS or FAILED save.
+     */
+    private static final class ArticleLatencies {
+
+        private final Map<String, Long> startedNanos = new ConcurrentHashMap<>();
+        private final Map<String, Long> finishedMillis = new ConcurrentHashMap<>();
+
+        void onSave(ArticleScrapeStatus article) {
+            long now = System.nanoTime();
+            switch (article.getScrapeStatus()) {
+                case IN_PROGRESS -> startedNanos.putIfAbsent(article.getArticleUrl(), now);
+                case SUCCESS, FAILED -> {
+                    Long started = startedNanos.get(article.getArticleUrl());
+                    if (started != null) {
+                        finishedMillis.putIfAbsent(article.getArticleUrl(), (now - started) / 1_000_000);
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+
+        List<Long> finishedMillis() {
+            List<Long> millis = new ArrayList<>(finishedMillis.values());
+            Collections.sort(millis);
+            return millis;
+        }
+    }
+
+    /**
+     * Harness options, all optional: {@code --parents=20 --articles-per-parent=10 --work-concurrency=4
+     * --scan-concurrency=2 --llm-max-concurrent=4 --llm-adaptive=true --llm-max-limit=16 --llm-capacity=0
+     * --llm-latency-ms=1500 --llm-slow-rate=0 --llm-slow-ms=30000 --llm-hedge=false --llm-throttle-rate=0.05
+     * --llm-retry-after-ms=1000 --preprocess-latency-ms=800
+     * --pages=20 --dfir-chunks=6 --llm-local-tasks=classify,extract_dfir --url-classifier=true --log-level=WARN}. {@code --llm-max-concurrent}
+     * is the starting limit when {@code --llm-adaptive} is on. {@code --llm-local-tasks} routes those tasks to the
+     * OpenAI-compatible provider (fixed limit of {@code --llm-max-concurrent}) instead of Azure.
+     * The crawler keeps at most 10 links per parent, so more than 10 articles per parent has no effect.
+     */
+    private static final class Options {
+
+        int parents = 20;
+        int articlesPerParent = 10;
+        int workConcurrency = 4;
+        int scanConcurrency = 2;
+        int llmMaxConcurrent = 4;
+        boolean llmAdaptive = true;
+        int llmMaxLimit = 16;
+        int llmCapacity = 0;
+        double llmSlowRate = 0;
+        long llmSlowMs = 30000;
+        boolean llmHedge = false;
+        long llmLatencyMs = 1500;
+        double llmThrottleRate = 0.05;
+        long llmRetryAfterMs = 1000;
+        long preprocessLatencyMs = 800;
+        int pages = 20;
+        int dfirChunks = 6;
+        List<String> llmLocalTasks = List.of();
+        boolean urlClassifier = true;
+        String logLevel = "WARN";
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (String arg : args) {
+                if (!arg.startsWith("--") || !arg.contains("=")) {
+                    throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+                }
+                String name = arg.substring(2, arg.indexOf('='));
+                String value = arg.substring(arg.indexOf('=') + 1);
+                switch (name) {
+                    case "parents" -> options.parents = Integer.parseInt(value);
+                    case "articles-per-parent" -> options.articlesPerParent = Integer.parseInt(value);
+                    case "work-concurrency" -> options.workConcurrency = Integer.parseInt(value);
+                    case "scan-concurrency" -> options.scanConcurrency = Integer.parseInt(value);
+                    case "llm-max-concurrent" -> options.llmMaxConcurrent = Integer.parseInt(value);
+                    case "llm-adaptive" -> options.llmAdaptive = Boolean.parseBoolean(value);
+                    case "llm-max-limit" -> options.llmMaxLimit = Integer.parseInt(value);
+                    case "llm-capacity" -> options.llmCapacity = Integer.parseInt(value);
+                    case "llm-slow-rate" -> options.llmSlowRate = Double.parseDouble(value);
+                    case "llm-slow-ms" -> options.llmSlowMs = Long.parseLong(value);
+                    case "llm-hedge" -> options.llmHedge = Boolean.parseBoolean(value);
+                    case "llm-latency-ms" -> options.llmLatencyMs = Long.parseLong(value);
+                    case "llm-throttle-rate" -> options.llmThrottleRate = Double.parseDouble(value);
+                    case "llm-retry-after-ms" -> options.llmRetryAfterMs = Long.parseLong(value);
+                    case "preprocess-latency-ms" -> options.preprocessLatencyMs = Long.parseLong(value);
+                    case "pages" -> options.pages = Integer.parseInt(value);
+                    case "dfir-chunks" -> options.dfirChunks = Integer.parseInt(value);
+                    case "llm-local-tasks" -> options.llmLocalTasks = List.of(value.split(","));
+                    case "url-classifier" -> options.urlClassifier = Boolean.parseBoolean(value);
+                    case "log-level" -> options.logLevel = value;
+                    default -> throw new IllegalArgumentException("Unknown option: --" + name);
+                }
+            }
+            return options;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package org.gc.aiagents.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stand-in for Azure OpenAI chat completions ({@code /openai/deployments/<deployment>/chat/completions}).
+ * The task is recognised from the system prompt and answered with a small well-formed result of the
+ * shape the pipeline parses, after the configured latency. A configurable share of requests is
+ * rejected with 429 and a {@code retry-after-ms} header, like a deployment at its rate limit, and so is
+ * every request beyond the configured capacity (concurrent requests per deployment), so an adaptive
+ * client limit has a ceiling to find. Another configurable share answers only after a much longer delay,
+ * the slow tail that hedging is meant to cut. Served over TLS, since the SDK only sends the API key over HTTPS.
+ */
+final class StubAzureOpenAI extends StubServer {
+
+    static final String TASK_CLASSIFY = "classify";
+    static final String TASK_INDICATORS = "indicators";
+    static final String TASK_TECHNIQUES = "techniques";
+    static final String TASK_DFIR = "dfir";
+
+    private final ObjectMapper objectMapper;
+    private final long latencyMillis;
+    private final double throttleRate;
+    private final long retryAfterMillis;
+    private final int capacity;
+    private final double slowRate;
+    private final long slowMillis;
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> completed = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> throttled = new ConcurrentHashMap<>();
+
+    /**
+     * @param capacity concurrent requests each deployment serves before answering 429; 0 for no limit
+     * @param slowRate share of completions delayed by {@code slowMillis} instead of the normal latency
+     */
+    StubAzureOpenAI(ObjectMapper objectMapper, long latencyMillis, double throttleRate, long retryAfterMillis, int capacity,
+                    double slowRate, long slowMillis) throws Exception {
+        super(true);
+        this.objectMapper = objectMapper;
+        this.latencyMillis = latencyMillis;
+        this.throttleRate = throttleRate;
+        this.retryAfterMillis = retryAfterMillis;
+        this.capacity = capacity;
+        this.slowRate = slowRate;
+        this.slowMillis = slowMillis;
+    }
+
+    long completed(String task) {
+        return completed.getOrDefault(task, new AtomicLong()).get();
+    }
+
+    long throttled(String task) {
+        return throttled.getOrDefault(task, new AtomicLong()).get();
+    }
+
+    @Override
+    Mono<Reply> handle(String path, String body) {
+        AtomicInteger deploymentInFlight = inFlight.computeIfAbsent(path, key -> new AtomicInteger());
+        return Mono.fromCallable(() -> reply(objectMapper.readTree(body), deploymentInFlight.incrementAndGet()))
+                .flatMap(reply -> reply.status == 200 ? afterLatency(latency(), Mono.just(reply)) : Mono.just(reply))
+                .doFinally(signal -> deploymentInFlight.decrementAndGet());
+    }
+
+    private long latency() {
+        return ThreadLocalRandom.current().nextDouble() < slowRate ? slowMillis : latencyMillis;
+    }
+
+    private Reply reply(JsonNode request, int deploymentInFlight) throws Exception {
+        String systemPrompt = request.path("messages").path(0).path("content").asText();
+        String userPrompt = request.path("messages").path(1).path("content").asText();
+        String task = task(systemPrompt);
+
+        if ((capacity > 0 && deploymentInFlight > capacity) || ThreadLocalRandom.current().nextDouble() < throttleRate) {
+            throttled.computeIfAbsent(task, key -> new AtomicLong()).incrementAndGet();
+            return new Reply(429, "application/json",
+                    "{\"error\":{\"code\":\"429\",\"message\":\"Requests to the deployment have exceeded the rate limit.\"}}",
+                    Map.of("retry-after-ms", String.valueOf(retryAfterMillis)));
+        }
+
+        String content = answer(task, userPrompt);
+        completed.computeIfAbsent(task, key -> new AtomicLong()).incrementAndGet();
+        return new Reply(200, "application/json",
+                objectMapper.writeValueAsString(completion(content, systemPrompt.length() + userPrompt.length())));
+    }
+
+    private static String task(String systemPrompt) {
+        if (systemPrompt.contains("blog_article_urls")) {
+            return TASK_CLASSIFY;
+        }
+        if (systemPrompt.contains("technique_procedure")) {
+            return TASK_DFIR;
+        }
+        if (systemPrompt.contains("technique_usage")) {
+            return TASK_TECHNIQUES;
+        }
+        return TASK_INDICATORS;
+    }
+
+    private String answer(String task, String userPrompt) throws Exception {
+        switch (task) {
+            case TASK_CLASSIFY:
+                // Every candidate that looks like a dated permalink is an article
+                List<String> articles = new ArrayList<>();
+                for (String line : userPrompt.split("\n")) {
+                    if (line.startsWith("- ") && line.matches(".*/\\d{4}/\\d{2}/.*")) {
+                        articles.add(line.substring(2).trim());
+                    }
+                }
+                return objectMapper.writeValueAsString(Map.of("blog_article_urls", articles));
+            case TASK_INDICATORS:
+                return objectMapper.writeValueAsString(Map.of(
+                        "name", "Intrusion report",
+                        "description", "Cobalt Strike intrusion ending in ransomware",
+                        "created", "04-03-2024",
+                        "indicators", List.of(
+                                Map.of("type", "ipv4-addr", "value", "203.0.113.17", "description", "Exfiltration server"),
+                                Map.of("type", "file", "value", "procdump.exe", "description", "Renamed LSASS dumper"))));
+            case TASK_TECHNIQUES:
+                return objectMapper.writeValueAsString(Map.of("techniques", List.of(
+                        Map.of("technique_id", "T1218.011", "technique_name", "Rundll32",
+                                "technique_usage", Map.of("from_text", "Beacon executed via rundll32.exe")),
+                        Map.of("technique_id", "T1003.001", "technique_name", "LSASS Memory",
+                                "technique_usage", Map.of("from_text", "LSASS dumped with procdump")))));
+            default:
+                return objectMapper.writeValueAsString(List.of(
+                        Map.of("technique_id", "T1021.002", "technique_name", "SMB/Windows Admin Shares",
+                                "technique_procedure", "Moved laterally over SMB to the domain controller"),
+                        Map.of("technique_id", "T1048", "technique_name", "Exfiltration Over Alternative Protocol",
+                                "technique_procedure", "Exfiltrated the archive over HTTPS")));
+        }
+    }
+
+    private static Map<String, Object> completion(String content, int promptChars) {
+        // Roughly four characters per token, which is close enough for relative token accounting
+        int promptTokens = promptChars / 4;
+        int completionTokens = content.length() / 4;
+
+        Map<String, Object> choice = new LinkedHashMap<>();
+        choice.put("index", 0);
+        choice.put("message", Map.of("role", "assistant", "content", content));
+        choice.put("finish_reason", "stop");
+
+        Map<String, Object> completion = new LinkedHashMap<>();
+        completion.put("id", "chatcmpl-loadtest");
+        completion.put("object", "chat.completion");
+        completion.put("created", System.currentTimeMillis() / 1000);
+        completion.put("model", "gpt-4o");
+        completion.put("choices", List.of(choice));
+        completion.put("usage", Map.of(
+                "prompt_tokens", promptTokens,
+                "completion_tokens", completionTokens,
+                "total_tokens", promptTokens + completionTokens));
+        return completion;
+    }
+}
@@ -0,0 +1,49 @@
+package org.gc.aiagents.loadtest;
+
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generated parent blogs, served under {@code /site-<n>/}. Each index page links to its articles with
+ * absolute URLs, mixed with the navigation, tag and author links a real blog index carries, so the
+ * crawler's filtering and the LLM classification see a realistic candidate list.
+ */
+final class StubBlogSites extends StubServer {
+
+    private static final String[] NAVIGATION = {"about", "contact", "tag/ransomware", "category/threat-intel", "feed", "search"};
+
+    private final int articlesPerSite;
+
+    StubBlogSites(int articlesPerSite) throws IOException {
+        this.articlesPerSite = articlesPerSite;
+    }
+
+    List<String> parentUrls(int sites) {
+        List<String> urls = new ArrayList<>(sites);
+        for (int site = 0; site < sites; site++) {
+            urls.add(baseUrl() + "/site-" + site + "/");
+        }
+        return urls;
+    }
+
+    @Override
+    Mono<Reply> handle(String path, String body) {
+        int siteEnd = path.indexOf('/');
+        String siteRoot = baseUrl() + "/" + (siteEnd < 0 ? path : path.substring(0, siteEnd)) + "/";
+
+        StringBuilder html = new StringBuilder("<html><body><nav>");
+        for (String navigation : NAVIGATION) {
+            html.append("<a href=\"").append(siteRoot).append(navigation).append("/\">").append(navigation).append("</a>");
+        }
+        html.append("</nav><main>");
+        for (int article = 0; article < articlesPerSite; article++) {
+            html.append("<a href=\"").append(siteRoot).append("2024/0").append(article % 9 + 1)
+                    .append("/intrusion-report-").append(article).append("\">Report ").append(article).append("</a>");
+        }
+        html.append("</main></body></html>");
+        return Mono.just(new Reply(200, "text/html", html.toString()));
+    }
+}
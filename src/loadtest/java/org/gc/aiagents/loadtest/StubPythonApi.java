@@ -0,0 +1,66 @@
+package org.gc.aiagents.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stand-in for the Python API's {@code /pdf-parser/preprocess}: after the configured latency it returns
+ * raw, filtered and DFIR-chunked content of a fixed size for any article URL.
+ */
+final class StubPythonApi extends StubServer {
+
+    private static final String PARAGRAPH = "The threat actor deployed a Cobalt Strike beacon via rundll32.exe, moved laterally "
+            + "over SMB to the domain controller, dumped LSASS with a renamed procdump and exfiltrated the archive "
+            + "over HTTPS to 203.0.113.17 before encrypting the file servers.";
+
+    private final long latencyMillis;
+    private final String response;
+    private final AtomicLong requests = new AtomicLong();
+
+    StubPythonApi(ObjectMapper objectMapper, long latencyMillis, int pages, int dfirChunks) throws Exception {
+        this.latencyMillis = latencyMillis;
+        this.response = objectMapper.writeValueAsString(preprocessed(pages, dfirChunks));
+    }
+
+    long requests() {
+        return requests.get();
+    }
+
+    @Override
+    Mono<Reply> handle(String path, String body) {
+        if (!path.equals("pdf-parser/preprocess")) {
+            return Mono.just(new Reply(404, "text/plain", "Not found"));
+        }
+        requests.incrementAndGet();
+        return afterLatency(latencyMillis, Mono.just(new Reply(200, "application/json", response)));
+    }
+
+    private static Map<String, Object> preprocessed(int pages, int dfirChunks) {
+        List<Map<String, Object>> pageBlocks = new ArrayList<>(pages);
+        for (int page = 0; page < pages; page++) {
+            List<Map<String, Object>> elements = new ArrayList<>();
+            for (int block = 0; block < 6; block++) {
+                elements.add(Map.of("type", "text", "content", PARAGRAPH));
+            }
+            pageBlocks.add(Map.of("page", page + 1, "elements", elements));
+        }
+
+        List<List<Map<String, Object>>> chunks = new ArrayList<>(dfirChunks);
+        for (int chunk = 0; chunk < dfirChunks; chunk++) {
+            chunks.add(List.of(Map.of("page", chunk + 1, "content", PARAGRAPH.repeat(4))));
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("raw_data", pageBlocks);
+        response.put("filtered_data", pageBlocks);
+        response.put("dfir_data", chunks);
+        response.put("metadata", Map.of("pages", pages));
+        return response;
+    }
+}
@@ -0,0 +1,160 @@
+package org.gc.aiagents.loadtest;
+
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.Http11SslContextSpec;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+import javax.net.ssl.KeyManagerFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Base for the HTTP stand-ins: a Reactor Netty server on an ephemeral loopback port. Simulated latency
+ * is a timer rather than a sleeping thread, so the stubs keep up with any concurrency the pipeline
+ * is configured for.
+ *
+ * The Azure SDK refuses to send key credentials over plain HTTP, so a server can be started with TLS:
+ * the certificate is self-signed for 127.0.0.1, generated with keytool on first use, and trusted for the
+ * whole JVM through {@code javax.net.ssl.trustStore}.
+ */
+abstract class StubServer implements AutoCloseable {
+
+    // Stubs stand in for remote services, so they must not share the pipeline's event loops: a stalled
+    // loop in the pipeline would otherwise stall the stubs too and hide where the time went
+    private static final LoopResources STUB_LOOPS = LoopResources.create("loadtest-stub", 4, true);
+
+    private static KeyManagerFactory keyManagerFactory;
+
+    private final DisposableServer server;
+    private final String scheme;
+
+    StubServer() throws IOException {
+        this(false);
+    }
+
+    StubServer(boolean tls) throws IOException {
+        HttpServer httpServer = HttpServer.create().host("127.0.0.1").port(0).runOn(STUB_LOOPS);
+        if (tls) {
+            KeyManagerFactory keyManagers = selfSignedKeyManagers();
+            httpServer = httpServer.secure(spec -> spec.sslContext(Http11SslContextSpec.forServer(keyManagers)));
+        }
+        scheme = tls ? "https" : "http";
+        server = httpServer
+                .handle((request, response) -> request.receive().aggregate().asString(StandardCharsets.UTF_8)
+                        .defaultIfEmpty("")
+                        .flatMap(body -> handle(request.path(), body))
+                        .onErrorResume(e -> Mono.just(new Reply(500, "text/plain", String.valueOf(e.getMessage()))))
+                        .flatMap(reply -> {
+                            reply.headers.forEach(response::header);
+                            return response.status(reply.status)
+                                    .header("Content-Type", reply.contentType)
+                                    .sendString(Mono.just(reply.body), StandardCharsets.UTF_8)
+                                    .then();
+                        }))
+                .bindNow();
+    }
+
+    /**
+     * @param path request path without the leading slash or query string
+     */
+    abstract Mono<Reply> handle(String path, String body);
+
+    String baseUrl() {
+        return scheme + "://127.0.0.1:" + server.port();
+    }
+
+    /**
+     * Delays a reply by a latency drawn uniformly from [mean / 2, 3 * mean / 2].
+     */
+    static Mono<Reply> afterLatency(long meanMillis, Mono<Reply> reply) {
+        if (meanMillis <= 0) {
+            return reply;
+        }
+        long millis = meanMillis / 2 + ThreadLocalRandom.current().nextLong(meanMillis + 1);
+        return Mono.delay(Duration.ofMillis(millis)).then(reply);
+    }
+
+    private static synchronized KeyManagerFactory selfSignedKeyManagers() throws IOException {
+        if (keyManagerFactory != null) {
+            return keyManagerFactory;
+        }
+        char[] password = "loadtest".toCharArray();
+        Path directory = Files.createTempDirectory("loadtest-tls");
+        Path keyStoreFile = directory.resolve("keystore.p12");
+        Path trustStoreFile = directory.resolve("truststore.p12");
+        directory.toFile().deleteOnExit();
+        keyStoreFile.toFile().deleteOnExit();
+        trustStoreFile.toFile().deleteOnExit();
+
+        Path keytool = Path.of(System.getProperty("java.home"), "bin", "keytool");
+        Process process = new ProcessBuilder(keytool.toString(), "-genkeypair", "-alias", "stub", "-keyalg", "RSA",
+                "-keysize", "2048", "-validity", "1", "-dname", "CN=127.0.0.1", "-ext", "san=ip:127.0.0.1",
+                "-storetype", "PKCS12", "-keystore", keyStoreFile.toString(),
+                "-storepass", new String(password), "-keypass", new String(password))
+                .redirectErrorStream(true)
+                .start();
+        try {
+            String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            if (process.waitFor() != 0) {
+                throw new IOException("keytool failed: " + output);
+            }
+
+            KeyStore keyStore = KeyStore.getInstance("PKCS12");
+            try (InputStream in = Files.newInputStream(keyStoreFile)) {
+                keyStore.load(in, password);
+            }
+            KeyStore trustStore = KeyStore.getInstance("PKCS12");
+            trustStore.load(null, password);
+            trustStore.setCertificateEntry("stub", keyStore.getCertificate("stub"));
+            try (OutputStream out = Files.newOutputStream(trustStoreFile)) {
+                trustStore.store(out, password);
+            }
+            System.setProperty("javax.net.ssl.trustStore", trustStoreFile.toString());
+            System.setProperty("javax.net.ssl.trustStorePassword", new String(password));
+            System.setProperty("javax.net.ssl.trustStoreType", "PKCS12");
+
+            KeyManagerFactory keyManagers = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+            keyManagers.init(keyStore, password);
+            keyManagerFactory = keyManagers;
+            return keyManagerFactory;
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Could not set up TLS for the stub server", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+
+    static final class Reply {
+
+        final int status;
+        final String contentType;
+        final String body;
+        final Map<String, String> headers;
+
+        Reply(int status, String contentType, String body) {
+            this(status, contentType, body, Map.of());
+        }
+
+        Reply(int status, String contentType, String body, Map<String, String> headers) {
+            this.status = status;
+            this.contentType = contentType;
+            this.body = body;
+            this.headers = headers;
+        }
+    }
+}
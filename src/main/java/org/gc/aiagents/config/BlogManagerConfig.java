@@ -1,5 +1,6 @@
 package org.gc.aiagents.config;
 
+import io.micrometer.observation.ObservationRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableScheduling;
@@ -10,8 +11,9 @@ import org.springframework.web.reactive.function.client.WebClient;
 public class BlogManagerConfig {
     
     @Bean
-    public WebClient.Builder webClientBuilder() {
+    public WebClient.Builder webClientBuilder(ObservationRegistry observationRegistry) {
         return WebClient.builder()
+                .observationRegistry(observationRegistry) // Traces calls and propagates trace headers to the Python API
                 .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(10 * 1024 * 1024)); // 10MB
     }
 }
@@ -1,10 +1,16 @@
 package org.gc.aiagents.config;
 
+import co.elastic.clients.transport.ElasticsearchTransport;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.elasticsearch.client.ClientConfiguration;
 import org.springframework.data.elasticsearch.client.elc.ElasticsearchClients;
 import org.springframework.data.elasticsearch.client.elc.ElasticsearchConfiguration;
+import org.springframework.data.elasticsearch.client.elc.ReactiveElasticsearchClient;
+import org.springframework.data.elasticsearch.client.elc.ReactiveElasticsearchTemplate;
+import org.springframework.data.elasticsearch.core.ReactiveElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.convert.ElasticsearchConverter;
 
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.TrustManagerFactory;
@@ -66,6 +72,23 @@ public class EC2Config extends ElasticsearchConfiguration {
         }
     }
 
+    /**
+     * Reactive client for the reactive repositories, on the same transport as the blocking one. The
+     * underlying REST client is asynchronous, so reactive calls hold no thread while waiting for Elasticsearch.
+     */
+    @Bean
+    public ReactiveElasticsearchClient reactiveElasticsearchClient(ElasticsearchTransport elasticsearchTransport) {
+        return new ReactiveElasticsearchClient(elasticsearchTransport, transportOptions());
+    }
+
+    @Bean(name = {"reactiveElasticsearchOperations", "reactiveElasticsearchTemplate"})
+    public ReactiveElasticsearchOperations reactiveElasticsearchOperations(ElasticsearchConverter elasticsearchConverter,
+                                                                           ReactiveElasticsearchClient reactiveElasticsearchClient) {
+        ReactiveElasticsearchTemplate template = new ReactiveElasticsearchTemplate(reactiveElasticsearchClient, elasticsearchConverter);
+        template.setRefreshPolicy(refreshPolicy());
+        return template;
+    }
+
     private SSLContext getSSLContext() throws
             CertificateException,
             IOException, NoSuchAlgorithmException,
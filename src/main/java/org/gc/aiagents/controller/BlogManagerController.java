@@ -3,17 +3,25 @@ package org.gc.aiagents.controller;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.gc.aiagents.domain.PipelineJob;
+import org.gc.aiagents.domain.dto.BatchExtractRequest;
 import org.gc.aiagents.domain.dto.BlogContentResponse;
+import org.gc.aiagents.domain.dto.ExtractJobRequest;
+import org.gc.aiagents.domain.dto.FineTuningExportRequest;
 import org.gc.aiagents.domain.dto.ParentBlogRequest;
 import org.gc.aiagents.domain.dto.StatusResponse;
 import org.gc.aiagents.service.BlogManagerService;
+import org.gc.aiagents.service.FineTuningExportService;
+import org.gc.aiagents.service.PipelineJobService;
+import org.gc.aiagents.service.PipelineStatsService;
 import org.gc.aiagents.service.PythonApiService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.util.function.Tuples;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -25,6 +33,9 @@ public class BlogManagerController {
     
     private final BlogManagerService blogManagerService;
     private final PythonApiService pythonApiService;
+    private final PipelineStatsService pipelineStatsService;
+    private final PipelineJobService pipelineJobService;
+    private final FineTuningExportService fineTuningExportService;
     
     /**
      * Adds a new parent blog URL to the scanning schedule.
@@ -75,26 +86,7 @@ public class BlogManagerController {
         
         log.info("Received request to extract content from: {} using provider: {}", url, provider);
         
-        return pythonApiService.getPreprocessedContent(url)
-            .flatMap(preprocessedDataMap -> {
-                Object rawDataObj = preprocessedDataMap.get("raw_data");
-                Object filteredDataObj = preprocessedDataMap.get("filtered_data");
-                Object dfirDataObj = preprocessedDataMap.get("dfir_data");
-
-                // Ensure they are lists, default to empty lists if null
-                @SuppressWarnings("unchecked")
-                List<Map<String, Object>> rawData = (rawDataObj instanceof List) ? (List<Map<String, Object>>) rawDataObj : new ArrayList<>();
-                @SuppressWarnings("unchecked")
-                List<Map<String, Object>> filteredData = (filteredDataObj instanceof List) ? (List<Map<String, Object>>) filteredDataObj : new ArrayList<>();
-                @SuppressWarnings("unchecked")
-                List<?> dfirData = (dfirDataObj instanceof List) ? (List<?>) dfirDataObj : new ArrayList<>();
-                @SuppressWarnings("unchecked")
-                Map<String, Object> metadata = (Map<String, Object>) preprocessedDataMap.getOrDefault("metadata", Map.of());
-                
-                log.info("Preprocessed content obtained for {}, proceeding to internal intelligence extraction.", url);
-                // Call the new internal Java LLM method
-                return pythonApiService.extractIntel(url, filteredData, rawData, dfirData, metadata, provider);
-            })
+        return pythonApiService.extractBlogContent(url, provider)
             .map(ResponseEntity::ok)
             .onErrorResume(error -> {
                 log.error("Error extracting content from {}: {}", url, error.getMessage());
@@ -108,6 +100,27 @@ public class BlogManagerController {
             });
     }
     
+    /**
+     * Extracts intelligence from many article URLs and streams one result per URL as soon as it is ready,
+     * as NDJSON (default) or Server-Sent Events (Accept: text/event-stream). Results arrive out of order;
+     * each carries the URL's position in the request ("index"), "success" and the "report" or "errorMessage".
+     * 
+     * Example:
+     * POST /blog-manager/extract-blog-content/batch
+     * {
+     *   "urls": ["https://thedfirreport.com/2024/03/04/some-article", "https://example.com/report.pdf"],
+     *   "provider": "azure"
+     * }
+     */
+    @PostMapping(value = "/extract-blog-content/batch",
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<Map<String, Object>> extractBlogContents(@Valid @RequestBody BatchExtractRequest request) {
+        log.info("Received batch request to extract content from {} URLs using provider: {}",
+                request.getUrls().size(), request.getProvider());
+
+        return pythonApiService.extractBlogContents(request.getUrls(), request.getProvider());
+    }
+    
     /**
      * Returns a list of UIDs for all parent blogs.
      * 
@@ -144,36 +157,184 @@ public class BlogManagerController {
                 });
     }
     
+    /**
+     * Returns backlog and throughput figures aggregated in Elasticsearch: articles per scrape status
+     * (overall and per parent, with the oldest PENDING article), articles processed per hour and the
+     * average processing and stage durations over the last {@code hours}, and LLM tokens per day over
+     * the last {@code days}.
+     * 
+     * Example:
+     * GET /blog-manager/pipeline-stats?hours=24&days=7
+     */
+    @GetMapping("/pipeline-stats")
+    public Mono<ResponseEntity<StatusResponse>> getPipelineStats(
+            @RequestParam(defaultValue = "24") int hours,
+            @RequestParam(defaultValue = "7") int days) {
+        log.info("Received request for pipeline stats (last {} hours, {} days)", hours, days);
+        
+        if (hours < 1 || days < 1) {
+            return Mono.just(ResponseEntity.badRequest()
+                    .body(StatusResponse.builder()
+                            .message("hours and days must be at least 1")
+                            .build()));
+        }
+        
+        return pipelineStatsService.getPipelineStats(hours, days)
+                .map(stats -> ResponseEntity.ok(StatusResponse.success("Pipeline stats", stats)))
+                .onErrorResume(error -> {
+                    log.error("Error computing pipeline stats: {}", error.getMessage());
+                    return Mono.just(ResponseEntity.internalServerError()
+                            .body(StatusResponse.builder()
+                                    .message("Failed to compute pipeline stats: " + error.getMessage())
+                                    .build()));
+                });
+    }
+    
     /**
      * Manually triggers a scan for a specific parent blog URL.
-     * This is useful for testing or immediate scanning.
+     * This is useful for testing or immediate scanning. The scan runs as a job; poll
+     * GET /blog-manager/jobs/{jobId} with the returned job ID to follow it.
      * 
      * Example:
      * POST /blog-manager/trigger-scan
      * {
-     *   "parentUrl": "https://thedfirreport.com/"
+     *   "parentUrl": "https://thedfirreport.com/",
+     *   "parentUid": "31abf227-0880-474d-894c-030f101856bd"
      * }
      */
     @PostMapping("/trigger-scan")
-    public ResponseEntity<StatusResponse> triggerScan(@RequestBody Map<String, String> request) {
+    public Mono<ResponseEntity<StatusResponse>> triggerScan(@RequestBody Map<String, String> request) {
         String parentUrl = request.get("parentUrl");
         String parentUid = request.get("parentUid");
         
         if (parentUrl == null || parentUid == null) {
-            return ResponseEntity.badRequest()
+            return Mono.just(ResponseEntity.badRequest()
                     .body(StatusResponse.builder()
                             .message("Both parentUrl and parentUid are required")
-                            .build());
+                            .build()));
         }
         
         log.info("Received request to trigger scan for: {}", parentUrl);
         
-        // Start the scan asynchronously
-        blogManagerService.startScanForParentBlog(parentUid, parentUrl);
+        // Return with 202 Accepted as soon as the job is stored, the scan itself runs in the background
+        return pipelineJobService.submitScan(parentUid, parentUrl)
+                .map(job -> ResponseEntity.accepted()
+                        .body(StatusResponse.success("Scan accepted for processing for " + parentUrl, jobDetails(job))))
+                .onErrorResume(error -> {
+                    log.error("Error submitting scan job for {}: {}", parentUrl, error.getMessage());
+                    return Mono.just(ResponseEntity.internalServerError()
+                            .body(StatusResponse.builder()
+                                    .message("Failed to submit scan: " + error.getMessage())
+                                    .build()));
+                });
+    }
+    
+    /**
+     * Submits an extraction job and returns its ID at once. The extraction runs in the shared work queue;
+     * poll GET /blog-manager/jobs/{jobId} for its status and report, or subscribe to
+     * GET /blog-manager/jobs/{jobId}/events.
+     * 
+     * Example:
+     * POST /blog-manager/jobs/extract-blog-content
+     * {
+     *   "url": "https://thedfirreport.com/2024/03/04/some-article",
+     *   "provider": "azure"
+     * }
+     */
+    @PostMapping("/jobs/extract-blog-content")
+    public Mono<ResponseEntity<StatusResponse>> submitExtractionJob(@Valid @RequestBody ExtractJobRequest request) {
+        log.info("Received request to submit extraction job for: {}", request.getUrl());
+        
+        return pipelineJobService.submitExtraction(request.getUrl(), request.getProvider())
+                .map(job -> ResponseEntity.accepted()
+                        .body(StatusResponse.success("Extraction accepted for processing for " + request.getUrl(), jobDetails(job))))
+                .onErrorResume(error -> {
+                    log.error("Error submitting extraction job for {}: {}", request.getUrl(), error.getMessage());
+                    return Mono.just(ResponseEntity.internalServerError()
+                            .body(StatusResponse.builder()
+                                    .message("Failed to submit extraction: " + error.getMessage())
+                                    .build()));
+                });
+    }
+    
+    /**
+     * Returns a job with its status and, once an extraction job has succeeded, its report.
+     * 
+     * Example:
+     * GET /blog-manager/jobs/5f0c6c1e-8a3b-4a52-9d8e-2f1b7c0e4a11
+     */
+    @GetMapping("/jobs/{jobId}")
+    public Mono<ResponseEntity<PipelineJob>> getJob(@PathVariable String jobId) {
+        return pipelineJobService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build())
+                .onErrorResume(error -> {
+                    log.error("Error fetching job {}: {}", jobId, error.getMessage());
+                    return Mono.just(ResponseEntity.internalServerError().build());
+                });
+    }
+    
+    /**
+     * Streams a job as Server-Sent Events: its current state, then every change until it has finished.
+     * The stream is empty if the job does not exist.
+     * 
+     * Example:
+     * GET /blog-manager/jobs/5f0c6c1e-8a3b-4a52-9d8e-2f1b7c0e4a11/events
+     */
+    @GetMapping(value = "/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<PipelineJob> getJobEvents(@PathVariable String jobId) {
+        return pipelineJobService.jobUpdates(jobId);
+    }
+    
+    /**
+     * Submits a job writing train.jsonl.gz and validation.jsonl.gz for fine-tuning into the export directory.
+     * An interrupted export with the same validation ratio resumes from its last checkpoint.
+     * 
+     * Example:
+     * POST /blog-manager/jobs/fine-tuning-export
+     * {
+     *   "validationRatio": 0.1
+     * }
+     */
+    @PostMapping("/jobs/fine-tuning-export")
+    public Mono<ResponseEntity<StatusResponse>> submitFineTuningExportJob(@Valid @RequestBody FineTuningExportRequest request) {
+        log.info("Received request to export fine-tuning data with validation ratio {}", request.getValidationRatio());
+        
+        return pipelineJobService.submitExport(request.getValidationRatio())
+                .map(job -> ResponseEntity.accepted()
+                        .body(StatusResponse.success("Fine-tuning export accepted for processing", jobDetails(job))))
+                .onErrorResume(error -> {
+                    log.error("Error submitting fine-tuning export job: {}", error.getMessage());
+                    return Mono.just(ResponseEntity.internalServerError()
+                            .body(StatusResponse.builder()
+                                    .message("Failed to submit fine-tuning export: " + error.getMessage())
+                                    .build()));
+                });
+    }
+    
+    /**
+     * Streams all training or validation samples as fine-tuning JSONL ({"messages": [...]} per line),
+     * reading Elasticsearch one page at a time as the client consumes the response.
+     * 
+     * Example:
+     * GET /blog-manager/fine-tuning/training-data
+     * GET /blog-manager/fine-tuning/validation-data
+     */
+    @GetMapping(value = "/fine-tuning/{dataset:training-data|validation-data}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<FineTuningExportService.FineTuningLine> streamFineTuningData(@PathVariable String dataset) {
+        log.info("Received request to stream fine-tuning {}", dataset);
         
-        // Return immediately with 202 Accepted
-        return ResponseEntity.accepted()
-                .body(StatusResponse.success("Scan accepted for processing for " + parentUrl));
+        return fineTuningExportService.streamSamples("validation-data".equals(dataset))
+                .doOnError(error -> log.error("Error streaming fine-tuning {}: {}", dataset, error.getMessage()));
+    }
+    
+    private static Map<String, Object> jobDetails(PipelineJob job) {
+        return Map.of(
+                "job_id", job.getId(),
+                "status", job.getStatus().name(),
+                "status_url", "/blog-manager/jobs/" + job.getId(),
+                "events_url", "/blog-manager/jobs/" + job.getId() + "/events"
+        );
     }
     
     /**
@@ -220,6 +381,28 @@ public class BlogManagerController {
                 });
     }
     
+    /**
+     * Manually triggers re-extraction of the missing parts of partially extracted articles.
+     * Only the sections and DFIR chunks that failed earlier are sent to the LLM again.
+     * 
+     * Example:
+     * POST /blog-manager/reextract-partial-articles
+     */
+    @PostMapping("/reextract-partial-articles")
+    public Mono<ResponseEntity<StatusResponse>> reextractPartialArticles() {
+        log.info("Received request to re-extract partial articles");
+        
+        return blogManagerService.reextractPartialArticles()
+                .then(Mono.just(ResponseEntity.ok(StatusResponse.success("Partial articles re-extraction completed"))))
+                .onErrorResume(error -> {
+                    log.error("Error re-extracting partial articles: {}", error.getMessage());
+                    return Mono.just(ResponseEntity.internalServerError()
+                            .body(StatusResponse.builder()
+                                    .message("Failed to re-extract partial articles: " + error.getMessage())
+                                    .build()));
+                });
+    }
+    
     /**
      * Health check endpoint for the Python API.
      * 
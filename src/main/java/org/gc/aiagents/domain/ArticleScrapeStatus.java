@@ -17,43 +17,87 @@ import java.util.UUID;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Document(indexName = "article_scrape_status")
+@Document(indexName = "article_scrape_status", createIndex = false) // Created from a template by ElasticsearchIndexManager
 public class ArticleScrapeStatus {
     
+    // Doc values are kept only on fields the stats endpoint aggregates or sorts on; fields that are only
+    // matched or range-filtered are served by the inverted index and skip the per-write column store
+    
     @Id
     private String id;
     
-    @Field(type = FieldType.Keyword)
+    @Field(type = FieldType.Keyword, docValues = false)
     private String articleUid;
     
-    @Field(type = FieldType.Keyword)
+    @Field(type = FieldType.Keyword, docValues = false)
     private String articleUrl;
     
     @Field(type = FieldType.Keyword)
     private String parentUid;
     
-    @Field(type = FieldType.Date)
+    @Field(type = FieldType.Date) // Oldest PENDING article in the stats
     private Instant discoveryDatetimeUtc;
     
     @Field(type = FieldType.Keyword)
     private ScrapeStatus scrapeStatus;
     
-    @Field(type = FieldType.Date)
+    @Field(type = FieldType.Date, docValues = false)
     private Instant lastScrapeAttemptUtc;
     
     @Field(type = FieldType.Date)
     private Instant lastSuccessDatetimeUtc;
     
-    @Field(type = FieldType.Integer)
+    @Field(type = FieldType.Integer, docValues = false)
     private Integer failureCount;
     
-    @Field(type = FieldType.Date)
+    @Field(type = FieldType.Date, docValues = false)
     private Instant retryAfterUtc;
     
-    @Field(type = FieldType.Object)
+    @Field(type = FieldType.Keyword, docValues = false)
+    private FailureType lastFailureType;
+    
+    // Details of the last failure (older documents may still hold a full report here); kept in _source
+    // only, never indexed, so its keys add no mappings
+    @Field(type = FieldType.Object, enabled = false)
     private Map<String, Object> externalApiResponse;
     
-    @Field(type = FieldType.Date)
+    // The final report lives in the ReportStore; only where to find it is kept here
+    @Field(type = FieldType.Keyword, index = false, docValues = false)
+    private String reportRef;
+    
+    @Field(type = FieldType.Keyword, index = false, docValues = false)
+    private String reportDigest; // SHA-256 of the report JSON
+    
+    @Field(type = FieldType.Long, index = false, docValues = false)
+    private Long reportSizeBytes; // Compressed
+    
+    @Field(type = FieldType.Keyword, docValues = false)
+    private ExtractionStatus extractionStatus;
+    
+    @Field(type = FieldType.Integer, docValues = false)
+    private Integer reextractAttemptCount;
+    
+    // Last successful processing, from ArticleProcessingStats; aggregated by the pipeline stats endpoint
+    @Field(type = FieldType.Long)
+    private Long processingDurationMs;
+    
+    @Field(type = FieldType.Object)
+    private Map<String, Long> stageDurationsMs; // stage -> summed milliseconds
+    
+    @Field(type = FieldType.Long)
+    private Long llmPromptTokens;
+    
+    @Field(type = FieldType.Long)
+    private Long llmCompletionTokens;
+    
+    // Summed over every attempt: failed ones, retries and later re-extraction of missing parts
+    @Field(type = FieldType.Double)
+    private Double llmCostUsd;
+    
+    @Field(type = FieldType.Object)
+    private Map<String, LlmUsage> llmUsageByTask; // task (extraction stage) -> usage
+    
+    @Field(type = FieldType.Date, docValues = false)
     private Instant createdAtUtc;
     
     @Field(type = FieldType.Date)
@@ -67,6 +111,52 @@ public class ArticleScrapeStatus {
         MAX_FAILURES
     }
     
+    /**
+     * Kind of error behind the last failure; selects the retry backoff stored in retryAfterUtc.
+     */
+    public enum FailureType {
+        CLIENT_ERROR,
+        SERVER_ERROR,
+        THROTTLED,
+        PARSE_ERROR,
+        UNKNOWN
+    }
+    
+    /**
+     * Whether every LLM section and DFIR chunk of a SUCCESS article was extracted.
+     * PARTIAL articles are picked up again to re-run only their missing parts.
+     */
+    public enum ExtractionStatus {
+        COMPLETE,
+        PARTIAL
+    }
+    
+    /**
+     * LLM usage of one extraction task (indicators, techniques or DFIR) for an article.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LlmUsage {
+        
+        @Field(type = FieldType.Integer)
+        private Integer calls;
+        
+        @Field(type = FieldType.Long)
+        private Long promptTokens;
+        
+        @Field(type = FieldType.Long)
+        private Long completionTokens;
+        
+        @Field(type = FieldType.Double)
+        private Double costUsd;
+        
+        public LlmUsage plus(LlmUsage other) {
+            return new LlmUsage(calls + other.calls, promptTokens + other.promptTokens,
+                    completionTokens + other.completionTokens, costUsd + other.costUsd);
+        }
+    }
+    
     public static ArticleScrapeStatus create(String articleUrl, String parentUid) {
         Instant now = Instant.now();
         String articleUid = UUID.randomUUID().toString();
@@ -0,0 +1,38 @@
+package org.gc.aiagents.domain;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * A chat-format fine-tuning sample (training or validation data) stored in Elasticsearch.
+ */
+public interface ChatSample {
+
+    /**
+     * Shared JSON writer for samples. ObjectWriters are immutable and thread-safe, while creating an
+     * ObjectMapper per sample made large exports slow.
+     */
+    ObjectWriter JSON_LINE_WRITER = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build()
+            .writer();
+
+    String getId();
+
+    List<?> getMessages();
+
+    default String toJsonLine() {
+        try {
+            return JSON_LINE_WRITER.writeValueAsString(this);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.data.elasticsearch.annotations.Document;
 import org.springframework.data.elasticsearch.annotations.Field;
 import org.springframework.data.elasticsearch.annotations.FieldType;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.UUID;
 
@@ -16,48 +17,88 @@ import java.util.UUID;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Document(indexName = "parent_blog_schedules")
+@Document(indexName = "parent_blog_schedules", createIndex = false) // Created from a template by ElasticsearchIndexManager
 public class ParentBlogSchedule {
     
     @Id
     private String id;
     
-    @Field(type = FieldType.Keyword)
+    @Field(type = FieldType.Keyword, docValues = false)
     private String parentUid;
     
-    @Field(type = FieldType.Keyword)
+    @Field(type = FieldType.Keyword, docValues = false)
     private String parentUrl;
     
-    @Field(type = FieldType.Date)
+    @Field(type = FieldType.Date, docValues = false)
     private Instant nextScanDatetimeUtc;
     
-    @Field(type = FieldType.Integer)
+    @Field(type = FieldType.Integer, docValues = false)
     private Integer scanIntervalHours;
     
-    @Field(type = FieldType.Date)
+    @Field(type = FieldType.Date, docValues = false)
     private Instant lastScanAttemptUtc;
     
-    @Field(type = FieldType.Date)
+    @Field(type = FieldType.Date, docValues = false)
     private Instant lastScanSuccessUtc;
     
-    @Field(type = FieldType.Date)
+    @Field(type = FieldType.Date) // Sorted on when listing parents
     private Instant createdAtUtc;
     
-    @Field(type = FieldType.Date)
+    @Field(type = FieldType.Date, docValues = false)
     private Instant updatedAtUtc;
     
-    public static ParentBlogSchedule create(String parentUrl, Integer scanIntervalHours) {
+    /**
+     * Creates a schedule whose first scan falls within {@code initialScanSpread} from now, at an offset
+     * derived from the parent UID, so parents added in bulk do not all become due at once.
+     */
+    public static ParentBlogSchedule create(String parentUrl, Integer scanIntervalHours, Duration initialScanSpread) {
         Instant now = Instant.now();
         String parentUid = UUID.randomUUID().toString();
+        int intervalHours = scanIntervalHours != null ? scanIntervalHours : 24 * 7; // Default weekly
+        
+        Duration spread = initialScanSpread.compareTo(Duration.ofHours(intervalHours)) < 0 ? initialScanSpread : Duration.ofHours(intervalHours);
+        long offsetMillis = (long) (scanPhase(parentUid) * spread.toMillis());
         
         return ParentBlogSchedule.builder()
                 .id(parentUid)
                 .parentUid(parentUid)
                 .parentUrl(parentUrl)
-                .nextScanDatetimeUtc(now) // Start scanning immediately
-                .scanIntervalHours(scanIntervalHours != null ? scanIntervalHours : 24 * 7) // Default weekly
+                .nextScanDatetimeUtc(now.plusMillis(offsetMillis))
+                .scanIntervalHours(intervalHours)
                 .createdAtUtc(now)
                 .updatedAtUtc(now)
                 .build();
     }
+    
+    /**
+     * Returns the next scan time after a scan that started at {@code scanStart}. Every parent has a fixed
+     * phase within the interval derived from its UID, and the next scan is the first slot on that phase at
+     * least half an interval after the scan start. Parents that were all scanned together (e.g. after an
+     * outage) therefore drift back to evenly spread slots instead of staying due at the same moment.
+     */
+    public static Instant nextAlignedScan(String parentUid, Duration scanInterval, Instant scanStart) {
+        long intervalMillis = scanInterval.toMillis();
+        long phaseMillis = (long) (scanPhase(parentUid) * intervalMillis);
+        long earliest = scanStart.toEpochMilli() + intervalMillis / 2;
+        
+        long slot = Math.floorDiv(earliest - phaseMillis, intervalMillis) * intervalMillis + phaseMillis;
+        if (slot < earliest) {
+            slot += intervalMillis;
+        }
+        return Instant.ofEpochMilli(slot);
+    }
+    
+    /**
+     * Deterministic position in [0, 1) for a parent UID, stable across restarts and instances
+     */
+    static double scanPhase(String parentUid) {
+        // String.hashCode is specified, the finalizer spreads nearby hashes over the whole range
+        long h = parentUid.hashCode();
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (h >>> 11) * 0x1.0p-53;
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,123 @@
+package org.gc.aiagents.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.elasticsearch.annotations.Document;
+import org.springframework.data.elasticsearch.annotations.Field;
+import org.springframework.data.elasticsearch.annotations.FieldType;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * On-demand work submitted through the job API: an article extraction, a parent blog scan or a
+ * fine-tuning dataset export.
+ * Submitting returns the job ID at once; the job is persisted before it is queued, so jobs that were
+ * queued or running when the application stopped are picked up again on startup.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(indexName = "pipeline_jobs")
+public class PipelineJob {
+    
+    @Id
+    private String id;
+    
+    @Field(type = FieldType.Keyword)
+    private JobType jobType;
+    
+    @Field(type = FieldType.Keyword)
+    private JobStatus status;
+    
+    @Field(type = FieldType.Keyword)
+    private String articleUrl; // EXTRACT jobs
+    
+    @Field(type = FieldType.Keyword)
+    private String provider; // EXTRACT jobs
+    
+    @Field(type = FieldType.Keyword)
+    private String parentUid; // SCAN jobs
+    
+    @Field(type = FieldType.Keyword)
+    private String parentUrl; // SCAN jobs
+    
+    @Field(type = FieldType.Double)
+    private Double validationRatio; // EXPORT jobs
+    
+    @Field(type = FieldType.Integer)
+    private Integer attempts; // Runs started, including runs cut off by a restart
+    
+    // Extracted report of a succeeded EXTRACT job, or the files written by an EXPORT job; stored but not indexed
+    @Field(type = FieldType.Object, enabled = false)
+    private Map<String, Object> result;
+    
+    @Field(type = FieldType.Text)
+    private String errorMessage;
+    
+    @Field(type = FieldType.Date)
+    private Instant createdAtUtc;
+    
+    @Field(type = FieldType.Date)
+    private Instant startedAtUtc;
+    
+    @Field(type = FieldType.Date)
+    private Instant finishedAtUtc;
+    
+    @Field(type = FieldType.Date)
+    private Instant updatedAtUtc;
+    
+    public enum JobType {
+        EXTRACT,
+        SCAN,
+        EXPORT
+    }
+    
+    public enum JobStatus {
+        QUEUED,
+        RUNNING,
+        SUCCEEDED,
+        FAILED;
+        
+        public boolean isFinished() {
+            return this == SUCCEEDED || this == FAILED;
+        }
+    }
+    
+    public static PipelineJob extract(String articleUrl, String provider) {
+        PipelineJob job = queued(JobType.EXTRACT);
+        job.setArticleUrl(articleUrl);
+        job.setProvider(provider);
+        return job;
+    }
+    
+    public static PipelineJob scan(String parentUid, String parentUrl) {
+        PipelineJob job = queued(JobType.SCAN);
+        job.setParentUid(parentUid);
+        job.setParentUrl(parentUrl);
+        return job;
+    }
+    
+    public static PipelineJob export(double validationRatio) {
+        PipelineJob job = queued(JobType.EXPORT);
+        job.setValidationRatio(validationRatio);
+        return job;
+    }
+    
+    private static PipelineJob queued(JobType jobType) {
+        Instant now = Instant.now();
+        return PipelineJob.builder()
+                .id(UUID.randomUUID().toString())
+                .jobType(jobType)
+                .status(JobStatus.QUEUED)
+                .attempts(0)
+                .createdAtUtc(now)
+                .updatedAtUtc(now)
+                .build();
+    }
+}
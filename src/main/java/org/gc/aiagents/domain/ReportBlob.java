@@ -0,0 +1,30 @@
+package org.gc.aiagents.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.elasticsearch.annotations.Document;
+import org.springframework.data.elasticsearch.annotations.Field;
+import org.springframework.data.elasticsearch.annotations.FieldType;
+
+import java.time.Instant;
+
+/**
+ * Compressed report body of an article, read back by ID only; see ElasticsearchReportBlobStore.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(indexName = "article_reports", createIndex = false) // Created from a template by ElasticsearchIndexManager
+public class ReportBlob {
+
+    @Id
+    private String id;
+
+    @Field(type = FieldType.Binary)
+    private String content; // Base64 of the gzipped JSON report; binary fields are neither indexed nor doc valued
+
+    @Field(type = FieldType.Date, index = false, docValues = false)
+    private Instant storedAtUtc;
+}
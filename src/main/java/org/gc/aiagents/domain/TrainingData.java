@@ -1,8 +1,6 @@
 package org.gc.aiagents.domain;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.Data;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.elasticsearch.annotations.Document;
@@ -10,7 +8,7 @@ import java.util.List;
 import java.time.Instant;
 
 @Data
-public class TrainingData {
+public class TrainingData implements ChatSample {
 
     @Id
     private String id;
@@ -19,18 +17,12 @@ public class TrainingData {
     private List<Message> messages;
     @JsonProperty("created")
     private Instant created;
+    @JsonProperty("task")
+    private String task; // Extraction task the sample was harvested from, e.g. extract_dfir
 
     @Data
     public static class Message {
         private String role;
         private String content;
     }
-
-    public String toJsonLine() {
-        try {
-            return new ObjectMapper().writeValueAsString(this);
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException(e);
-        }
-    }
 } 
\ No newline at end of file
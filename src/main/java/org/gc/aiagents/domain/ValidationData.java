@@ -1,8 +1,6 @@
 package org.gc.aiagents.domain;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.Data;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.elasticsearch.annotations.Document;
@@ -10,7 +8,7 @@ import java.util.List;
 
 @Data
 @Document(indexName = "cti-analyst-mitre-validation-data")
-public class ValidationData {
+public class ValidationData implements ChatSample {
     @Id
     private String id;
     @JsonProperty("messages")
@@ -21,12 +19,4 @@ public class ValidationData {
         private String role;
         private String content;
     }
-
-    public String toJsonLine() {
-        try {
-            return new ObjectMapper().writeValueAsString(this);
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException(e);
-        }
-    }
 } 
\ No newline at end of file
@@ -0,0 +1,18 @@
+package org.gc.aiagents.domain.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchExtractRequest {
+
+    @NotEmpty(message = "At least one URL is required")
+    @Size(max = 100, message = "At most 100 URLs can be submitted per batch")
+    private List<@NotBlank(message = "URLs must not be blank") String> urls;
+
+    private String provider = "azure";
+}
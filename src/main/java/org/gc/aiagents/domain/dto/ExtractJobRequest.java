@@ -0,0 +1,15 @@
+package org.gc.aiagents.domain.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+import org.hibernate.validator.constraints.URL;
+
+@Data
+public class ExtractJobRequest {
+
+    @NotBlank(message = "URL is required")
+    @URL(message = "URL must be a valid URL")
+    private String url;
+
+    private String provider = "azure";
+}
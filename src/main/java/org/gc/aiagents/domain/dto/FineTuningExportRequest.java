@@ -0,0 +1,14 @@
+package org.gc.aiagents.domain.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import lombok.Data;
+
+@Data
+public class FineTuningExportRequest {
+
+    // Share of training samples moved to the validation file; validation data always goes there
+    @DecimalMin(value = "0.0", message = "Validation ratio must be between 0 and 1")
+    @DecimalMax(value = "1.0", message = "Validation ratio must be between 0 and 1")
+    private double validationRatio = 0.0;
+}
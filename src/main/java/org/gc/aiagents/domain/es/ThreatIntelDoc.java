@@ -10,7 +10,8 @@ import java.time.Instant;
 import java.util.Map;
 
 @Data
-@Document(indexName = "threat-intel")
+// "threat-intel" is the write alias over rolled-over threat-intel-NNNNNN indices, see ElasticsearchIndexManager
+@Document(indexName = "threat-intel", createIndex = false)
 public class ThreatIntelDoc {
 
     @Id
@@ -4,6 +4,7 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.HashMap;
 import java.util.Map;
 
 @Data
@@ -12,12 +13,36 @@ import java.util.Map;
 public class AzureOpenAIProperties {
 
     private Map<String, Client> clients;
+    private Hedging hedging = new Hedging();
 
     @Data
     public static class Client {
         private String apiKey;
         private String endpoint;
         private String deploymentName;
-        private int maxConcurrentRequests = 1; // Default to 1 concurrent request per client
+        private int maxConcurrentRequests = 1; // Starting limit when adaptive concurrency is enabled, the fixed limit otherwise
+        private double promptCostPerMillionTokens; // USD, for cost accounting; 0 leaves cost unrecorded
+        private double completionCostPerMillionTokens;
+        private AdaptiveConcurrency adaptiveConcurrency = new AdaptiveConcurrency();
+    }
+
+    @Data
+    public static class AdaptiveConcurrency {
+        private boolean enabled = true;
+        private int minConcurrentRequests = 1;
+        private int maxConcurrentRequests = 16;
+        private double backoffRatio = 0.5; // Limit multiplier on a 429, timeout or 5xx
+        private double latencyTolerance = 2.0; // Recent latency above this multiple of the long-term average backs off
+    }
+
+    @Data
+    public static class Hedging {
+        private boolean enabled = false;
+        private Map<String, String> alternates = new HashMap<>(); // client -> client on a different deployment that gets the duplicate
+        private double percentile = 0.95; // A call still running after this latency percentile of its task is hedged
+        private int window = 200; // Latest successful calls per task the percentile is taken over
+        private int minSamples = 20; // No hedging for a task until this many calls were seen
+        private double budgetRatio = 0.05; // At most this many hedges per call, on average
+        private int maxBurst = 10; // Hedges that may be sent back to back when the budget has built up
     }
 } 
\ No newline at end of file
@@ -0,0 +1,43 @@
+package org.gc.aiagents.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "blog-manager.elasticsearch")
+public class ElasticsearchIndexProperties {
+
+    private boolean manageIndices = true; // Put the index templates and ILM policy and create missing indices at startup
+    // Status documents are looked up by URL shortly after they are written, so their refresh stays at 1s
+    private Index articleStatus = new Index(1, 1, "1s");
+    private Index parentSchedules = new Index(1, 1, "1s");
+    private Index threatIntel = new Index(1, 1, "30s"); // Only written by the pipeline
+    private Index reportBlobs = new Index(1, 1, "30s"); // Report store; only read back by real-time GET
+    private Rollover threatIntelRollover = new Rollover();
+
+    @Data
+    public static class Index {
+        private int shards; // Primary shards of newly created indices only
+        private int replicas;
+        private String refreshInterval; // Elasticsearch time value; "-1" disables periodic refresh
+
+        public Index() {
+        }
+
+        public Index(int shards, int replicas, String refreshInterval) {
+            this.shards = shards;
+            this.replicas = replicas;
+            this.refreshInterval = refreshInterval;
+        }
+    }
+
+    @Data
+    public static class Rollover {
+        private boolean enabled = true; // Needs ILM; disable on clusters without it
+        private String maxAge = "30d";
+        private String maxPrimaryShardSize = "50gb";
+        private String deleteAfter = ""; // Age after rollover at which an index is deleted; empty keeps them
+    }
+}
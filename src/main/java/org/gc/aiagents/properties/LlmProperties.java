@@ -0,0 +1,34 @@
+package org.gc.aiagents.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "blog-manager.llm")
+public class LlmProperties {
+
+    private String defaultProvider = "azure"; // Provider for calls without a route or a known provider argument
+    private Map<String, String> routes = new HashMap<>(); // task -> provider or provider:client, overrides the call's provider
+    private Map<String, OpenAICompatibleClient> openaiCompatible = new LinkedHashMap<>(); // client name -> server
+
+    @Data
+    public static class OpenAICompatibleClient {
+        private String baseUrl; // Up to and including /v1, e.g. http://localhost:8000/v1
+        private String model;
+        private String apiKey; // Sent as a bearer token when set
+        private int maxConcurrentRequests = 4;
+        private Duration timeout = Duration.ofSeconds(120);
+        private int maxTokens = 8000;
+        private double temperature = 0.7;
+        private double topP = 0.95;
+        private double promptCostPerMillionTokens; // USD, for cost accounting; 0 leaves cost unrecorded
+        private double completionCostPerMillionTokens;
+    }
+}
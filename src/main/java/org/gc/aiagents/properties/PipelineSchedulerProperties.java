@@ -0,0 +1,31 @@
+package org.gc.aiagents.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "blog-manager.schedulers")
+public class PipelineSchedulerProperties {
+
+    private Pool elasticsearch = new Pool(16, 10_000); // Blocking Spring Data Elasticsearch calls
+    private Pool fetch = new Pool(8, 1_000); // Blocking HTML fetching and parsing (Jsoup)
+    private Pool compute = new Pool(0, 1_000); // CPU-heavy post-processing; 0 threads means one per CPU
+    private Pool export = new Pool(1, 1); // Fine-tuning exports, each holding its thread until it has finished
+    private Pool trainingData = new Pool(1, 1); // Batched writes of harvested training samples
+
+    @Data
+    public static class Pool {
+        private int threads;
+        private int queueCapacity; // Tasks waiting for a thread; beyond this they are rejected
+
+        public Pool() {
+        }
+
+        public Pool(int threads, int queueCapacity) {
+            this.threads = threads;
+            this.queueCapacity = queueCapacity;
+        }
+    }
+}
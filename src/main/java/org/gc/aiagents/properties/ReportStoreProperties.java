@@ -0,0 +1,28 @@
+package org.gc.aiagents.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "blog-manager.report-store")
+public class ReportStoreProperties {
+
+    private Type type = Type.ELASTICSEARCH;
+    private String directory = "report-store"; // Root of the filesystem store
+    private S3 s3 = new S3();
+
+    public enum Type {
+        ELASTICSEARCH, // Binary field of the article_reports index
+        FILESYSTEM,
+        S3
+    }
+
+    @Data
+    public static class S3 {
+        private String endpoint; // e.g. http://localhost:9000 for MinIO
+        private String bucket = "blog-manager";
+        private String prefix = "reports/";
+    }
+}
@@ -0,0 +1,30 @@
+package org.gc.aiagents.properties;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "blog-manager.retry-backoff")
+public class RetryBackoffProperties {
+
+    private double jitter = 0.5; // Fraction of each delay that is randomized
+    private Backoff clientError = new Backoff(Duration.ofHours(6), Duration.ofDays(7)); // HTTP 4xx, rarely recovers
+    private Backoff serverError = new Backoff(Duration.ofMinutes(15), Duration.ofHours(12)); // HTTP 5xx, timeouts, connection errors
+    private Backoff throttled = new Backoff(Duration.ofMinutes(2), Duration.ofHours(1)); // HTTP 429 from the LLM or an API
+    private Backoff parseError = new Backoff(Duration.ofMinutes(30), Duration.ofHours(24)); // Malformed LLM output
+    private Backoff unknown = new Backoff(Duration.ofMinutes(60), Duration.ofHours(24));
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Backoff {
+        private Duration initial;
+        private Duration max;
+    }
+}
@@ -0,0 +1,27 @@
+package org.gc.aiagents.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "blog-manager.training-data")
+public class TrainingDataProperties {
+
+    private boolean enabled = false;
+    private double sampleRate = 1.0; // Share of successful LLM calls recorded
+    private Map<String, Double> taskSampleRates = new HashMap<>(); // task -> sample rate, overrides sampleRate
+    private long maxSamples = 100_000; // Harvesting stops once the training index holds this many samples
+    private int maxSampleChars = 100_000; // Longer prompt + response pairs are skipped
+    private int queueCapacity = 1_000; // Samples waiting to be written; further ones are dropped
+    private int batchSize = 100;
+    private int dedupCacheSize = 10_000; // Recent sample IDs remembered to skip repeated inputs
+
+    public double sampleRateFor(String task) {
+        return taskSampleRates.getOrDefault(task, sampleRate);
+    }
+}
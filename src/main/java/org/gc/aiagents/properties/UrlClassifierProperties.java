@@ -0,0 +1,19 @@
+package org.gc.aiagents.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "blog-manager.url-classifier")
+public class UrlClassifierProperties {
+
+    private boolean enabled = true; // Off sends every candidate to the LLM
+    private double acceptScore = 3.0; // URLs scoring at least this are taken as articles without the LLM
+    private double rejectScore = -3.0; // URLs scoring at most this are dropped without the LLM
+    private int minObservations = 3; // Scans with an LLM verdict on a site's URL shape before the shape counts
+    private double minAgreement = 0.9; // Share of verdicts that must agree, among a scan's URLs and among scans
+    private double learnedWeight = 4.0; // Score added or subtracted by a learned shape
+    private int maxShapesPerHost = 200;
+}
@@ -0,0 +1,19 @@
+package org.gc.aiagents.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "blog-manager.work-queue")
+public class WorkQueueProperties {
+
+    private int concurrency = 1; // Articles processed at once across all parent blogs
+    private int agingMinutes = 30; // A retry that has waited this long competes with fresh articles
+    private int defaultWeight = 1;
+    private Map<String, Integer> parentWeights = new HashMap<>(); // parentUid -> weight
+}
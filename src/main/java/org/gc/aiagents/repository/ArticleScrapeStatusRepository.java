@@ -1,31 +1,61 @@
 package org.gc.aiagents.repository;
 
 import org.gc.aiagents.domain.ArticleScrapeStatus;
-import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
+import org.springframework.data.elasticsearch.repository.ReactiveElasticsearchRepository;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.time.Instant;
-import java.util.List;
-import java.util.Optional;
 
 @Repository
-public interface ArticleScrapeStatusRepository extends ElasticsearchRepository<ArticleScrapeStatus, String> {
+public interface ArticleScrapeStatusRepository extends ReactiveElasticsearchRepository<ArticleScrapeStatus, String> {
     
-    Optional<ArticleScrapeStatus> findByArticleUrl(String articleUrl);
+    Mono<ArticleScrapeStatus> findByArticleUrl(String articleUrl);
     
-    List<ArticleScrapeStatus> findByParentUid(String parentUid);
+    Flux<ArticleScrapeStatus> findByParentUid(String parentUid);
     
-    List<ArticleScrapeStatus> findByScrapeStatusAndFailureCountLessThan(
+    Flux<ArticleScrapeStatus> findByScrapeStatusAndFailureCountLessThan(
             ArticleScrapeStatus.ScrapeStatus scrapeStatus,
             Integer maxFailureCount
     );
     
-    List<ArticleScrapeStatus> findByScrapeStatusAndParentUid(
+    Flux<ArticleScrapeStatus> findByScrapeStatusAndFailureCountLessThanAndRetryAfterUtcLessThanEqual(
+            ArticleScrapeStatus.ScrapeStatus scrapeStatus,
+            Integer maxFailureCount,
+            Instant retryAfterUtc
+    );
+    
+    Flux<ArticleScrapeStatus> findByScrapeStatusAndFailureCountLessThanAndRetryAfterUtcIsNull(
+            ArticleScrapeStatus.ScrapeStatus scrapeStatus,
+            Integer maxFailureCount
+    );
+    
+    Flux<ArticleScrapeStatus> findByScrapeStatusAndParentUid(
             ArticleScrapeStatus.ScrapeStatus scrapeStatus, 
             String parentUid
     );
     
-    List<ArticleScrapeStatus> findByScrapeStatus(ArticleScrapeStatus.ScrapeStatus scrapeStatus);
+    Flux<ArticleScrapeStatus> findByScrapeStatus(ArticleScrapeStatus.ScrapeStatus scrapeStatus);
+    
+    Flux<ArticleScrapeStatus> findByScrapeStatusAndExtractionStatusAndReextractAttemptCountLessThan(
+            ArticleScrapeStatus.ScrapeStatus scrapeStatus,
+            ArticleScrapeStatus.ExtractionStatus extractionStatus,
+            Integer maxReextractAttempts
+    );
+    
+    Mono<Long> countByScrapeStatus(ArticleScrapeStatus.ScrapeStatus scrapeStatus);
+    
+    Mono<Long> countByScrapeStatusAndFailureCountLessThanAndRetryAfterUtcLessThanEqual(
+            ArticleScrapeStatus.ScrapeStatus scrapeStatus,
+            Integer maxFailureCount,
+            Instant retryAfterUtc
+    );
+    
+    Mono<Long> countByScrapeStatusAndFailureCountLessThanAndRetryAfterUtcIsNull(
+            ArticleScrapeStatus.ScrapeStatus scrapeStatus,
+            Integer maxFailureCount
+    );
     
-    boolean existsByArticleUrl(String articleUrl);
+    Mono<Boolean> existsByArticleUrl(String articleUrl);
 } 
\ No newline at end of file
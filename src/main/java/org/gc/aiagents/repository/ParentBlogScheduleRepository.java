@@ -1,19 +1,21 @@
 package org.gc.aiagents.repository;
 
 import org.gc.aiagents.domain.ParentBlogSchedule;
-import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
+import org.springframework.data.elasticsearch.repository.ReactiveElasticsearchRepository;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.time.Instant;
-import java.util.List;
-import java.util.Optional;
 
 @Repository
-public interface ParentBlogScheduleRepository extends ElasticsearchRepository<ParentBlogSchedule, String> {
+public interface ParentBlogScheduleRepository extends ReactiveElasticsearchRepository<ParentBlogSchedule, String> {
     
-    Optional<ParentBlogSchedule> findByParentUrl(String parentUrl);
+    Mono<ParentBlogSchedule> findByParentUrl(String parentUrl);
     
-    List<ParentBlogSchedule> findByNextScanDatetimeUtcLessThanEqual(Instant currentTime);
+    Flux<ParentBlogSchedule> findByNextScanDatetimeUtcLessThanEqual(Instant currentTime);
     
-    List<ParentBlogSchedule> findAllByOrderByCreatedAtUtcDesc();
+    Mono<Long> countByNextScanDatetimeUtcLessThanEqual(Instant currentTime);
+    
+    Flux<ParentBlogSchedule> findAllByOrderByCreatedAtUtcDesc();
 } 
\ No newline at end of file
@@ -0,0 +1,17 @@
+package org.gc.aiagents.repository;
+
+import org.gc.aiagents.domain.PipelineJob;
+import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PipelineJobRepository extends ElasticsearchRepository<PipelineJob, String> {
+    
+    List<PipelineJob> findByStatusIn(Collection<PipelineJob.JobStatus> statuses);
+    
+    List<PipelineJob> findByFinishedAtUtcLessThan(Instant finishedBefore);
+}
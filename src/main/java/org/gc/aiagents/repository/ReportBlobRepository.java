@@ -0,0 +1,9 @@
+package org.gc.aiagents.repository;
+
+import org.gc.aiagents.domain.ReportBlob;
+import org.springframework.data.elasticsearch.repository.ReactiveElasticsearchRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReportBlobRepository extends ReactiveElasticsearchRepository<ReportBlob, String> {
+}
@@ -1,9 +1,9 @@
 package org.gc.aiagents.repository.es;
 
 import org.gc.aiagents.domain.es.ThreatIntelDoc;
-import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
+import org.springframework.data.elasticsearch.repository.ReactiveElasticsearchRepository;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface ThreatIntelRepository extends ElasticsearchRepository<ThreatIntelDoc, String> {
+public interface ThreatIntelRepository extends ReactiveElasticsearchRepository<ThreatIntelDoc, String>, ThreatIntelRepositoryCustom {
 } 
\ No newline at end of file
@@ -0,0 +1,13 @@
+package org.gc.aiagents.repository.es;
+
+import org.gc.aiagents.domain.es.ThreatIntelDoc;
+import reactor.core.publisher.Mono;
+
+public interface ThreatIntelRepositoryCustom {
+
+    /**
+     * Saves a report so that exactly one copy of its ID stays readable through the {@code threat-intel}
+     * alias, whichever rolled-over backing index holds the earlier copy.
+     */
+    Mono<ThreatIntelDoc> replace(ThreatIntelDoc doc);
+}
@@ -0,0 +1,55 @@
+package org.gc.aiagents.repository.es;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.gc.aiagents.domain.es.ThreatIntelDoc;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ReactiveElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * A plain save through the write alias only overwrites a report that is still in the current write index;
+ * after a rollover it would add a second copy next to the stale one in an older index. So the copies of the
+ * ID are looked up first: the report is written back into the index holding the first copy, and any further
+ * copies (left by earlier versions) are deleted. Copies written since the last refresh are not found yet,
+ * which only matters if the index rolled over in between.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ThreatIntelRepositoryImpl implements ThreatIntelRepositoryCustom {
+
+    private final ReactiveElasticsearchOperations elasticsearchOperations;
+
+    @Override
+    public Mono<ThreatIntelDoc> replace(ThreatIntelDoc doc) {
+        IndexCoordinates alias = elasticsearchOperations.getIndexCoordinatesFor(ThreatIntelDoc.class);
+        NativeQuery copies = NativeQuery.builder()
+                .withQuery(q -> q.ids(ids -> ids.values(doc.getId())))
+                .withSourceFilter(new FetchSourceFilter(new String[0], new String[]{"*"})) // Only the index of each copy is needed
+                .build();
+        return elasticsearchOperations.search(copies, ThreatIntelDoc.class, alias)
+                .map(SearchHit::getIndex)
+                .distinct()
+                .collectList()
+                .flatMap(indices -> {
+                    if (indices.isEmpty()) {
+                        return elasticsearchOperations.save(doc, alias);
+                    }
+                    return elasticsearchOperations.save(doc, IndexCoordinates.of(indices.get(0)))
+                            .flatMap(saved -> deleteStaleCopies(doc.getId(), indices.subList(1, indices.size())).thenReturn(saved));
+                });
+    }
+
+    private Mono<Void> deleteStaleCopies(String id, List<String> indices) {
+        return Flux.fromIterable(indices)
+                .doOnNext(index -> log.info("Deleting stale copy of threat intel report {} from {}", id, index))
+                .concatMap(index -> elasticsearchOperations.delete(id, IndexCoordinates.of(index)))
+                .then();
+    }
+}
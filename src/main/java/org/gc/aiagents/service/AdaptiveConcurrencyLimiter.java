@@ -0,0 +1,238 @@
+package org.gc.aiagents.service;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Concurrency limit for one Azure OpenAI deployment that adapts to how the deployment responds (AIMD).
+ *
+ * While at least half the limit is in use and latency stays near its long-term average, every {@code limit}
+ * successful calls raise it by one. A throttled call (429) or a timeout/server error cuts it by the backoff ratio, and
+ * a latency spike (recent average above tolerance x long-term average) cuts it by 10%. After a cut, further
+ * congestion signals are ignored for about one call's latency, since the calls still in flight were sent
+ * under the old limit. The limit always stays within [min, max]; with min == max it is a plain fixed limit.
+ *
+ * Thread-safe and non-blocking: {@link #withPermit} queues callers without holding a thread, and a permit
+ * freed by a finished call goes to the longest waiting caller.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double LONG_TERM_WEIGHT = 0.02;
+    private static final double RECENT_WEIGHT = 0.2;
+    private static final int WARM_UP_SAMPLES = 10;
+    private static final double LATENCY_BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double latencyTolerance;
+
+    private final Deque<Waiter> waiters = new ArrayDeque<>();
+    private double limit;
+    private int inFlight;
+    private long samples;
+    private double longTermLatencyNanos;
+    private double recentLatencyNanos;
+    private long lastDecreaseNanos;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio, double latencyTolerance) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.backoffRatio = backoffRatio;
+        this.latencyTolerance = latencyTolerance;
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+        this.lastDecreaseNanos = System.nanoTime();
+    }
+
+    public static AdaptiveConcurrencyLimiter fixed(int limit) {
+        return new AdaptiveConcurrencyLimiter(limit, limit, limit, 1.0, Double.MAX_VALUE);
+    }
+
+    /**
+     * Runs {@code call} once a permit is free. The call must end the permit with exactly one outcome; later
+     * calls on it are ignored. A permit still open when the returned Mono terminates or is cancelled (also
+     * while still waiting, or between the grant and the start of the call) is released as ignored, so a
+     * cancelled caller, e.g. the losing side of a hedged call, never keeps a permit.
+     */
+    public <T> Mono<T> withPermit(Function<Permit, Mono<T>> call) {
+        return Mono.defer(() -> {
+            Waiter waiter = new Waiter();
+            return Mono.<Permit>create(sink -> {
+                        Permit permit = null;
+                        synchronized (this) {
+                            waiter.sink = sink;
+                            if (waiters.isEmpty() && inFlight < getLimit()) {
+                                permit = grant(waiter);
+                            } else {
+                                waiters.add(waiter);
+                            }
+                        }
+                        if (permit != null) {
+                            sink.success(permit);
+                        }
+                    })
+                    .flatMap(call)
+                    .doFinally(signalType -> close(waiter));
+        });
+    }
+
+    /**
+     * Takes a permit if one is free and nobody is waiting for one; returns null otherwise.
+     */
+    public synchronized Permit tryAcquire() {
+        if (!waiters.isEmpty() || inFlight >= getLimit()) {
+            return null;
+        }
+        inFlight++;
+        return new Permit(System.nanoTime());
+    }
+
+    /**
+     * Records a throttled response without releasing a permit, e.g. a 429 the client retries on its own.
+     */
+    public synchronized void onThrottled() {
+        decrease(backoffRatio, System.nanoTime());
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public synchronized int getWaiting() {
+        return waiters.size();
+    }
+
+    private synchronized void onSuccess(long startNanos) {
+        long now = System.nanoTime();
+        // Only grow while calls use at least half the limit; an idle limit says nothing about capacity
+        boolean inUse = 2 * (inFlight + waiters.size()) >= limit;
+        release();
+
+        double latency = now - startNanos;
+        samples++;
+        if (samples == 1) {
+            longTermLatencyNanos = latency;
+            recentLatencyNanos = latency;
+        } else {
+            longTermLatencyNanos += LONG_TERM_WEIGHT * (latency - longTermLatencyNanos);
+            recentLatencyNanos += RECENT_WEIGHT * (latency - recentLatencyNanos);
+        }
+
+        if (samples > WARM_UP_SAMPLES && recentLatencyNanos > latencyTolerance * longTermLatencyNanos) {
+            decrease(LATENCY_BACKOFF_RATIO, now);
+        } else if (inUse) {
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+    }
+
+    private synchronized void onDropped() {
+        release();
+        onThrottled();
+    }
+
+    private void release() {
+        inFlight--;
+    }
+
+    private Permit grant(Waiter waiter) {
+        inFlight++;
+        waiter.permit = new Permit(System.nanoTime());
+        return waiter.permit;
+    }
+
+    /**
+     * Hands freed permits to waiting callers. The callers are resumed outside the lock, since resuming one
+     * starts its call.
+     */
+    private void grantWaiting() {
+        List<Waiter> granted = new ArrayList<>();
+        synchronized (this) {
+            while (!waiters.isEmpty() && inFlight < getLimit()) {
+                Waiter waiter = waiters.poll();
+                grant(waiter);
+                granted.add(waiter);
+            }
+        }
+        granted.forEach(waiter -> waiter.sink.success(waiter.permit));
+    }
+
+    private void close(Waiter waiter) {
+        Permit permit;
+        synchronized (this) {
+            waiters.remove(waiter);
+            permit = waiter.permit;
+        }
+        if (permit != null) {
+            permit.ignored(); // No-op once the call recorded an outcome
+        }
+    }
+
+    private final class Waiter {
+        private MonoSink<Permit> sink;
+        private Permit permit;
+    }
+
+    private void decrease(double ratio, long now) {
+        if (now - lastDecreaseNanos < recentLatencyNanos) {
+            return;
+        }
+        limit = Math.max(minLimit, Math.floor(limit * ratio));
+        lastDecreaseNanos = now;
+    }
+
+    /**
+     * One acquired permit.
+     */
+    public final class Permit {
+
+        private final long startNanos;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        /**
+         * The call succeeded; its latency feeds into the limit.
+         */
+        public void success() {
+            if (released.compareAndSet(false, true)) {
+                onSuccess(startNanos);
+                grantWaiting();
+            }
+        }
+
+        /**
+         * The call failed because the deployment is overloaded (429, timeout, 5xx).
+         */
+        public void dropped() {
+            if (released.compareAndSet(false, true)) {
+                onDropped();
+                grantWaiting();
+            }
+        }
+
+        /**
+         * The call ended for a reason that says nothing about load (bad request, cancellation).
+         */
+        public void ignored() {
+            if (released.compareAndSet(false, true)) {
+                synchronized (AdaptiveConcurrencyLimiter.this) {
+                    release();
+                }
+                grantWaiting();
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package org.gc.aiagents.service;
+
+import com.azure.ai.openai.models.CompletionsUsage;
+import org.gc.aiagents.domain.ArticleScrapeStatus;
+import reactor.util.context.ContextView;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stage durations and LLM usage of one article's processing. It travels in the Reactor context
+ * under {@link #CONTEXT_KEY}, so the timed stages and LLM calls underneath add to it without being
+ * passed the article, and is stored on the article when it succeeds. The pipeline stats endpoint
+ * aggregates the stored values in Elasticsearch.
+ *
+ * Durations are summed per stage, so concurrent DFIR chunks add up to more than the wall time.
+ * LLM usage is kept per task, including calls that were retried or whose response could not be parsed.
+ */
+public class ArticleProcessingStats {
+
+    public static final Class<ArticleProcessingStats> CONTEXT_KEY = ArticleProcessingStats.class;
+
+    private final Map<String, LongAdder> stageNanos = new ConcurrentHashMap<>();
+    private final Map<String, TaskUsage> usageByTask = new ConcurrentHashMap<>();
+
+    public static ArticleProcessingStats from(ContextView context) {
+        return context.getOrDefault(CONTEXT_KEY, null);
+    }
+
+    public void addStage(String stage, long nanos) {
+        stageNanos.computeIfAbsent(stage, key -> new LongAdder()).add(nanos);
+    }
+
+    public void addUsage(String task, CompletionsUsage usage, double costUsd) {
+        if (usage != null) {
+            usageByTask.computeIfAbsent(task, key -> new TaskUsage()).add(usage, costUsd);
+        }
+    }
+
+    public Map<String, Long> getStageDurationsMs() {
+        Map<String, Long> durations = new TreeMap<>();
+        stageNanos.forEach((stage, nanos) -> durations.put(stage, TimeUnit.NANOSECONDS.toMillis(nanos.sum())));
+        return durations;
+    }
+
+    public Map<String, ArticleScrapeStatus.LlmUsage> getLlmUsageByTask() {
+        Map<String, ArticleScrapeStatus.LlmUsage> usage = new TreeMap<>();
+        usageByTask.forEach((task, taskUsage) -> usage.put(task, taskUsage.toLlmUsage()));
+        return usage;
+    }
+
+    public long getPromptTokens() {
+        return usageByTask.values().stream().mapToLong(usage -> usage.promptTokens.sum()).sum();
+    }
+
+    public long getCompletionTokens() {
+        return usageByTask.values().stream().mapToLong(usage -> usage.completionTokens.sum()).sum();
+    }
+
+    public double getCostUsd() {
+        return usageByTask.values().stream().mapToDouble(usage -> usage.costUsd.sum()).sum();
+    }
+
+    private static final class TaskUsage {
+
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder promptTokens = new LongAdder();
+        private final LongAdder completionTokens = new LongAdder();
+        private final DoubleAdder costUsd = new DoubleAdder();
+
+        void add(CompletionsUsage usage, double cost) {
+            calls.increment();
+            promptTokens.add(usage.getPromptTokens());
+            completionTokens.add(usage.getCompletionTokens());
+            costUsd.add(cost);
+        }
+
+        ArticleScrapeStatus.LlmUsage toLlmUsage() {
+            return new ArticleScrapeStatus.LlmUsage(calls.intValue(), promptTokens.sum(), completionTokens.sum(), costUsd.sum());
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package org.gc.aiagents.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.gc.aiagents.properties.WorkQueueProperties;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Single entry point for article work (discovered, pending, retried and re-extracted articles).
+ * Work is queued in a {@link WeightedFairQueue} and started only while fewer than
+ * {@code blog-manager.work-queue.concurrency} articles are in flight, so under contention fresh
+ * articles and quiet parent blogs go first instead of whatever order Elasticsearch returned.
+ */
+@Slf4j
+@Service
+public class ArticleWorkScheduler {
+
+    private final WeightedFairQueue queue;
+    private final BoundedKeyedDispatcher<WeightedFairQueue.Item> dispatcher;
+
+    public ArticleWorkScheduler(WorkQueueProperties properties, MeterRegistry meterRegistry) {
+        this.queue = new WeightedFairQueue(Duration.ofMinutes(properties.getAgingMinutes()),
+                parentUid -> properties.getParentWeights().getOrDefault(parentUid, properties.getDefaultWeight()));
+        this.dispatcher = new BoundedKeyedDispatcher<>(new BoundedKeyedDispatcher.WorkQueue<>() {
+            @Override
+            public void offer(WeightedFairQueue.Item item) {
+                queue.offer(item);
+            }
+
+            @Override
+            public WeightedFairQueue.Item poll() {
+                return queue.poll(Instant.now());
+            }
+
+            @Override
+            public boolean contains(String key) {
+                return queue.contains(key);
+            }
+
+            @Override
+            public int size() {
+                return queue.size();
+            }
+        }, WeightedFairQueue.Item::getKey, properties::getConcurrency, "article work");
+
+        Gauge.builder("blog.manager.work.queued", this, ArticleWorkScheduler::getQueuedCount)
+                .description("Articles waiting in the work queue")
+                .register(meterRegistry);
+        Gauge.builder("blog.manager.work.in_flight", this, ArticleWorkScheduler::getInFlightCount)
+                .description("Articles currently being processed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues work for an article. The returned Mono completes once that work has finished; it never
+     * errors, since failures are handled by the task itself. Submitting an article that is already
+     * queued or in flight does not run it twice and returns the completion of the existing submission;
+     * a queued retry submitted again as fresh work moves up to fresh priority.
+     */
+    public Mono<Void> submit(String articleUrl, String parentUid, WeightedFairQueue.Priority priority, Supplier<Mono<Void>> task) {
+        return dispatcher.submit(new WeightedFairQueue.Item(articleUrl, parentUid, priority, Instant.now()), () -> {
+            log.debug("Starting {} work for article {} (parent UID: {})", priority, articleUrl, parentUid);
+            return task.get();
+        });
+    }
+
+    /**
+     * Queues work for an article like {@link #submit}, without waiting for it to run.
+     */
+    public void enqueue(String articleUrl, String parentUid, WeightedFairQueue.Priority priority, Supplier<Mono<Void>> task) {
+        submit(articleUrl, parentUid, priority, task); // Queued on submission, whether or not the completion is subscribed
+    }
+
+    public int getQueuedCount() {
+        return dispatcher.getQueuedCount();
+    }
+
+    public int getInFlightCount() {
+        return dispatcher.getRunningCount();
+    }
+
+    public Map<String, Integer> getQueuedCountByParent() {
+        return dispatcher.readQueue(queue::sizeByParent);
+    }
+}
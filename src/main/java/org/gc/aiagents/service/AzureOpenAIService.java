@@ -1,6 +1,5 @@
 package org.gc.aiagents.service;
 
-import com.azure.ai.openai.OpenAIClient;
 import com.azure.ai.openai.OpenAIClientBuilder;
 import com.azure.ai.openai.models.ChatChoice;
 import com.azure.ai.openai.models.ChatCompletions;
@@ -8,79 +7,159 @@ import com.azure.ai.openai.models.ChatCompletionsOptions;
 import com.azure.ai.openai.models.ChatRequestMessage;
 import com.azure.ai.openai.models.ChatRequestSystemMessage;
 import com.azure.ai.openai.models.ChatRequestUserMessage;
+import com.azure.ai.openai.models.CompletionsUsage;
 import com.azure.core.credential.AzureKeyCredential;
+import com.azure.core.http.HttpHeaderName;
 import com.azure.core.http.policy.HttpLogDetailLevel;
 import com.azure.core.http.policy.HttpLogOptions;
+import com.azure.core.http.policy.HttpPipelinePolicy;
 import com.azure.core.http.policy.RetryPolicy;
 import com.azure.core.http.policy.TimeoutPolicy;
+import com.azure.core.http.rest.RequestOptions;
+import com.azure.core.http.rest.Response;
+import io.micrometer.observation.Observation;
 import lombok.extern.slf4j.Slf4j;
 import org.gc.aiagents.properties.AzureOpenAIProperties;
 import org.springframework.stereotype.Service;
 import com.azure.ai.openai.OpenAIAsyncClient;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
-import java.util.concurrent.Semaphore;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Slf4j
 @Service
-public class AzureOpenAIService {
+public class AzureOpenAIService implements LlmProvider {
 
-    private final Map<String, OpenAIClient> clients = new HashMap<>();
-    private final Map<String, OpenAIAsyncClient> asyncClients = new HashMap<>();
+    public static final String NAME = "azure";
+
+    private final Map<String, OpenAIAsyncClient> asyncClients = new LinkedHashMap<>();
     private final Map<String, String> deploymentNames = new HashMap<>();
-    private final Map<String, Semaphore> clientSemaphores = new HashMap<>();
+    private final Map<String, AdaptiveConcurrencyLimiter> clientLimiters = new HashMap<>();
+    private final Map<String, AzureOpenAIProperties.Client> clientProperties = new HashMap<>();
     private final AzureOpenAIProperties properties;
+    private final PipelineMetrics pipelineMetrics;
+    private final PipelineTracing pipelineTracing;
+    private final LlmCallExecutor llmCallExecutor;
+    private final HedgingPolicy hedgingPolicy;
 
-    public AzureOpenAIService(AzureOpenAIProperties properties) {
+    public AzureOpenAIService(AzureOpenAIProperties properties, PipelineMetrics pipelineMetrics, PipelineTracing pipelineTracing,
+                              LlmCallExecutor llmCallExecutor, HedgingPolicy hedgingPolicy) {
         this.properties = properties;
+        this.pipelineMetrics = pipelineMetrics;
+        this.pipelineTracing = pipelineTracing;
+        this.llmCallExecutor = llmCallExecutor;
+        this.hedgingPolicy = hedgingPolicy;
         if (properties.getClients() == null || properties.getClients().isEmpty()) {
             log.warn("No Azure OpenAI clients configured. AzureOpenAIService will be unavailable.");
             return;
         }
         properties.getClients().forEach((name, clientProps) -> {
+            AdaptiveConcurrencyLimiter limiter = createLimiter(clientProps);
+            clientLimiters.put(name, limiter);
+            // Runs per try, so a 429 that the retry policy absorbs still lowers the limit
+            HttpPipelinePolicy throttleObserver = (context, next) -> next.process()
+                    .doOnNext(response -> {
+                        if (response.getStatusCode() == 429) {
+                            limiter.onThrottled();
+                        }
+                    });
+            
             // Enhanced client with timeout and retry policies
-            OpenAIClient client = new OpenAIClientBuilder()
-                    .endpoint(clientProps.getEndpoint())
-                    .credential(new AzureKeyCredential(clientProps.getApiKey()))
-                    .addPolicy(new TimeoutPolicy(Duration.ofSeconds(120))) // 2 minute timeout
-                    .addPolicy(new RetryPolicy()) // Default retry policy
-                    .httpLogOptions(new HttpLogOptions().setLogLevel(HttpLogDetailLevel.BASIC))
-                    .buildClient();
-            clients.put(name, client);
-
             OpenAIAsyncClient asyncClient = new OpenAIClientBuilder()
                     .endpoint(clientProps.getEndpoint())
                     .credential(new AzureKeyCredential(clientProps.getApiKey()))
                     .addPolicy(new TimeoutPolicy(Duration.ofSeconds(120))) // 2 minute timeout
                     .addPolicy(new RetryPolicy()) // Default retry policy
+                    .addPolicy(throttleObserver)
                     .httpLogOptions(new HttpLogOptions().setLogLevel(HttpLogDetailLevel.BASIC))
                     .buildAsyncClient();
             asyncClients.put(name, asyncClient);
 
             deploymentNames.put(name, clientProps.getDeploymentName());
+            clientProperties.put(name, clientProps);
+            pipelineMetrics.registerClientConcurrency(name, clientProps.getDeploymentName(), limiter);
             
-            // Create semaphore with configurable permits per client for concurrency control
-            int maxConcurrent = clientProps.getMaxConcurrentRequests();
-            clientSemaphores.put(name, new Semaphore(maxConcurrent));
-            
-            log.info("Initialized Azure OpenAI client '{}' with endpoint: {} (max concurrent: {})", 
-                    name, clientProps.getEndpoint(), maxConcurrent);
+            log.info("Initialized Azure OpenAI client '{}' with endpoint: {} (concurrency limit: {}, adaptive: {})", 
+                    name, clientProps.getEndpoint(), limiter.getLimit(), clientProps.getAdaptiveConcurrency().isEnabled());
         });
     }
 
-    public Mono<String> getChatCompletionAsync(String clientName, String systemPrompt, String userPrompt) {
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Set<String> getClientNames() {
+        return Collections.unmodifiableSet(asyncClients.keySet());
+    }
+
+    /**
+     * @param task pipeline stage the call belongs to; token usage and cost are recorded per task
+     */
+    @Override
+    public Mono<String> getChatCompletionAsync(String clientName, String task, String systemPrompt, String userPrompt) {
+        String alternate = hedgingPolicy.alternateFor(clientName);
+        if (alternate == null || !asyncClients.containsKey(alternate)) {
+            return callClient(clientName, task, systemPrompt, userPrompt, false);
+        }
+        return Mono.defer(() -> hedgedCall(clientName, alternate, task, systemPrompt, userPrompt));
+    }
+
+    /**
+     * Sends the call to the client and, if it is still running after the task's hedge delay and the hedge
+     * budget allows, a duplicate to the alternate client. The first completion wins and the other call is
+     * cancelled. If every call fails, the primary call's error is propagated, so callers still see throttling.
+     */
+    private Mono<String> hedgedCall(String clientName, String alternate, String task, String systemPrompt, String userPrompt) {
+        long startNanos = System.nanoTime();
+        Duration hedgeAfter = hedgingPolicy.hedgeDelay(task);
+        hedgingPolicy.onCall();
+        Mono<String> primary = callClient(clientName, task, systemPrompt, userPrompt, false);
+        if (hedgeAfter == null) {
+            return primary.doOnNext(result -> hedgingPolicy.recordLatency(task, Duration.ofNanos(System.nanoTime() - startNanos)));
+        }
+
+        AtomicReference<Throwable> primaryError = new AtomicReference<>();
+        Sinks.Empty<Void> primaryDone = Sinks.empty();
+        Mono<String> hedge = Mono.delay(hedgeAfter)
+                .takeUntilOther(primaryDone.asMono()) // A primary that already failed is retried by the caller instead
+                .flatMap(tick -> {
+                    if (!hedgingPolicy.tryAcquireHedge()) {
+                        pipelineMetrics.recordHedge(task, "budget_exhausted");
+                        return Mono.empty();
+                    }
+                    log.debug("Hedging {} call on client '{}' to '{}' after {} ms", task, clientName, alternate, hedgeAfter.toMillis());
+                    pipelineMetrics.recordHedge(task, "sent");
+                    return callClient(alternate, task, systemPrompt, userPrompt, true)
+                            .doOnNext(result -> pipelineMetrics.recordHedge(task, "won"));
+                });
+
+        return Mono.firstWithValue(
+                        primary.doOnError(primaryError::set).doOnTerminate(primaryDone::tryEmitEmpty),
+                        hedge)
+                .doOnNext(result -> hedgingPolicy.recordLatency(task, Duration.ofNanos(System.nanoTime() - startNanos)))
+                .onErrorResume(NoSuchElementException.class, e -> primaryError.get() != null ? Mono.error(primaryError.get()) : Mono.empty());
+    }
+
+    private Mono<String> callClient(String clientName, String task, String systemPrompt, String userPrompt, boolean hedge) {
         OpenAIAsyncClient client = asyncClients.get(clientName);
         String deploymentName = deploymentNames.get(clientName);
-        Semaphore semaphore = clientSemaphores.get(clientName);
+        AdaptiveConcurrencyLimiter limiter = clientLimiters.get(clientName);
 
-        if (client == null || deploymentName == null || semaphore == null) {
-            log.error("No async client, deployment name, or semaphore found for '{}'", clientName);
+        if (client == null || deploymentName == null || limiter == null) {
+            log.error("No async client, deployment name, or concurrency limiter found for '{}'", clientName);
             return Mono.error(new IllegalArgumentException("Invalid client name: " + clientName));
         }
 
@@ -93,71 +172,49 @@ public class AzureOpenAIService {
                 .setTemperature(0.7)
                 .setTopP(0.95);
 
-        // Use semaphore to control per-client concurrency
-        return Mono.fromCallable(() -> {
-                    log.debug("Acquiring semaphore for client '{}' (available permits: {})", clientName, semaphore.availablePermits());
-                    semaphore.acquire();
-                    log.debug("Acquired semaphore for client '{}'", clientName);
-                    return true;
-                })
-                .flatMap(acquired -> 
-                    client.getChatCompletions(deploymentName, options)
-                            .timeout(Duration.ofSeconds(120)) // Additional timeout at Reactor level
-                            .map(chatCompletions -> chatCompletions.getChoices().stream()
-                                    .map(ChatChoice::getMessage)
-                                    .map(message -> Objects.toString(message.getContent(), null))
-                                    .filter(Objects::nonNull)
-                                    .findFirst()
-                                    .orElse(null))
-                            .doOnError(e -> log.error("Error getting async chat completion from Azure OpenAI for client '{}': {}", clientName, e.getMessage()))
-                            .doFinally(signalType -> {
-                                semaphore.release();
-                                log.debug("Released semaphore for client '{}' (signal: {})", clientName, signalType);
-                            })
-                            .onErrorResume(e -> {
-                                log.warn("Retrying after error for client '{}': {}", clientName, e.getMessage());
-                                return Mono.empty(); // Return empty to trigger fallback logic
-                            })
-                );
+        return llmCallExecutor.execute(new LlmCallExecutor.Call(clientName, deploymentName, task, hedge), limiter,
+                observation -> client.getChatCompletionsWithResponse(deploymentName, options, traceRequestOptions(observation))
+                        .map(Response::getValue)
+                        .timeout(Duration.ofSeconds(120)), // Additional timeout at Reactor level
+                ChatCompletions::getUsage,
+                usage -> costUsd(clientName, usage),
+                chatCompletions -> chatCompletions.getChoices().stream()
+                        .map(ChatChoice::getMessage)
+                        .map(message -> Objects.toString(message.getContent(), null))
+                        .filter(Objects::nonNull)
+                        .findFirst()
+                        .orElse(null));
     }
 
-    public String getChatCompletion(String clientName, String systemPrompt, String userPrompt) {
-        try {
-            OpenAIClient client = clients.get(clientName);
-            String deploymentName = deploymentNames.get(clientName);
-
-            if (client == null || deploymentName == null) {
-                log.error("No client or deployment name found for '{}'", clientName);
-                return null;
-            }
-
-            List<ChatRequestMessage> prompts = new ArrayList<>();
-            prompts.add(new ChatRequestSystemMessage(systemPrompt));
-            prompts.add(new ChatRequestUserMessage(userPrompt));
-
-            ChatCompletionsOptions options = new ChatCompletionsOptions(prompts)
-                    .setMaxTokens(8000)
-                    .setTemperature(0.7)
-                    .setTopP(0.95);
-
-            log.debug("Sending chat completion request to client '{}' with deployment '{}'", clientName, deploymentName);
-            ChatCompletions chatCompletions = client.getChatCompletions(deploymentName, options);
-
-            String result = chatCompletions.getChoices().stream()
-                    .map(ChatChoice::getMessage)
-                    .map(message -> Objects.toString(message.getContent(), null))
-                    .filter(Objects::nonNull)
-                    .findFirst()
-                    .orElse(null);
-            
-            log.debug("Successfully received response from client '{}', response length: {}", 
-                     clientName, result != null ? result.length() : 0);
-            return result;
-
-        } catch (Exception e) {
-            log.error("Error getting chat completion from Azure OpenAI for client '{}': {}", clientName, e.getMessage(), e);
-            return null;
+    private static AdaptiveConcurrencyLimiter createLimiter(AzureOpenAIProperties.Client clientProps) {
+        AzureOpenAIProperties.AdaptiveConcurrency adaptive = clientProps.getAdaptiveConcurrency();
+        if (!adaptive.isEnabled()) {
+            return AdaptiveConcurrencyLimiter.fixed(clientProps.getMaxConcurrentRequests());
+        }
+        return new AdaptiveConcurrencyLimiter(clientProps.getMaxConcurrentRequests(), adaptive.getMinConcurrentRequests(),
+                adaptive.getMaxConcurrentRequests(), adaptive.getBackoffRatio(), adaptive.getLatencyTolerance());
+    }
+    
+    /**
+     * Prices a call's usage with the client's configured per-million token costs.
+     */
+    private double costUsd(String clientName, CompletionsUsage usage) {
+        AzureOpenAIProperties.Client clientProps = clientProperties.get(clientName);
+        if (usage == null || clientProps == null) {
+            return 0;
         }
+        return (usage.getPromptTokens() * clientProps.getPromptCostPerMillionTokens()
+                + usage.getCompletionTokens() * clientProps.getCompletionCostPerMillionTokens()) / 1_000_000;
+    }
+    
+    /**
+     * The SDK's own tracing needs the azure-core-tracing-opentelemetry plugin, so the W3C trace headers of
+     * the current span are added to the request directly.
+     */
+    private RequestOptions traceRequestOptions(Observation observation) {
+        RequestOptions requestOptions = new RequestOptions();
+        pipelineTracing.traceHeaders(observation).forEach((name, value) -> requestOptions.setHeader(HttpHeaderName.fromString(name), value));
+        return requestOptions;
     }
     
     public Map<String, String> getAvailableClients() {
@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
 
 @Slf4j
 @Component
@@ -13,6 +14,11 @@ import org.springframework.stereotype.Component;
 public class BlogManagerScheduler {
     
     private final BlogManagerService blogManagerService;
+    // Each job runs through the coordinator, so a tick is skipped while that job's previous run is
+    // still in flight, and a job with backlog left is re-run on completion instead of on the next tick
+    private final ScheduledRunCoordinator runCoordinator;
+    private final PipelineJobService pipelineJobService;
+    private final PipelineMetrics pipelineMetrics;
     
     /**
      * Runs scheduled parent scans
@@ -22,10 +28,10 @@ public class BlogManagerScheduler {
     public void runScheduledParentScans() {
         log.debug("Running scheduled parent scans check");
         
-        blogManagerService.runScheduledParentScans()
-                .doOnSuccess(v -> log.debug("Scheduled parent scans completed"))
-                .doOnError(error -> log.error("Error in scheduled parent scans: {}", error.getMessage()))
-                .subscribe();
+        runCoordinator.trigger("parent-scans", () -> blogManagerService.runScheduledParentScans()
+                .doOnSuccess(count -> log.debug("Scheduled parent scans completed"))
+                .doOnError(error -> log.error("Error in scheduled parent scans: {}", error.getMessage())),
+                blogManagerService::countDueParentScans);
     }
     
     /**
@@ -36,10 +42,24 @@ public class BlogManagerScheduler {
     public void retryFailedArticles() {
         log.debug("Running failed articles retry check");
         
-        blogManagerService.retryFailedArticles()
-                .doOnSuccess(v -> log.debug("Failed articles retry completed"))
-                .doOnError(error -> log.error("Error in failed articles retry: {}", error.getMessage()))
-                .subscribe();
+        runCoordinator.trigger("retry-failed", () -> blogManagerService.retryFailedArticles()
+                .doOnSuccess(count -> log.debug("Failed articles retry completed"))
+                .doOnError(error -> log.error("Error in failed articles retry: {}", error.getMessage())),
+                blogManagerService::countDueRetries);
+    }
+    
+    /**
+     * Re-extracts partially extracted articles
+     * This re-runs only the missing sections and DFIR chunks of SUCCESS articles marked PARTIAL
+     */
+    @Scheduled(fixedRateString = "${blog-manager.scheduler.reextract-partial-interval-ms:1800000}")
+    public void reextractPartialArticles() {
+        log.debug("Running partial articles re-extraction check");
+        
+        runCoordinator.trigger("reextract-partial", () -> blogManagerService.reextractPartialArticles()
+                .doOnSuccess(count -> log.debug("Partial articles re-extraction completed"))
+                .doOnError(error -> log.error("Error in partial articles re-extraction: {}", error.getMessage())),
+                () -> Mono.just(0L));
     }
     
     /**
@@ -50,10 +70,10 @@ public class BlogManagerScheduler {
     public void processPendingArticles() {
         log.debug("Running pending articles processing check");
         
-        blogManagerService.processPendingArticles()
-                .doOnSuccess(v -> log.debug("Pending articles processing completed"))
-                .doOnError(error -> log.error("Error in pending articles processing: {}", error.getMessage()))
-                .subscribe();
+        runCoordinator.trigger("process-pending", () -> blogManagerService.processPendingArticles()
+                .doOnSuccess(count -> log.debug("Pending articles processing completed"))
+                .doOnError(error -> log.error("Error in pending articles processing: {}", error.getMessage())),
+                blogManagerService::countPendingArticles);
     }
     
     /**
@@ -64,10 +84,37 @@ public class BlogManagerScheduler {
     public void resetStuckInProgressArticles() {
         log.debug("Running stuck IN_PROGRESS articles reset check");
         
-        blogManagerService.resetStuckInProgressArticles()
-                .doOnSuccess(v -> log.debug("Stuck IN_PROGRESS articles reset completed"))
-                .doOnError(error -> log.error("Error in stuck articles reset: {}", error.getMessage()))
-                .subscribe();
+        runCoordinator.trigger("reset-stuck", () -> blogManagerService.resetStuckInProgressArticles()
+                .doOnSuccess(count -> log.debug("Stuck IN_PROGRESS articles reset completed"))
+                .doOnError(error -> log.error("Error in stuck articles reset: {}", error.getMessage())),
+                () -> Mono.just(0L));
+    }
+    
+    /**
+     * Deletes finished jobs
+     * This removes extraction and scan jobs that finished longer ago than the retention period
+     */
+    @Scheduled(fixedRateString = "${blog-manager.scheduler.purge-jobs-interval-ms:3600000}")
+    public void purgeFinishedJobs() {
+        log.debug("Running finished jobs purge");
+        
+        runCoordinator.trigger("purge-jobs", () -> pipelineJobService.purgeFinishedJobs()
+                .doOnSuccess(count -> log.debug("Finished jobs purge completed"))
+                .doOnError(error -> log.error("Error in finished jobs purge: {}", error.getMessage())),
+                () -> Mono.just(0L));
+    }
+    
+    /**
+     * Refreshes the per-status article gauges
+     * This recounts articles per scrape status in Elasticsearch for the blog.manager.articles metric
+     */
+    @Scheduled(fixedDelayString = "${blog-manager.metrics.status-refresh-ms:60000}")
+    public void refreshArticleStatusCounts() {
+        log.debug("Running article status count refresh");
+        
+        runCoordinator.trigger("status-counts", () -> pipelineMetrics.refreshArticleStatusCounts()
+                .doOnError(error -> log.warn("Could not refresh article status counts: {}", error.getMessage())),
+                () -> Mono.just(0L));
     }
     
     /**
@@ -9,11 +9,12 @@ import org.gc.aiagents.domain.ParentBlogSchedule;
 import org.gc.aiagents.repository.ArticleScrapeStatusRepository;
 import org.gc.aiagents.repository.ParentBlogScheduleRepository;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
@@ -31,7 +32,13 @@ public class BlogManagerService {
     private final ArticleScrapeStatusRepository articleRepository;
     private final UrlCollectionService urlCollectionService;
     private final PythonApiService pythonApiService;
+    private final ReportStore reportStore;
+    private final ArticleWorkScheduler articleWorkScheduler;
+    private final ParentScanDispatcher parentScanDispatcher;
+    private final PipelineTracing pipelineTracing;
+    private final RetryBackoffPolicy retryBackoffPolicy;
     private final ObjectMapper objectMapper;
+    private final PipelineSchedulers pipelineSchedulers;
 
     @Value("${blog-manager.default-scan-interval-hours:168}") // Default weekly
     private int defaultScanIntervalHours;
@@ -48,58 +55,53 @@ public class BlogManagerService {
     @Value("${blog-manager.stuck-article-timeout-minutes:10}")
     private int stuckArticleTimeoutMinutes;
 
+    @Value("${blog-manager.max-reextract-attempts:3}")
+    private int maxReextractAttempts;
+
+    @Value("${blog-manager.scan.initial-spread-minutes:60}")
+    private int initialScanSpreadMinutes;
+
     /**
      * Adds a parent blog URL for scanning
      */
     public Mono<ParentBlogSchedule> addParentBlogForScanning(String parentUrl, Integer scanIntervalHours) {
         log.info("Adding parent blog for scanning: {}", parentUrl);
         
-        return Mono.fromCallable(() -> {
-            Optional<ParentBlogSchedule> existing = parentBlogRepository.findByParentUrl(parentUrl);
-            
-            if (existing.isPresent()) {
-                // Update existing schedule
-                ParentBlogSchedule schedule = existing.get();
-                if (scanIntervalHours != null) {
-                    schedule.setScanIntervalHours(scanIntervalHours);
-                }
-                schedule.setUpdatedAtUtc(Instant.now());
-                return parentBlogRepository.save(schedule);
-            } else {
+        return parentBlogRepository.findByParentUrl(parentUrl)
+                .map(schedule -> {
+                    // Update existing schedule
+                    if (scanIntervalHours != null) {
+                        schedule.setScanIntervalHours(scanIntervalHours);
+                    }
+                    schedule.setUpdatedAtUtc(Instant.now());
+                    return schedule;
+                })
                 // Create new schedule
-                ParentBlogSchedule newSchedule = ParentBlogSchedule.create(parentUrl, scanIntervalHours);
-                return parentBlogRepository.save(newSchedule);
-            }
-        });
+                .switchIfEmpty(Mono.fromSupplier(() -> ParentBlogSchedule.create(parentUrl, scanIntervalHours,
+                        Duration.ofMinutes(initialScanSpreadMinutes))))
+                .flatMap(parentBlogRepository::save);
     }
 
     /**
-     * Triggers a parent blog scan asynchronously.
-     */
-    @Async
-    public void startScanForParentBlog(String parentUid, String parentUrl) {
-        scanParentBlogUrl(parentUid, parentUrl)
-                .subscribe(
-                        null, // onNext is not needed as it's a Mono<Void>
-                        error -> log.error("Asynchronous scan failed for {}: {}", parentUrl, error.getMessage())
-                );
-    }
-
-    /**
-     * Scans a parent blog URL for new articles and processes them
+     * Scans a parent blog URL for new articles and queues them for processing. The scan completes (and is
+     * recorded as successful) once its articles are queued; their outcomes are kept on the article records,
+     * so a parent with many new articles does not hold a scan slot while they are extracted.
      */
     public Mono<Void> scanParentBlogUrl(String parentUid, String parentUrl) {
         log.info("Starting scan for parent blog: {} (UID: {})", parentUrl, parentUid);
         
         Instant now = Instant.now();
         
-        return updateParentScanAttempt(parentUid, now)
+        Map<String, String> spanAttributes = PipelineTracing.articleAttributes(null, parentUid);
+        spanAttributes.put("parent.url", parentUrl);
+        
+        // Articles found here are traced separately, each under its own "article" span
+        return pipelineTracing.span("scan", spanAttributes, updateParentScanAttempt(parentUid, now)
                 .then(collectAndIdentifyBlogUrls(parentUrl))
-                .flatMapMany(Flux::fromIterable)
-                .flatMap(articleUrl -> 
-                    resetFailureCountForFailedArticle(articleUrl)
-                        .then(processDiscoveredArticle(articleUrl, parentUid)), 1)
-                .then(updateParentScanSuccess(parentUid, now))
+                .doOnNext(articleUrls -> articleUrls.forEach(articleUrl -> articleWorkScheduler.enqueue(articleUrl, parentUid,
+                        WeightedFairQueue.Priority.FRESH, () -> resetFailureCountForFailedArticle(articleUrl)
+                                .then(processDiscoveredArticle(articleUrl, parentUid)))))
+                .then(updateParentScanSuccess(parentUid, now)))
                 .doOnSuccess(v -> log.info("Successfully completed scan for {}", parentUrl))
                 .doOnError(error -> log.error("Error scanning parent blog {}: {}", parentUrl, error.getMessage()));
     }
@@ -111,8 +113,9 @@ public class BlogManagerService {
         log.info("Processing article: {} (Parent UID: {})", articleUrl, parentUid);
         
         Instant now = Instant.now();
+        ArticleProcessingStats processingStats = new ArticleProcessingStats();
         
-        return checkArticleProcessingNeeded(articleUrl)
+        return pipelineTracing.span("article", PipelineTracing.articleAttributes(articleUrl, parentUid), checkArticleProcessingNeeded(articleUrl)
                 .flatMap(needed -> {
                     if (!needed) {
                         log.info("Skipping already processed article: {}", articleUrl);
@@ -146,123 +149,212 @@ public class BlogManagerService {
                             .flatMap(apiResponse -> {
                                 if (apiResponse != null && !apiResponse.isEmpty()) {
                                     return pythonApiService.storeIntelligenceData(apiResponse)
-                                            .then(updateArticleSuccess(articleUrl, now, apiResponse));
+                                            .then(updateArticleSuccess(articleUrl, now, apiResponse, processingStats));
                                 } else {
                                     log.warn("Received empty or null API response after intelligence extraction for article: {}", articleUrl);
-                                    return updateArticleFailure(articleUrl, now, "Empty response from intelligence extraction");
+                                    return updateArticleFailure(articleUrl, now, new IllegalStateException("Empty response from intelligence extraction"),
+                                            processingStats);
                                 }
                             })
                             .onErrorResume(error -> {
                                 log.error("Error processing article {}: {}", articleUrl, error.getMessage(), error);
-                                return updateArticleFailure(articleUrl, now, error.getMessage());
-                            });
-                });
+                                return updateArticleFailure(articleUrl, now, error, processingStats);
+                            })
+                            .contextWrite(Context.of(ArticleProcessingStats.CONTEXT_KEY, processingStats));
+                }));
     }
 
     /**
-     * Runs scheduled parent scans
+     * Runs scheduled parent scans and emits the number of parents scanned
      */
-    public Mono<Void> runScheduledParentScans() {
+    public Mono<Long> runScheduledParentScans() {
         log.info("Running scheduled parent scans");
         
         Instant now = Instant.now();
         
-        return Mono.fromCallable(() -> parentBlogRepository.findByNextScanDatetimeUtcLessThanEqual(now))
-                .flatMapMany(Flux::fromIterable)
-                .flatMap(schedule -> scanParentBlogUrl(schedule.getParentUid(), schedule.getParentUrl()))
-                .then()
-                .doOnSuccess(v -> log.info("Completed scheduled parent scans"))
+        return parentBlogRepository.findByNextScanDatetimeUtcLessThanEqual(now)
+                .flatMap(schedule -> parentScanDispatcher.submit(schedule.getParentUid(),
+                        () -> scanParentBlogUrl(schedule.getParentUid(), schedule.getParentUrl()))
+                        .thenReturn(schedule)) // Concurrency is bounded by the parent scan dispatcher
+                .count()
+                .doOnSuccess(count -> log.info("Completed scheduled parent scans ({} parents)", count))
                 .doOnError(error -> log.error("Error in scheduled parent scans: {}", error.getMessage()));
     }
 
     /**
-     * Retries failed articles that are due for retry
+     * Retries failed articles whose retryAfterUtc backoff has elapsed and emits the number retried
      */
-    public Mono<Void> retryFailedArticles() {
-        log.info("Retrying failed articles based on FAILED status flag.");
+    public Mono<Long> retryFailedArticles() {
+        log.info("Retrying failed articles that are due based on retryAfterUtc.");
+
+        Instant now = Instant.now();
 
-        return Mono.fromCallable(() ->
-                articleRepository.findByScrapeStatusAndFailureCountLessThan(
-                        ArticleScrapeStatus.ScrapeStatus.FAILED, maxFailureCount))
-                .flatMapMany(Flux::fromIterable)
+        // Articles failed before backoff was recorded have no retryAfterUtc and are due immediately
+        return Flux.concat(
+                        articleRepository.findByScrapeStatusAndFailureCountLessThanAndRetryAfterUtcLessThanEqual(
+                                ArticleScrapeStatus.ScrapeStatus.FAILED, maxFailureCount, now),
+                        articleRepository.findByScrapeStatusAndFailureCountLessThanAndRetryAfterUtcIsNull(
+                                ArticleScrapeStatus.ScrapeStatus.FAILED, maxFailureCount))
                 .flatMap(article -> {
-                    log.info("Retrying failed article: {}", article.getArticleUrl());
-                    return processDiscoveredArticle(article.getArticleUrl(), article.getParentUid());
-                }, 1) // Keep concurrency at 1
-                .then()
-                .doOnSuccess(v -> log.info("Completed retry of failed articles."))
+                    log.info("Queueing failed article for retry: {}", article.getArticleUrl());
+                    return articleWorkScheduler.submit(article.getArticleUrl(), article.getParentUid(), WeightedFairQueue.Priority.RETRY,
+                            () -> processDiscoveredArticle(article.getArticleUrl(), article.getParentUid()))
+                            .thenReturn(article);
+                }, Integer.MAX_VALUE) // Every due article goes to the queue, which orders them and bounds concurrency
+                .count()
+                .doOnSuccess(count -> log.info("Completed retry of {} failed articles.", count))
                 .doOnError(error -> log.error("Error retrying failed articles: {}", error.getMessage()));
     }
 
     /**
-     * Processes pending articles that are waiting to be processed
+     * Re-runs only the missing sections and DFIR chunks of articles whose extraction was partial
+     */
+    public Mono<Long> reextractPartialArticles() {
+        log.info("Re-extracting missing parts of partially extracted articles.");
+
+        return articleRepository.findByScrapeStatusAndExtractionStatusAndReextractAttemptCountLessThan(
+                        ArticleScrapeStatus.ScrapeStatus.SUCCESS, ArticleScrapeStatus.ExtractionStatus.PARTIAL, maxReextractAttempts)
+                .flatMap(article -> articleWorkScheduler.submit(article.getArticleUrl(), article.getParentUid(), WeightedFairQueue.Priority.RETRY,
+                        () -> reextractPartialArticle(article)).thenReturn(article),
+                        Integer.MAX_VALUE) // Every due article goes to the queue, which orders them and bounds concurrency
+                .count()
+                .doOnSuccess(count -> log.info("Completed re-extraction of {} partial articles.", count))
+                .doOnError(error -> log.error("Error re-extracting partial articles: {}", error.getMessage()));
+    }
+
+    /**
+     * Processes pending articles that are waiting to be processed and emits the number processed
      */
-    public Mono<Void> processPendingArticles() {
+    public Mono<Long> processPendingArticles() {
         log.info("Processing pending articles based on PENDING status flag.");
 
-        return Mono.fromCallable(() ->
-                articleRepository.findByScrapeStatus(ArticleScrapeStatus.ScrapeStatus.PENDING))
-                .flatMapMany(Flux::fromIterable)
+        return articleRepository.findByScrapeStatus(ArticleScrapeStatus.ScrapeStatus.PENDING)
                 .flatMap(article -> {
-                    log.info("Processing pending article: {}", article.getArticleUrl());
-                    return processDiscoveredArticle(article.getArticleUrl(), article.getParentUid());
-                }, 1) // Keep concurrency at 1
-                .then()
-                .doOnSuccess(v -> log.info("Completed processing of pending articles."))
+                    log.info("Queueing pending article: {}", article.getArticleUrl());
+                    // Pending articles that already failed once (e.g. reset after getting stuck) rank as retries
+                    WeightedFairQueue.Priority priority = article.getFailureCount() != null && article.getFailureCount() > 0
+                            ? WeightedFairQueue.Priority.RETRY
+                            : WeightedFairQueue.Priority.FRESH;
+                    return articleWorkScheduler.submit(article.getArticleUrl(), article.getParentUid(), priority,
+                            () -> processDiscoveredArticle(article.getArticleUrl(), article.getParentUid()))
+                            .thenReturn(article);
+                }, Integer.MAX_VALUE) // Every due article goes to the queue, which orders them and bounds concurrency
+                .count()
+                .doOnSuccess(count -> log.info("Completed processing of {} pending articles.", count))
                 .doOnError(error -> log.error("Error processing pending articles: {}", error.getMessage()));
     }
 
     /**
      * Resets articles stuck in IN_PROGRESS status for more than 10 minutes back to PENDING
      */
-    public Mono<Void> resetStuckInProgressArticles() {
+    public Mono<Long> resetStuckInProgressArticles() {
         log.info("Checking for articles stuck in IN_PROGRESS status");
         
         Instant timeoutThreshold = Instant.now().minus(stuckArticleTimeoutMinutes, ChronoUnit.MINUTES);
         
-        return Mono.fromCallable(() -> 
-                articleRepository.findByScrapeStatus(ArticleScrapeStatus.ScrapeStatus.IN_PROGRESS))
-                .flatMapMany(Flux::fromIterable)
+        return articleRepository.findByScrapeStatus(ArticleScrapeStatus.ScrapeStatus.IN_PROGRESS)
                 .filter(article -> article.getUpdatedAtUtc().isBefore(timeoutThreshold))
                 .flatMap(article -> {
                     log.warn("Resetting stuck IN_PROGRESS article to PENDING: {} (stuck since: {})", 
                             article.getArticleUrl(), article.getUpdatedAtUtc());
-                    return resetStuckArticleToPending(article.getArticleUrl());
+                    return resetStuckArticleToPending(article.getArticleUrl()).thenReturn(article);
                 })
-                .then()
-                .doOnSuccess(v -> log.info("Completed reset of stuck IN_PROGRESS articles"))
+                .count()
+                .doOnSuccess(count -> log.info("Completed reset of {} stuck IN_PROGRESS articles", count))
                 .doOnError(error -> log.error("Error resetting stuck articles: {}", error.getMessage()));
     }
 
+    /**
+     * Counts parent blogs whose next scan is due
+     */
+    public Mono<Long> countDueParentScans() {
+        return Mono.defer(() -> parentBlogRepository.countByNextScanDatetimeUtcLessThanEqual(Instant.now()));
+    }
+
+    /**
+     * Counts failed articles whose retry backoff has elapsed, plus the ones without a backoff (failed before
+     * it was recorded), which retryFailedArticles picks up as well
+     */
+    public Mono<Long> countDueRetries() {
+        return Mono.defer(() -> Mono.zip(
+                articleRepository.countByScrapeStatusAndFailureCountLessThanAndRetryAfterUtcLessThanEqual(
+                        ArticleScrapeStatus.ScrapeStatus.FAILED, maxFailureCount, Instant.now()),
+                articleRepository.countByScrapeStatusAndFailureCountLessThanAndRetryAfterUtcIsNull(
+                        ArticleScrapeStatus.ScrapeStatus.FAILED, maxFailureCount),
+                Long::sum));
+    }
+
+    /**
+     * Counts articles waiting in PENDING status
+     */
+    public Mono<Long> countPendingArticles() {
+        return articleRepository.countByScrapeStatus(ArticleScrapeStatus.ScrapeStatus.PENDING);
+    }
+
     /**
      * Gets all parent blog UIDs
      */
     public Mono<List<String>> getParentBlogUids() {
-        return Mono.fromCallable(() -> 
-                parentBlogRepository.findAllByOrderByCreatedAtUtcDesc()
-                        .stream()
-                        .map(ParentBlogSchedule::getParentUid)
-                        .toList());
+        return parentBlogRepository.findAllByOrderByCreatedAtUtcDesc()
+                .map(ParentBlogSchedule::getParentUid)
+                .collectList();
     }
 
     /**
      * Gets child blogs for a parent UID
      */
     public Mono<List<Map<String, String>>> getChildBlogs(String parentUid) {
-        return Mono.fromCallable(() -> 
-                articleRepository.findByParentUid(parentUid)
-                        .stream()
-                        .map(article -> Map.of(
-                                "article_uid", article.getArticleUid(),
-                                "article_url", article.getArticleUrl()
-                        ))
-                        .toList());
+        return articleRepository.findByParentUid(parentUid)
+                .map(article -> Map.of(
+                        "article_uid", article.getArticleUid(),
+                        "article_url", article.getArticleUrl()
+                ))
+                .collectList();
     }
 
     // Private helper methods
+
+    private Mono<Void> reextractPartialArticle(ArticleScrapeStatus article) {
+        String articleUrl = article.getArticleUrl();
+        ArticleProcessingStats processingStats = new ArticleProcessingStats();
+        return pipelineTracing.span("reextract", PipelineTracing.articleAttributes(articleUrl, article.getParentUid()),
+                loadReport(article)
+                .doOnNext(existingReport -> log.info("Re-extracting partial article: {} (sections {}, DFIR chunks {})", articleUrl,
+                        PythonApiService.getMissingSections(existingReport), PythonApiService.getMissingDfirChunks(existingReport)))
+                .flatMap(existingReport -> pythonApiService.getPreprocessedContent(articleUrl)
+                        .flatMap(preprocessedDataMap -> pythonApiService.reextractMissingParts(articleUrl, preprocessedDataMap, existingReport, pythonProvider)))
+                .flatMap(report -> pythonApiService.storeIntelligenceData(report)
+                        .then(updateArticleReextraction(articleUrl, report, processingStats)))
+                .onErrorResume(error -> {
+                    log.error("Error re-extracting partial article {}: {}", articleUrl, error.getMessage(), error);
+                    return updateArticleReextraction(articleUrl, null, processingStats);
+                })
+                .contextWrite(Context.of(ArticleProcessingStats.CONTEXT_KEY, processingStats)));
+    }
+    
+    /**
+     * The article's last report: from the report store, or inline for documents written before it existed.
+     */
+    private Mono<Map<String, Object>> loadReport(ArticleScrapeStatus article) {
+        if (article.getReportRef() != null) {
+            return reportStore.get(article.getReportRef(), article.getReportDigest());
+        }
+        return Mono.justOrEmpty(article.getExternalApiResponse())
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("No stored report for " + article.getArticleUrl())));
+    }
+    
+    private static void setReport(ArticleScrapeStatus article, ReportStore.StoredReport storedReport) {
+        article.setReportRef(storedReport.ref());
+        article.setReportDigest(storedReport.digest());
+        article.setReportSizeBytes(storedReport.sizeBytes());
+        article.setExternalApiResponse(null); // Also drops a report stored inline by an earlier version
+    }
     
     private Mono<List<String>> collectAndIdentifyBlogUrls(String parentUrl) {
+        // Crawling blocks (rate-limit sleep, Jsoup). A queued scan is started by whichever scan finished
+        // before it, often on a Netty event loop, so move off it
         return Mono.fromCallable(() -> urlCollectionService.collectContentUrls(parentUrl))
+                .subscribeOn(pipelineSchedulers.fetch())
                 .flatMap(candidateUrls -> {
                     if (candidateUrls.isEmpty()) {
                         log.info("No candidate URLs found for {}", parentUrl);
@@ -270,138 +362,179 @@ public class BlogManagerService {
                     }
                     
                     log.info("Collected {} candidate URLs from {}", candidateUrls.size(), parentUrl);
-                    return Mono.fromCallable(() -> 
-                            urlCollectionService.identifyBlogLinksWithLlm(candidateUrls, parentUrl));
+                    return urlCollectionService.identifyBlogLinksWithLlm(candidateUrls, parentUrl);
                 });
     }
     
     private Mono<Boolean> checkArticleProcessingNeeded(String articleUrl) {
-        return Mono.fromCallable(() -> {
-            Optional<ArticleScrapeStatus> existing = articleRepository.findByArticleUrl(articleUrl);
-            
-            if (existing.isEmpty()) {
-                return true; // New article, needs processing
-            }
-            
-            ArticleScrapeStatus status = existing.get();
-            return switch (status.getScrapeStatus()) {
-                case SUCCESS, IN_PROGRESS, MAX_FAILURES -> false;
-                case FAILED -> status.getFailureCount() < maxFailureCount;
-                case PENDING -> true;
-            };
-        });
+        return articleRepository.findByArticleUrl(articleUrl)
+                .map(status -> switch (status.getScrapeStatus()) {
+                    case SUCCESS, IN_PROGRESS, MAX_FAILURES -> false;
+                    case FAILED -> status.getFailureCount() < maxFailureCount;
+                    case PENDING -> true;
+                })
+                .defaultIfEmpty(true); // New article, needs processing
     }
     
     private Mono<Void> updateParentScanAttempt(String parentUid, Instant now) {
-        return Mono.fromRunnable(() -> {
-            Optional<ParentBlogSchedule> schedule = parentBlogRepository.findById(parentUid);
-            if (schedule.isPresent()) {
-                ParentBlogSchedule s = schedule.get();
-                s.setLastScanAttemptUtc(now);
-                s.setUpdatedAtUtc(now);
-                parentBlogRepository.save(s);
-            }
-        });
+        return parentBlogRepository.findById(parentUid)
+                .flatMap(s -> {
+                    s.setLastScanAttemptUtc(now);
+                    s.setUpdatedAtUtc(now);
+                    return parentBlogRepository.save(s);
+                })
+                .then();
     }
     
     private Mono<Void> updateParentScanSuccess(String parentUid, Instant scanStartTime) {
-        return Mono.fromRunnable(() -> {
-            Optional<ParentBlogSchedule> schedule = parentBlogRepository.findById(parentUid);
-            if (schedule.isPresent()) {
-                ParentBlogSchedule s = schedule.get();
-                s.setLastScanSuccessUtc(scanStartTime);
-                s.setNextScanDatetimeUtc(scanStartTime.plus(s.getScanIntervalHours(), ChronoUnit.HOURS));
-                s.setUpdatedAtUtc(Instant.now());
-                parentBlogRepository.save(s);
-            }
-        });
+        return parentBlogRepository.findById(parentUid)
+                .flatMap(s -> {
+                    s.setLastScanSuccessUtc(scanStartTime);
+                    s.setNextScanDatetimeUtc(ParentBlogSchedule.nextAlignedScan(
+                            parentUid, Duration.ofHours(s.getScanIntervalHours()), scanStartTime));
+                    s.setUpdatedAtUtc(Instant.now());
+                    return parentBlogRepository.save(s);
+                })
+                .then();
     }
     
     private Mono<Void> updateArticleStatus(String articleUrl, String parentUid, 
                                          ArticleScrapeStatus.ScrapeStatus status, Instant now) {
-        return Mono.fromRunnable(() -> {
-            Optional<ArticleScrapeStatus> existing = articleRepository.findByArticleUrl(articleUrl);
-            
-            ArticleScrapeStatus article;
-            if (existing.isPresent()) {
-                article = existing.get();
-            } else {
-                article = ArticleScrapeStatus.create(articleUrl, parentUid);
-            }
-            
-            article.setScrapeStatus(status);
-            article.setLastScrapeAttemptUtc(now);
-            article.setUpdatedAtUtc(now);
-            
-            articleRepository.save(article);
-        });
+        return articleRepository.findByArticleUrl(articleUrl)
+                .switchIfEmpty(Mono.fromSupplier(() -> ArticleScrapeStatus.create(articleUrl, parentUid)))
+                .flatMap(article -> {
+                    article.setScrapeStatus(status);
+                    article.setLastScrapeAttemptUtc(now);
+                    article.setUpdatedAtUtc(now);
+                    return articleRepository.save(article);
+                })
+                .then();
+    }
+    
+    private Mono<Void> updateArticleSuccess(String articleUrl, Instant now, Map<String, Object> apiResponse,
+                                            ArticleProcessingStats processingStats) {
+        return articleRepository.findByArticleUrl(articleUrl)
+                .flatMap(article -> reportStore.put(article.getArticleUid(), apiResponse).map(storedReport -> {
+                    setReport(article, storedReport);
+                    return article;
+                }))
+                .flatMap(article -> {
+                    article.setScrapeStatus(ArticleScrapeStatus.ScrapeStatus.SUCCESS);
+                    article.setLastSuccessDatetimeUtc(now);
+                    article.setProcessingDurationMs(Duration.between(now, Instant.now()).toMillis());
+                    article.setStageDurationsMs(processingStats.getStageDurationsMs());
+                    addLlmUsage(article, processingStats);
+                    article.setFailureCount(0);
+                    article.setRetryAfterUtc(null);
+                    article.setExtractionStatus(PythonApiService.isPartialExtraction(apiResponse)
+                            ? ArticleScrapeStatus.ExtractionStatus.PARTIAL
+                            : ArticleScrapeStatus.ExtractionStatus.COMPLETE);
+                    article.setReextractAttemptCount(0);
+                    article.setUpdatedAtUtc(now);
+                    return articleRepository.save(article);
+                })
+                .then();
+    }
+    
+    private Mono<Void> updateArticleReextraction(String articleUrl, Map<String, Object> report,
+                                                 ArticleProcessingStats processingStats) {
+        return articleRepository.findByArticleUrl(articleUrl)
+                .flatMap(article -> report == null ? Mono.just(article)
+                        : reportStore.put(article.getArticleUid(), report).map(storedReport -> {
+                            setReport(article, storedReport);
+                            return article;
+                        }))
+                .flatMap(article -> {
+                    int attempts = article.getReextractAttemptCount() != null ? article.getReextractAttemptCount() : 0;
+                    article.setReextractAttemptCount(attempts + 1);
+                    addLlmUsage(article, processingStats);
+                    if (report != null) {
+                        // The article stays SUCCESS either way; only the completeness of its report changes
+                        if (!PythonApiService.isPartialExtraction(report)) {
+                            article.setExtractionStatus(ArticleScrapeStatus.ExtractionStatus.COMPLETE);
+                        }
+                    }
+                    article.setUpdatedAtUtc(Instant.now());
+                    return articleRepository.save(article);
+                })
+                .then();
     }
     
-    private Mono<Void> updateArticleSuccess(String articleUrl, Instant now, Map<String, Object> apiResponse) {
-        return Mono.fromRunnable(() -> {
-            Optional<ArticleScrapeStatus> existing = articleRepository.findByArticleUrl(articleUrl);
-            if (existing.isPresent()) {
-                ArticleScrapeStatus article = existing.get();
-                article.setScrapeStatus(ArticleScrapeStatus.ScrapeStatus.SUCCESS);
-                article.setLastSuccessDatetimeUtc(now);
-                article.setFailureCount(0);
-                article.setRetryAfterUtc(null);
-                article.setExternalApiResponse(apiResponse);
-                article.setUpdatedAtUtc(now);
-                articleRepository.save(article);
-            }
-        });
+    /**
+     * Adds the LLM usage of an attempt (extraction, retry or re-extraction) to the article's stored usage;
+     * the tokens were spent whether or not the attempt succeeded.
+     */
+    private static void addLlmUsage(ArticleScrapeStatus article, ArticleProcessingStats processingStats) {
+        Map<String, ArticleScrapeStatus.LlmUsage> usageByTask = article.getLlmUsageByTask() != null
+                ? new TreeMap<>(article.getLlmUsageByTask())
+                : new TreeMap<>();
+        processingStats.getLlmUsageByTask().forEach((task, usage) -> usageByTask.merge(task, usage, ArticleScrapeStatus.LlmUsage::plus));
+        article.setLlmUsageByTask(usageByTask);
+        article.setLlmPromptTokens(Objects.requireNonNullElse(article.getLlmPromptTokens(), 0L) + processingStats.getPromptTokens());
+        article.setLlmCompletionTokens(Objects.requireNonNullElse(article.getLlmCompletionTokens(), 0L) + processingStats.getCompletionTokens());
+        article.setLlmCostUsd(Objects.requireNonNullElse(article.getLlmCostUsd(), 0.0) + processingStats.getCostUsd());
     }
     
-    private Mono<Void> updateArticleFailure(String articleUrl, Instant now, String errorMessage) {
-        return Mono.fromRunnable(() -> {
-            Optional<ArticleScrapeStatus> existing = articleRepository.findByArticleUrl(articleUrl);
-            if (existing.isPresent()) {
-                ArticleScrapeStatus article = existing.get();
-                int newFailureCount = article.getFailureCount() + 1;
+    private Mono<Void> updateArticleFailure(String articleUrl, Instant now, Throwable error,
+                                            ArticleProcessingStats processingStats) {
+        return articleRepository.findByArticleUrl(articleUrl)
+                .flatMap(article -> {
+                    int newFailureCount = article.getFailureCount() + 1;
                 
-                article.setFailureCount(newFailureCount);
-                article.setUpdatedAtUtc(now);
+                    article.setFailureCount(newFailureCount);
+                    article.setUpdatedAtUtc(now);
+                    addLlmUsage(article, processingStats);
                 
-                if (newFailureCount >= maxFailureCount) {
-                    article.setScrapeStatus(ArticleScrapeStatus.ScrapeStatus.MAX_FAILURES);
-                } else {
-                    article.setScrapeStatus(ArticleScrapeStatus.ScrapeStatus.FAILED);
-                }
-                article.setRetryAfterUtc(null); // No longer used
+                    ArticleScrapeStatus.FailureType failureType = retryBackoffPolicy.classify(error);
+                    article.setLastFailureType(failureType);
                 
-                // Store error in external API response for debugging
-                article.setExternalApiResponse(Map.of("error", errorMessage, "timestamp", now.toString()));
+                    if (newFailureCount >= maxFailureCount) {
+                        article.setScrapeStatus(ArticleScrapeStatus.ScrapeStatus.MAX_FAILURES);
+                        article.setRetryAfterUtc(null);
+                    } else {
+                        article.setScrapeStatus(ArticleScrapeStatus.ScrapeStatus.FAILED);
+                        article.setRetryAfterUtc(retryBackoffPolicy.nextRetryAt(failureType, newFailureCount, now));
+                        log.info("Article {} failed with {} (failure {}), next retry after {}",
+                                articleUrl, failureType, newFailureCount, article.getRetryAfterUtc());
+                    }
                 
-                articleRepository.save(article);
-            }
-        });
+                    // Store error in external API response for debugging
+                    article.setExternalApiResponse(Map.of(
+                            "error", String.valueOf(error.getMessage()),
+                            "failure_type", failureType.name(),
+                            "timestamp", now.toString()));
+                
+                    return articleRepository.save(article);
+                })
+                .then();
     }
 
     private Mono<Void> resetFailureCountForFailedArticle(String articleUrl) {
-        return Mono.fromRunnable(() -> {
-            articleRepository.findByArticleUrl(articleUrl).ifPresent(article -> {
-                var status = article.getScrapeStatus();
-                if (status == ArticleScrapeStatus.ScrapeStatus.FAILED || status == ArticleScrapeStatus.ScrapeStatus.MAX_FAILURES) {
-                    log.info("Parent scan is re-processing a previously failed article [{}]. Status was {}. Resetting failure count.", articleUrl, status);
+        return articleRepository.findByArticleUrl(articleUrl)
+                .filter(article -> article.getScrapeStatus() == ArticleScrapeStatus.ScrapeStatus.FAILED
+                        || article.getScrapeStatus() == ArticleScrapeStatus.ScrapeStatus.MAX_FAILURES)
+                .flatMap(article -> {
+                    log.info("Parent scan is re-processing a previously failed article [{}]. Status was {}. Resetting failure count.",
+                            articleUrl, article.getScrapeStatus());
                     article.setFailureCount(0);
+                    article.setRetryAfterUtc(null);
                     article.setScrapeStatus(ArticleScrapeStatus.ScrapeStatus.PENDING);
                     article.setUpdatedAtUtc(Instant.now());
-                    articleRepository.save(article);
-                }
-            });
-        });
+                    return articleRepository.save(article);
+                })
+                .then();
     }
 
     private Mono<Void> resetStuckArticleToPending(String articleUrl) {
-        return Mono.fromRunnable(() -> {
-            articleRepository.findByArticleUrl(articleUrl).ifPresent(article -> {
-                log.info("Resetting stuck IN_PROGRESS article [{}] to FAILED for faster retry", articleUrl);
-                article.setScrapeStatus(ArticleScrapeStatus.ScrapeStatus.FAILED);
-                article.setUpdatedAtUtc(Instant.now());
-                // Don't increment failure count since this was a timeout, not a real failure
-                articleRepository.save(article);
-            });
-        });
+        return articleRepository.findByArticleUrl(articleUrl)
+                .flatMap(article -> {
+                    log.info("Resetting stuck IN_PROGRESS article [{}] to FAILED for faster retry", articleUrl);
+                    article.setScrapeStatus(ArticleScrapeStatus.ScrapeStatus.FAILED);
+                    article.setRetryAfterUtc(Instant.now()); // Due on the next retry run
+                    article.setUpdatedAtUtc(Instant.now());
+                    // Don't increment failure count since this was a timeout, not a real failure
+                    return articleRepository.save(article);
+                })
+                .then();
     }
 } 
\ No newline at end of file
@@ -0,0 +1,184 @@
+package org.gc.aiagents.service;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Starts queued work while fewer than a maximum number of tasks are running, at most one task per key.
+ * The order is left to the {@link WorkQueue}: {@link #fifo()} for submission order, or e.g. a
+ * {@link WeightedFairQueue} adapter for fair ordering across parents.
+ * <p>
+ * The queue is only accessed under the dispatcher's lock; owners that read it directly (e.g. for metrics)
+ * do so through {@link #readQueue}.
+ */
+@Slf4j
+public class BoundedKeyedDispatcher<T> {
+
+    public interface WorkQueue<T> {
+        /** Adds an item; an item whose key is already queued may be re-ranked but is never queued twice. */
+        void offer(T item);
+
+        /** Removes and returns the next item to start, or null if nothing is queued. */
+        T poll();
+
+        boolean contains(String key);
+
+        int size();
+    }
+
+    private final WorkQueue<T> queue;
+    private final Function<T, String> keyOf;
+    private final IntSupplier maxRunning;
+    private final String workName;
+    private final Map<String, Supplier<Mono<Void>>> tasks = new HashMap<>();
+    private final Map<String, Sinks.Empty<Void>> completions = new HashMap<>();
+    private final AtomicInteger drainWip = new AtomicInteger();
+    private int running;
+
+    /**
+     * @param maxRunning read on every start, so it may come from a property injected after construction
+     * @param workName   what the work is, used in logs
+     */
+    public BoundedKeyedDispatcher(WorkQueue<T> queue, Function<T, String> keyOf, IntSupplier maxRunning, String workName) {
+        this.queue = queue;
+        this.keyOf = keyOf;
+        this.maxRunning = maxRunning;
+        this.workName = workName;
+    }
+
+    /** A queue of keys in submission order. */
+    public static WorkQueue<String> fifo() {
+        return new WorkQueue<>() {
+            private final LinkedHashSet<String> keys = new LinkedHashSet<>();
+
+            @Override
+            public void offer(String key) {
+                keys.add(key);
+            }
+
+            @Override
+            public String poll() {
+                Iterator<String> iterator = keys.iterator();
+                if (!iterator.hasNext()) {
+                    return null;
+                }
+                String key = iterator.next();
+                iterator.remove();
+                return key;
+            }
+
+            @Override
+            public boolean contains(String key) {
+                return keys.contains(key);
+            }
+
+            @Override
+            public int size() {
+                return keys.size();
+            }
+        };
+    }
+
+    /**
+     * Queues a task, right away rather than on subscription. The returned Mono completes once the task has
+     * finished; it never errors, since failures are handled (or at least logged) by the task itself.
+     * Submitting a key that is already queued or running does not run it twice: the queue may re-rank the
+     * queued item, and the completion of the existing submission is returned.
+     */
+    public Mono<Void> submit(T item, Supplier<Mono<Void>> task) {
+        String key = keyOf.apply(item);
+        Sinks.Empty<Void> done;
+        synchronized (this) {
+            Sinks.Empty<Void> existing = completions.get(key);
+            if (existing != null) {
+                if (queue.contains(key)) {
+                    queue.offer(item);
+                }
+                log.debug("{} for {} is already queued or running", workName, key);
+                return existing.asMono();
+            }
+            done = Sinks.empty();
+            completions.put(key, done);
+            tasks.put(key, task);
+            queue.offer(item);
+        }
+        drain();
+        return done.asMono();
+    }
+
+    public synchronized int getQueuedCount() {
+        return queue.size();
+    }
+
+    public synchronized int getRunningCount() {
+        return running;
+    }
+
+    /** Runs {@code reader} under the lock that guards the queue. */
+    public synchronized <R> R readQueue(Supplier<R> reader) {
+        return reader.get();
+    }
+
+    private void drain() {
+        // Only one thread drains at a time; tasks that complete synchronously re-enter here and just
+        // bump the counter, which keeps the stack flat when many queued items are skipped quickly
+        if (drainWip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        for (;;) {
+            T item;
+            while ((item = next()) != null) {
+                start(item);
+            }
+            missed = drainWip.addAndGet(-missed);
+            if (missed == 0) {
+                break;
+            }
+        }
+    }
+
+    private synchronized T next() {
+        if (running >= maxRunning.getAsInt()) {
+            return null;
+        }
+        T item = queue.poll();
+        if (item != null) {
+            running++;
+        }
+        return item;
+    }
+
+    private void start(T item) {
+        String key = keyOf.apply(item);
+        Supplier<Mono<Void>> task;
+        synchronized (this) {
+            task = tasks.remove(key);
+        }
+
+        Mono.defer(task)
+                .doFinally(signalType -> {
+                    Sinks.Empty<Void> done;
+                    synchronized (this) {
+                        running--;
+                        done = completions.remove(key);
+                    }
+                    done.tryEmitEmpty();
+                    drain();
+                })
+                .subscribe(
+                        null,
+                        error -> log.error("Queued {} failed for {}: {}", workName, key, error.getMessage())
+                );
+    }
+}
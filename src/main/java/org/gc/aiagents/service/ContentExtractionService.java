@@ -20,6 +20,7 @@ import java.util.Map;
 public class ContentExtractionService {
     
     private final WebClient.Builder webClientBuilder;
+    private final PipelineSchedulers pipelineSchedulers;
     
     @Value("${firecrawl.url:https://api.firecrawl.dev/v0}")
     private String firecrawlUrl;
@@ -135,7 +136,7 @@ public class ContentExtractionService {
             } catch (IOException e) {
                 throw new RuntimeException("Failed to extract content from URL: " + url, e);
             }
-        });
+        }).subscribeOn(pipelineSchedulers.fetch());
     }
     
     @lombok.Data
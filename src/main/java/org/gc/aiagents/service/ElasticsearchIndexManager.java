@@ -0,0 +1,173 @@
+package org.gc.aiagents.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.Time;
+import co.elastic.clients.elasticsearch._types.mapping.TypeMapping;
+import co.elastic.clients.elasticsearch.ilm.Phase;
+import co.elastic.clients.elasticsearch.ilm.Phases;
+import co.elastic.clients.elasticsearch.ilm.PutLifecycleRequest;
+import co.elastic.clients.elasticsearch.indices.CreateIndexRequest;
+import co.elastic.clients.elasticsearch.indices.ExistsAliasRequest;
+import co.elastic.clients.elasticsearch.indices.ExistsRequest;
+import co.elastic.clients.elasticsearch.indices.IndexSettings;
+import co.elastic.clients.elasticsearch.indices.PutIndexTemplateRequest;
+import co.elastic.clients.elasticsearch.indices.PutIndicesSettingsRequest;
+import co.elastic.clients.json.JsonData;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.gc.aiagents.domain.ArticleScrapeStatus;
+import org.gc.aiagents.domain.ParentBlogSchedule;
+import org.gc.aiagents.domain.ReportBlob;
+import org.gc.aiagents.domain.es.ThreatIntelDoc;
+import org.gc.aiagents.properties.ElasticsearchIndexProperties;
+import org.gc.aiagents.properties.ReportStoreProperties;
+import org.springframework.data.elasticsearch.annotations.Document;
+import org.springframework.data.elasticsearch.core.convert.ElasticsearchConverter;
+import org.springframework.data.elasticsearch.core.index.MappingBuilder;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Map;
+
+/**
+ * Owns the pipeline's write-heavy indices, which their entities leave to it ({@code createIndex = false}).
+ * At startup it puts a composable index template per index, holding the entity's mapping and the shards,
+ * replicas and refresh interval from {@link ElasticsearchIndexProperties}, and creates the indices that do
+ * not exist yet. Existing indices get the dynamic settings (replicas, refresh interval) applied; mapping
+ * changes only take effect for indices created from the template, so older ones need a reindex.
+ * <p>
+ * {@code threat-intel} is a write alias over {@code threat-intel-000001}, {@code threat-intel-000002}, ...,
+ * rolled over by an ILM policy once the write index reaches the configured age or primary shard size.
+ * New reports are stored through the alias; a re-extracted report is written back into whichever backing
+ * index holds its earlier copy ({@code ThreatIntelRepository#replace}), so the alias never returns two copies.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ElasticsearchIndexManager {
+
+    static final String THREAT_INTEL_POLICY = "threat-intel-rollover";
+    private static final int TEMPLATE_PRIORITY = 200; // Above the built-in templates (100)
+
+    private final ElasticsearchClient elasticsearchClient;
+    private final ElasticsearchConverter elasticsearchConverter;
+    private final ElasticsearchIndexProperties properties;
+    private final ReportStoreProperties reportStoreProperties;
+
+    @PostConstruct
+    public void manageIndices() throws IOException {
+        if (!properties.isManageIndices()) {
+            log.info("Elasticsearch index management disabled, indices and templates are expected to exist");
+            return;
+        }
+        manageIndex(ArticleScrapeStatus.class, properties.getArticleStatus());
+        manageIndex(ParentBlogSchedule.class, properties.getParentSchedules());
+        if (reportStoreProperties.getType() == ReportStoreProperties.Type.ELASTICSEARCH) {
+            manageIndex(ReportBlob.class, properties.getReportBlobs());
+        }
+        manageThreatIntel();
+    }
+
+    private void manageIndex(Class<?> entity, ElasticsearchIndexProperties.Index index) throws IOException {
+        String name = indexName(entity);
+        putTemplate(name, name, entity, settings(index).build());
+        createOrUpdate(name, index, null);
+    }
+
+    private void manageThreatIntel() throws IOException {
+        String alias = indexName(ThreatIntelDoc.class);
+        ElasticsearchIndexProperties.Index index = properties.getThreatIntel();
+        ElasticsearchIndexProperties.Rollover rollover = properties.getThreatIntelRollover();
+
+        IndexSettings.Builder settings = settings(index);
+        if (rollover.isEnabled()) {
+            putRolloverPolicy(rollover);
+            settings.lifecycle(l -> l.name(THREAT_INTEL_POLICY).rolloverAlias(alias));
+        }
+        putTemplate(alias, alias + "-*", ThreatIntelDoc.class, settings.build());
+
+        if (!exists(ExistsAliasRequest.of(r -> r.name(alias))) && exists(ExistsRequest.of(r -> r.index(alias)))) {
+            // Created by an earlier version as a plain index; the alias cannot take its name until it is reindexed
+            log.warn("{} is a concrete index, not a rollover alias: reindex it into {}-000001 to enable rollover", alias, alias);
+        }
+        createOrUpdate(alias, index, alias + "-000001");
+    }
+
+    /**
+     * Creates the index, or with {@code firstBackingIndex} the first backing index behind the write alias
+     * {@code name}, unless {@code name} already resolves to an index.
+     */
+    private void createOrUpdate(String name, ElasticsearchIndexProperties.Index index, String firstBackingIndex) throws IOException {
+        if (exists(ExistsRequest.of(r -> r.index(name)))) {
+            elasticsearchClient.indices().putSettings(PutIndicesSettingsRequest.of(r -> r
+                    .index(name)
+                    .settings(s -> s
+                            .numberOfReplicas(String.valueOf(index.getReplicas()))
+                            .refreshInterval(time(index.getRefreshInterval())))));
+            log.info("Updated settings of Elasticsearch index {}: {} replicas, refresh every {}",
+                    name, index.getReplicas(), index.getRefreshInterval());
+        } else if (firstBackingIndex != null) {
+            elasticsearchClient.indices().create(CreateIndexRequest.of(r -> r
+                    .index(firstBackingIndex)
+                    .aliases(name, a -> a.isWriteIndex(true))));
+            log.info("Created Elasticsearch index {} behind write alias {}", firstBackingIndex, name);
+        } else {
+            elasticsearchClient.indices().create(CreateIndexRequest.of(r -> r.index(name)));
+            log.info("Created Elasticsearch index {}", name);
+        }
+    }
+
+    private void putTemplate(String name, String indexPattern, Class<?> entity, IndexSettings settings) throws IOException {
+        TypeMapping mapping = TypeMapping.of(m -> m.withJson(new StringReader(new MappingBuilder(elasticsearchConverter).buildPropertyMapping(entity))));
+        elasticsearchClient.indices().putIndexTemplate(PutIndexTemplateRequest.of(r -> r
+                .name(name)
+                .indexPatterns(indexPattern)
+                .priority(TEMPLATE_PRIORITY)
+                .template(t -> t.settings(settings).mappings(mapping))));
+        log.debug("Put index template {} for {}", name, indexPattern);
+    }
+
+    private void putRolloverPolicy(ElasticsearchIndexProperties.Rollover rollover) throws IOException {
+        Phases.Builder phases = new Phases.Builder()
+                .hot(Phase.of(p -> p
+                        .actions(JsonData.of(Map.of("rollover", Map.of(
+                                "max_age", rollover.getMaxAge(),
+                                "max_primary_shard_size", rollover.getMaxPrimaryShardSize()))))));
+        if (rollover.getDeleteAfter() != null && !rollover.getDeleteAfter().isBlank()) {
+            phases.delete(Phase.of(p -> p
+                    .minAge(time(rollover.getDeleteAfter()))
+                    .actions(JsonData.of(Map.of("delete", Map.of())))));
+        }
+        elasticsearchClient.ilm().putLifecycle(PutLifecycleRequest.of(r -> r
+                .name(THREAT_INTEL_POLICY)
+                .policy(p -> p.phases(phases.build()))));
+        log.info("Put ILM policy {}: rollover at {} or {} per primary shard, delete after {}", THREAT_INTEL_POLICY,
+                rollover.getMaxAge(), rollover.getMaxPrimaryShardSize(),
+                rollover.getDeleteAfter() == null || rollover.getDeleteAfter().isBlank() ? "never" : rollover.getDeleteAfter());
+    }
+
+    private boolean exists(ExistsRequest request) throws IOException {
+        return elasticsearchClient.indices().exists(request).value();
+    }
+
+    private boolean exists(ExistsAliasRequest request) throws IOException {
+        return elasticsearchClient.indices().existsAlias(request).value();
+    }
+
+    private static IndexSettings.Builder settings(ElasticsearchIndexProperties.Index index) {
+        return new IndexSettings.Builder()
+                .numberOfShards(String.valueOf(index.getShards()))
+                .numberOfReplicas(String.valueOf(index.getReplicas()))
+                .refreshInterval(time(index.getRefreshInterval()));
+    }
+
+    private static Time time(String value) {
+        return Time.of(t -> t.time(value));
+    }
+
+    private static String indexName(Class<?> entity) {
+        return entity.getAnnotation(Document.class).indexName();
+    }
+}
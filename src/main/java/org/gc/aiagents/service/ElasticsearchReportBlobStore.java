@@ -0,0 +1,35 @@
+package org.gc.aiagents.service;
+
+import lombok.RequiredArgsConstructor;
+import org.gc.aiagents.domain.ReportBlob;
+import org.gc.aiagents.repository.ReportBlobRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Keeps report bodies in the binary field of the {@code article_reports} index. Reads are real-time GETs
+ * by ID, so the index needs no frequent refresh.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "blog-manager.report-store.type", havingValue = "elasticsearch", matchIfMissing = true)
+public class ElasticsearchReportBlobStore implements ReportBlobStore {
+
+    private final ReportBlobRepository reportBlobRepository;
+
+    @Override
+    public Mono<Void> put(String key, byte[] content) {
+        return reportBlobRepository.save(new ReportBlob(key, Base64.getEncoder().encodeToString(content), Instant.now()))
+                .then();
+    }
+
+    @Override
+    public Mono<byte[]> get(String key) {
+        return reportBlobRepository.findById(key)
+                .map(blob -> Base64.getDecoder().decode(blob.getContent()));
+    }
+}
@@ -0,0 +1,65 @@
+package org.gc.aiagents.service;
+
+import org.gc.aiagents.properties.ReportStoreProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps report bodies as {@code <directory>/<first two key characters>/<key>.json.gz}, so no single
+ * directory grows to hold every article. Files are written to a temporary name and moved into place,
+ * so a reader never sees a partly written report. The blocking file I/O runs on the pipeline's
+ * Elasticsearch scheduler, the pool for the other blocking storage calls.
+ */
+@Component
+@ConditionalOnProperty(name = "blog-manager.report-store.type", havingValue = "filesystem")
+public class FileSystemReportBlobStore implements ReportBlobStore {
+
+    private static final Pattern SAFE_KEY = Pattern.compile("[A-Za-z0-9._-]+");
+
+    private final Path directory;
+    private final PipelineSchedulers pipelineSchedulers;
+
+    public FileSystemReportBlobStore(ReportStoreProperties properties, PipelineSchedulers pipelineSchedulers) {
+        this.directory = Paths.get(properties.getDirectory());
+        this.pipelineSchedulers = pipelineSchedulers;
+    }
+
+    @Override
+    public Mono<Void> put(String key, byte[] content) {
+        return Mono.<Void>fromRunnable(() -> {
+            Path file = file(key);
+            try {
+                Files.createDirectories(file.getParent());
+                Path temporary = Files.createTempFile(file.getParent(), key, ".tmp");
+                Files.write(temporary, content);
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot write report " + file, e);
+            }
+        }).subscribeOn(pipelineSchedulers.elasticsearch());
+    }
+
+    @Override
+    public Mono<byte[]> get(String key) {
+        return Mono.fromCallable(() -> {
+            Path file = file(key);
+            return Files.exists(file) ? Files.readAllBytes(file) : null;
+        }).subscribeOn(pipelineSchedulers.elasticsearch());
+    }
+
+    private Path file(String key) {
+        if (!SAFE_KEY.matcher(key).matches() || key.startsWith(".")) {
+            throw new IllegalArgumentException("Invalid report key: " + key);
+        }
+        return directory.resolve(key.substring(0, Math.min(2, key.length()))).resolve(key + ".json.gz");
+    }
+}
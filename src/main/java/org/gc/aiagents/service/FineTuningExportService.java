@@ -0,0 +1,325 @@
+package org.gc.aiagents.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.gc.aiagents.domain.ChatSample;
+import org.gc.aiagents.domain.TrainingData;
+import org.gc.aiagents.domain.ValidationData;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams training and validation samples out of Elasticsearch in chat fine-tuning format
+ * ({"messages": [...]} per line). Documents are read page by page through a point-in-time with
+ * search_after, and each page is only fetched once the previous one has been written, so exports run
+ * in constant memory however large the indices are.
+ *
+ * {@link #exportDataset} writes train.jsonl.gz and validation.jsonl.gz into the export directory. Training
+ * samples go to the validation file when their ID hashes below the validation ratio, so a sample always
+ * lands on the same side; validation data always goes to the validation file. Every
+ * {@code checkpoint-every} samples both gzip files are closed off and a checkpoint with the scroll position
+ * and file sizes is written, so an interrupted export continues from there while its point-in-time is
+ * still open, instead of starting over.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FineTuningExportService {
+
+    public static final String TRAIN_FILE = "train.jsonl.gz";
+    public static final String VALIDATION_FILE = "validation.jsonl.gz";
+    public static final String CHECKPOINT_FILE = "export-checkpoint.json";
+
+    private static final String SOURCE_TRAINING = "training";
+    private static final String SOURCE_VALIDATION = "validation";
+    private static final List<String> SOURCES = List.of(SOURCE_TRAINING, SOURCE_VALIDATION);
+    private static final Sort SHARD_DOC_ORDER = Sort.by("_shard_doc");
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ObjectMapper objectMapper;
+    private final PipelineSchedulers pipelineSchedulers;
+    private final AtomicBoolean exportRunning = new AtomicBoolean();
+
+    @Value("${blog-manager.fine-tuning.export-dir:fine-tuning-export}")
+    private String exportDir;
+
+    @Value("${blog-manager.fine-tuning.page-size:1000}")
+    private int pageSize;
+
+    @Value("${blog-manager.fine-tuning.keep-alive-minutes:30}")
+    private int keepAliveMinutes;
+
+    @Value("${blog-manager.fine-tuning.checkpoint-every:10000}")
+    private int checkpointEvery;
+
+    /**
+     * One line of a fine-tuning JSONL file.
+     */
+    public record FineTuningLine(List<?> messages) {
+    }
+
+    /**
+     * Streams every sample of one index as fine-tuning lines, e.g. as an NDJSON HTTP response.
+     */
+    public Flux<FineTuningLine> streamSamples(boolean validation) {
+        return scroll(typeOf(validation ? SOURCE_VALIDATION : SOURCE_TRAINING), null, false)
+                .map(hit -> new FineTuningLine(hit.content().getMessages()));
+    }
+
+    /**
+     * Writes the train/validation files, resuming an interrupted export with the same validation ratio,
+     * and emits where they were written and how many samples each holds. Only one export runs at a time,
+     * on the export scheduler, since it holds its thread until the last file is written; the pages it
+     * reads are still fetched on the Elasticsearch scheduler.
+     */
+    public Mono<Map<String, Object>> exportDataset(double validationRatio) {
+        return Mono.defer(() -> {
+            if (!exportRunning.compareAndSet(false, true)) {
+                return Mono.error(new IllegalStateException("A fine-tuning export is already running"));
+            }
+            return Mono.fromCallable(() -> writeDataset(Path.of(exportDir), validationRatio))
+                    .subscribeOn(pipelineSchedulers.export())
+                    // Before the result reaches the caller, who may start the next export right away
+                    .doOnTerminate(() -> exportRunning.set(false))
+                    .doOnCancel(() -> exportRunning.set(false));
+        });
+    }
+
+    private Map<String, Object> writeDataset(Path directory, double validationRatio) throws IOException {
+        Files.createDirectories(directory);
+        Path checkpointFile = directory.resolve(CHECKPOINT_FILE);
+        ExportCheckpoint checkpoint = resumableCheckpoint(checkpointFile, validationRatio);
+
+        long trainSamples = checkpoint != null ? checkpoint.trainSamples() : 0;
+        long validationSamples = checkpoint != null ? checkpoint.validationSamples() : 0;
+        int sinceCheckpoint = 0;
+
+        try (GzipLinesFile train = new GzipLinesFile(directory.resolve(TRAIN_FILE), checkpoint != null ? checkpoint.trainBytes() : 0);
+             GzipLinesFile validation = new GzipLinesFile(directory.resolve(VALIDATION_FILE), checkpoint != null ? checkpoint.validationBytes() : 0)) {
+
+            for (String source : SOURCES) {
+                if (checkpoint != null && SOURCES.indexOf(source) < SOURCES.indexOf(checkpoint.source())) {
+                    continue;
+                }
+                Cursor start = checkpoint != null && checkpoint.source().equals(source)
+                        ? new Cursor(checkpoint.pointInTimeId(), checkpoint.searchAfter())
+                        : null;
+                for (ScrolledHit<? extends ChatSample> hit : scroll(typeOf(source), start, true).toIterable(pageSize)) {
+                    byte[] line = ChatSample.JSON_LINE_WRITER.writeValueAsBytes(new FineTuningLine(hit.content().getMessages()));
+                    if (SOURCE_VALIDATION.equals(source) || isValidationSample(hit.content().getId(), validationRatio)) {
+                        validation.writeLine(line);
+                        validationSamples++;
+                    } else {
+                        train.writeLine(line);
+                        trainSamples++;
+                    }
+
+                    if (++sinceCheckpoint >= checkpointEvery) {
+                        writeCheckpoint(checkpointFile, new ExportCheckpoint(source, hit.pointInTimeId(), hit.sortValues(),
+                                train.closeMember(), validation.closeMember(), trainSamples, validationSamples, validationRatio));
+                        sinceCheckpoint = 0;
+                    }
+                }
+            }
+        }
+        Files.deleteIfExists(checkpointFile);
+
+        log.info("Fine-tuning export finished: {} training and {} validation samples in {}",
+                trainSamples, validationSamples, directory.toAbsolutePath());
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("train_file", directory.resolve(TRAIN_FILE).toAbsolutePath().toString());
+        result.put("validation_file", directory.resolve(VALIDATION_FILE).toAbsolutePath().toString());
+        result.put("train_samples", trainSamples);
+        result.put("validation_samples", validationSamples);
+        result.put("resumed", checkpoint != null);
+        return result;
+    }
+
+    /**
+     * Returns the checkpoint of an interrupted export that can be continued, or null to start over:
+     * when there is none, it was taken with another validation ratio or its point-in-time has expired.
+     */
+    private ExportCheckpoint resumableCheckpoint(Path checkpointFile, double validationRatio) throws IOException {
+        if (!Files.exists(checkpointFile)) {
+            return null;
+        }
+        ExportCheckpoint checkpoint = objectMapper.readValue(checkpointFile.toFile(), ExportCheckpoint.class);
+        if (checkpoint.validationRatio() != validationRatio) {
+            log.info("Starting the fine-tuning export over: the checkpoint used validation ratio {}", checkpoint.validationRatio());
+            return null;
+        }
+        try {
+            elasticsearchOperations.search(NativeQuery.builder()
+                    .withPointInTime(new Query.PointInTime(checkpoint.pointInTimeId(), keepAlive()))
+                    .withMaxResults(0)
+                    .build(), typeOf(checkpoint.source()));
+        } catch (RuntimeException e) {
+            log.warn("Starting the fine-tuning export over: its point-in-time has expired ({})", e.getMessage());
+            return null;
+        }
+        log.info("Resuming fine-tuning export at {} training and {} validation samples",
+                checkpoint.trainSamples(), checkpoint.validationSamples());
+        return checkpoint;
+    }
+
+    private void writeCheckpoint(Path checkpointFile, ExportCheckpoint checkpoint) throws IOException {
+        // Replace atomically, so a crash never leaves a half-written checkpoint behind
+        Path tmp = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        objectMapper.writeValue(tmp.toFile(), checkpoint);
+        Files.move(tmp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Scrolls an index in _shard_doc order through a point-in-time, starting after {@code start} or at the
+     * beginning of a new point-in-time. A page is only requested once the hits before it are consumed.
+     * The point-in-time is closed once the index has been read to the end; with {@code keepOnAbort} it is
+     * left open on an error or cancellation, so a checkpoint taken on it can still be resumed.
+     */
+    private <T extends ChatSample> Flux<ScrolledHit<T>> scroll(Class<T> type, Cursor start, boolean keepOnAbort) {
+        return Flux.usingWhen(
+                Mono.fromCallable(() -> new AtomicReference<>(start != null ? start : new Cursor(elasticsearchOperations.openPointInTime(
+                        elasticsearchOperations.getIndexCoordinatesFor(type), keepAlive()), null))),
+                position -> Flux.<List<ScrolledHit<T>>, Cursor>generate(position::get, (cursor, sink) -> {
+                    SearchHits<T> hits = elasticsearchOperations.search(pageQuery(cursor), type);
+                    String pointInTimeId = hits.getPointInTimeId() != null ? hits.getPointInTimeId() : cursor.pointInTimeId();
+                    List<ScrolledHit<T>> page = hits.getSearchHits().stream()
+                            .map(hit -> new ScrolledHit<>(hit.getContent(), pointInTimeId, hit.getSortValues()))
+                            .toList();
+                    if (page.isEmpty()) {
+                        sink.complete();
+                        return cursor;
+                    }
+                    sink.next(page);
+                    Cursor next = new Cursor(pointInTimeId, page.get(page.size() - 1).sortValues());
+                    position.set(next); // The point-in-time ID may change between pages
+                    return next;
+                }).concatMapIterable(page -> page, 1),
+                position -> closePointInTime(position.get().pointInTimeId()),
+                (position, error) -> keepOnAbort ? Mono.empty() : closePointInTime(position.get().pointInTimeId()),
+                position -> keepOnAbort ? Mono.empty() : closePointInTime(position.get().pointInTimeId()))
+                .subscribeOn(pipelineSchedulers.elasticsearch());
+    }
+
+    private NativeQuery pageQuery(Cursor cursor) {
+        return NativeQuery.builder()
+                .withPointInTime(new Query.PointInTime(cursor.pointInTimeId(), keepAlive()))
+                .withSort(SHARD_DOC_ORDER)
+                .withSearchAfter(cursor.searchAfter())
+                .withPageable(PageRequest.of(0, pageSize))
+                .withTrackTotalHits(false)
+                .build();
+    }
+
+    private Mono<Void> closePointInTime(String pointInTimeId) {
+        return Mono.<Void>fromRunnable(() -> elasticsearchOperations.closePointInTime(pointInTimeId))
+                // It expires on its own after the keep-alive
+                .onErrorResume(e -> {
+                    log.warn("Could not close point-in-time: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private Duration keepAlive() {
+        return Duration.ofMinutes(keepAliveMinutes);
+    }
+
+    private static Class<? extends ChatSample> typeOf(String source) {
+        return SOURCE_VALIDATION.equals(source) ? ValidationData.class : TrainingData.class;
+    }
+
+    /**
+     * Whether a training sample belongs to the validation split; depends only on its ID, so reruns agree.
+     */
+    static boolean isValidationSample(String id, double validationRatio) {
+        if (validationRatio <= 0 || id == null) {
+            return false;
+        }
+        // Fibonacci hashing spreads similar IDs over [0, 1)
+        double position = Integer.toUnsignedLong(id.hashCode() * 0x9E3779B9) / (double) (1L << 32);
+        return position < validationRatio;
+    }
+
+    private record Cursor(String pointInTimeId, List<Object> searchAfter) {
+    }
+
+    private record ScrolledHit<T>(T content, String pointInTimeId, List<Object> sortValues) {
+    }
+
+    record ExportCheckpoint(String source, String pointInTimeId, List<Object> searchAfter,
+                            long trainBytes, long validationBytes,
+                            long trainSamples, long validationSamples, double validationRatio) {
+    }
+
+    /**
+     * A gzip JSONL file written as a series of gzip members. {@link #closeMember()} ends the current member
+     * and returns the file size, which is a valid end of file to truncate back to when resuming.
+     */
+    private static final class GzipLinesFile implements Closeable {
+
+        private static final int BUFFER_SIZE = 64 * 1024;
+
+        private final FileChannel channel;
+        private GZIPOutputStream member;
+
+        GzipLinesFile(Path path, long resumeAt) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            channel.truncate(resumeAt);
+            channel.position(resumeAt);
+        }
+
+        void writeLine(byte[] line) throws IOException {
+            if (member == null) {
+                OutputStream file = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+                member = new GZIPOutputStream(file, BUFFER_SIZE);
+            }
+            member.write(line);
+            member.write('\n');
+        }
+
+        long closeMember() throws IOException {
+            if (member != null) {
+                member.finish();
+                member.flush();
+                member = null;
+            }
+            channel.force(false);
+            return channel.position();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                closeMember();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
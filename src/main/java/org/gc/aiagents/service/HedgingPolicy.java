@@ -0,0 +1,94 @@
+package org.gc.aiagents.service;
+
+import org.gc.aiagents.properties.AzureOpenAIProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decides when an Azure OpenAI call is hedged, i.e. duplicated to the client's alternate deployment.
+ *
+ * A call is hedged once it has run longer than the configured percentile (p95 by default) of the latest
+ * successful calls of the same task, so only the slow tail gets a duplicate. Hedges are paid for out of a
+ * budget that every call adds {@code budgetRatio} to, which caps the extra spend at that share of calls
+ * even when the deployment slows down as a whole.
+ */
+@Component
+public class HedgingPolicy {
+
+    private final AzureOpenAIProperties.Hedging properties;
+    private final Map<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+    private double budget;
+
+    public HedgingPolicy(AzureOpenAIProperties properties) {
+        this.properties = properties.getHedging();
+    }
+
+    /**
+     * Returns the client that gets the duplicate of a slow call, or null if calls to the client are not hedged.
+     */
+    public String alternateFor(String client) {
+        return properties.isEnabled() ? properties.getAlternates().get(client) : null;
+    }
+
+    /**
+     * Returns how long a call of the task may run before it is hedged, or null while there are too few
+     * samples to tell.
+     */
+    public Duration hedgeDelay(String task) {
+        LatencyWindow window = latencies.get(task);
+        return window != null ? window.percentile(properties.getPercentile(), properties.getMinSamples()) : null;
+    }
+
+    public void recordLatency(String task, Duration latency) {
+        latencies.computeIfAbsent(task, key -> new LatencyWindow(properties.getWindow())).add(latency.toNanos());
+    }
+
+    /**
+     * Adds a call's share to the hedge budget.
+     */
+    public synchronized void onCall() {
+        budget = Math.min(properties.getMaxBurst(), budget + properties.getBudgetRatio());
+    }
+
+    /**
+     * Takes one hedge from the budget, or returns false if it is spent.
+     */
+    public synchronized boolean tryAcquireHedge() {
+        if (budget < 1) {
+            return false;
+        }
+        budget -= 1;
+        return true;
+    }
+
+    private static final class LatencyWindow {
+
+        private final long[] nanos;
+        private int size;
+        private int next;
+
+        LatencyWindow(int capacity) {
+            this.nanos = new long[Math.max(1, capacity)];
+        }
+
+        synchronized void add(long latencyNanos) {
+            nanos[next] = latencyNanos;
+            next = (next + 1) % nanos.length;
+            size = Math.min(size + 1, nanos.length);
+        }
+
+        synchronized Duration percentile(double percentile, int minSamples) {
+            if (size < Math.max(1, minSamples)) {
+                return null;
+            }
+            long[] sorted = Arrays.copyOf(nanos, size);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile * size) - 1;
+            return Duration.ofNanos(sorted[Math.max(0, Math.min(index, size - 1))]);
+        }
+    }
+}
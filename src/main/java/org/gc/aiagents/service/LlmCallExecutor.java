@@ -0,0 +1,87 @@
+package org.gc.aiagents.service;
+
+import com.azure.ai.openai.models.CompletionsUsage;
+import io.micrometer.observation.Observation;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.gc.aiagents.domain.ArticleScrapeStatus;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * What every {@link LlmProvider} does around a chat completion request: an {@code llm} span covering the
+ * wait for a permit as well (so queueing on a busy client shows up in the trace), the per-client
+ * {@link AdaptiveConcurrencyLimiter} and the outcome it learns from, and token usage and cost per task.
+ * Providers only build the request and read usage and content from their response type.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LlmCallExecutor {
+
+    private final PipelineMetrics pipelineMetrics;
+    private final PipelineTracing pipelineTracing;
+    private final RetryBackoffPolicy retryBackoffPolicy;
+
+    /**
+     * One call to a client; {@code deployment} is the Azure deployment or the model of a self-hosted server.
+     */
+    public record Call(String client, String deployment, String task, boolean hedge) {
+    }
+
+    /**
+     * Sends {@code request} once the client's limiter grants a permit. Errors propagate, so callers can tell
+     * throttling (429) apart from other failures; a response without content completes empty.
+     *
+     * @param request sends the request, given the span to propagate in its headers
+     * @param usage   token usage of a response, or null if it reports none
+     * @param cost    prices a (non-null) usage with the client's token costs, in USD
+     * @param content the completion text of a response, or null
+     */
+    public <R> Mono<String> execute(Call call, AdaptiveConcurrencyLimiter limiter, Function<Observation, Mono<R>> request,
+                                    Function<R, CompletionsUsage> usage, ToDoubleFunction<CompletionsUsage> cost,
+                                    Function<R, String> content) {
+        return pipelineTracing.span("llm", Map.of("llm.client", call.client(), "llm.deployment", call.deployment(),
+                "llm.task", call.task(), "llm.hedge", String.valueOf(call.hedge())), observation -> {
+            log.debug("Acquiring permit for client '{}' (in flight: {}, limit: {})", call.client(), limiter.getInFlight(), limiter.getLimit());
+            long waitStartNanos = System.nanoTime();
+            // Waiting for a permit holds no thread, and a cancelled call (e.g. a lost hedge) gives its permit back
+            return limiter.withPermit(permit -> {
+                Duration wait = Duration.ofNanos(System.nanoTime() - waitStartNanos);
+                pipelineMetrics.recordSemaphoreWait(call.client(), wait);
+                observation.highCardinalityKeyValue("llm.permit_wait_ms", String.valueOf(wait.toMillis()));
+                return request.apply(observation)
+                        .doOnEach(signal -> {
+                            if (signal.isOnNext()) {
+                                CompletionsUsage callUsage = usage.apply(signal.get());
+                                pipelineMetrics.recordLlmUsage(call.client(), call.deployment(), call.task(), callUsage,
+                                        callUsage == null ? 0 : cost.applyAsDouble(callUsage), signal.getContextView());
+                            }
+                        })
+                        .mapNotNull(content)
+                        .doOnError(e -> log.error("Error getting chat completion from client '{}': {}", call.client(), e.getMessage()))
+                        .doOnSuccess(result -> permit.success())
+                        .doOnError(e -> releaseAfterError(permit, e))
+                        .doFinally(signalType -> log.debug("Released permit for client '{}' (signal: {})", call.client(), signalType));
+            });
+        });
+    }
+
+    /**
+     * Throttling, timeouts and server errors mean the deployment or server is overloaded and lower the
+     * limit; other errors (bad request, unparseable content) say nothing about load.
+     */
+    private void releaseAfterError(AdaptiveConcurrencyLimiter.Permit permit, Throwable error) {
+        ArticleScrapeStatus.FailureType failureType = retryBackoffPolicy.classify(error);
+        if (failureType == ArticleScrapeStatus.FailureType.THROTTLED || failureType == ArticleScrapeStatus.FailureType.SERVER_ERROR) {
+            permit.dropped();
+        } else {
+            permit.ignored();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package org.gc.aiagents.service;
+
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+
+/**
+ * A backend that serves chat completions through one or more named clients (deployments, servers).
+ * Calls are routed to a provider and client by {@link LlmRouter}.
+ */
+public interface LlmProvider {
+
+    /**
+     * Name used in {@code blog-manager.llm.routes} and in the {@code provider} argument of extractions.
+     */
+    String getName();
+
+    /**
+     * Names of the configured clients; the first one is used when a call does not name one of them.
+     */
+    Set<String> getClientNames();
+
+    /**
+     * @param task pipeline stage the call belongs to; token usage and cost are recorded per task
+     * @return the completion's content; errors propagate so callers can tell throttling (429) apart from other failures
+     */
+    Mono<String> getChatCompletionAsync(String clientName, String task, String systemPrompt, String userPrompt);
+}
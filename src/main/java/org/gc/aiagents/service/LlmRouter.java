@@ -0,0 +1,87 @@
+package org.gc.aiagents.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.gc.aiagents.properties.LlmProperties;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends each LLM call to a {@link LlmProvider} and client. In order of precedence:
+ * <ol>
+ *   <li>the route configured for the call's task in {@code blog-manager.llm.routes}, as {@code provider}
+ *       or {@code provider:client}, e.g. {@code classify: openai-compatible:local};</li>
+ *   <li>the provider the caller asked for (the {@code provider} of an extraction), if one by that name exists;</li>
+ *   <li>{@code blog-manager.llm.default-provider}.</li>
+ * </ol>
+ * The call site names the client it uses by default ({@code azure-1}, {@code azure-2}); a provider without a
+ * client of that name gets its first client.
+ */
+@Slf4j
+@Service
+public class LlmRouter {
+
+    private final Map<String, LlmProvider> providers = new LinkedHashMap<>();
+    private final LlmProperties properties;
+
+    public LlmRouter(List<LlmProvider> providers, LlmProperties properties) {
+        this.properties = properties;
+        providers.forEach(provider -> this.providers.put(provider.getName(), provider));
+        properties.getRoutes().forEach((task, route) -> {
+            Target target = parse(route, null);
+            if (target == null) {
+                log.warn("Route for task '{}' names unknown provider '{}'; calls fall back to the default provider", task, route);
+            } else {
+                log.info("Routing {} calls to {} client '{}'", task, target.provider().getName(), target.client());
+            }
+        });
+    }
+
+    public Mono<String> getChatCompletionAsync(String provider, String defaultClient, String task, String systemPrompt, String userPrompt) {
+        Target target;
+        try {
+            target = resolve(provider, defaultClient, task);
+        } catch (IllegalStateException e) {
+            return Mono.error(e);
+        }
+        return target.provider().getChatCompletionAsync(target.client(), task, systemPrompt, userPrompt);
+    }
+
+    private Target resolve(String provider, String defaultClient, String task) {
+        String route = properties.getRoutes().get(task);
+        Target target = route != null ? parse(route, defaultClient) : null;
+        if (target == null && provider != null) {
+            target = parse(provider, defaultClient);
+        }
+        if (target == null) {
+            target = parse(properties.getDefaultProvider(), defaultClient);
+        }
+        if (target == null) {
+            throw new IllegalStateException("No LLM provider named '" + properties.getDefaultProvider() + "'");
+        }
+        return target;
+    }
+
+    /**
+     * Parses {@code provider} or {@code provider:client}; null if there is no such provider.
+     */
+    private Target parse(String route, String defaultClient) {
+        int separator = route.indexOf(':');
+        String providerName = (separator < 0 ? route : route.substring(0, separator)).trim();
+        LlmProvider provider = providers.get(providerName);
+        if (provider == null) {
+            return null;
+        }
+        String client = separator < 0 ? defaultClient : route.substring(separator + 1).trim();
+        if (client == null || !provider.getClientNames().contains(client)) {
+            client = provider.getClientNames().stream().findFirst().orElse(client);
+        }
+        return new Target(provider, client);
+    }
+
+    private record Target(LlmProvider provider, String client) {
+    }
+}
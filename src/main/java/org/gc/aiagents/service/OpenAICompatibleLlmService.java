@@ -0,0 +1,135 @@
+package org.gc.aiagents.service;
+
+import com.azure.ai.openai.models.CompletionsUsage;
+import com.azure.json.JsonProviders;
+import com.azure.json.JsonReader;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.extern.slf4j.Slf4j;
+import org.gc.aiagents.properties.LlmProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Chat completions from servers speaking the OpenAI chat completions API, such as vLLM, llama.cpp or
+ * Ollama on our own hardware, configured under {@code blog-manager.llm.openai-compatible}. Each server is
+ * a client with a fixed concurrency limit, since a self-hosted server has a known number of slots.
+ */
+@Slf4j
+@Service
+public class OpenAICompatibleLlmService implements LlmProvider {
+
+    public static final String NAME = "openai-compatible";
+
+    private final Map<String, WebClient> webClients = new LinkedHashMap<>();
+    private final Map<String, AdaptiveConcurrencyLimiter> clientLimiters = new LinkedHashMap<>();
+    private final Map<String, LlmProperties.OpenAICompatibleClient> clientProperties = new LinkedHashMap<>();
+    private final PipelineMetrics pipelineMetrics;
+    private final PipelineTracing pipelineTracing;
+    private final LlmCallExecutor llmCallExecutor;
+
+    public OpenAICompatibleLlmService(WebClient.Builder webClientBuilder, LlmProperties properties, PipelineMetrics pipelineMetrics,
+                                      PipelineTracing pipelineTracing, LlmCallExecutor llmCallExecutor) {
+        this.pipelineMetrics = pipelineMetrics;
+        this.pipelineTracing = pipelineTracing;
+        this.llmCallExecutor = llmCallExecutor;
+        properties.getOpenaiCompatible().forEach((name, clientProps) -> {
+            if (clientProps.getBaseUrl() == null || clientProps.getModel() == null) {
+                log.warn("OpenAI-compatible client '{}' needs a base-url and a model, skipping it", name);
+                return;
+            }
+            WebClient.Builder builder = webClientBuilder.clone()
+                    .baseUrl(clientProps.getBaseUrl())
+                    .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(16 * 1024 * 1024));
+            if (clientProps.getApiKey() != null && !clientProps.getApiKey().isBlank()) {
+                builder.defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + clientProps.getApiKey());
+            }
+            webClients.put(name, builder.build());
+
+            AdaptiveConcurrencyLimiter limiter = AdaptiveConcurrencyLimiter.fixed(clientProps.getMaxConcurrentRequests());
+            clientLimiters.put(name, limiter);
+            clientProperties.put(name, clientProps);
+            pipelineMetrics.registerClientConcurrency(name, clientProps.getModel(), limiter);
+
+            log.info("Initialized OpenAI-compatible client '{}' with base URL: {} (model: {}, concurrency limit: {})",
+                    name, clientProps.getBaseUrl(), clientProps.getModel(), limiter.getLimit());
+        });
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Set<String> getClientNames() {
+        return Collections.unmodifiableSet(webClients.keySet());
+    }
+
+    @Override
+    public Mono<String> getChatCompletionAsync(String clientName, String task, String systemPrompt, String userPrompt) {
+        WebClient webClient = webClients.get(clientName);
+        AdaptiveConcurrencyLimiter limiter = clientLimiters.get(clientName);
+        LlmProperties.OpenAICompatibleClient clientProps = clientProperties.get(clientName);
+
+        if (webClient == null || limiter == null) {
+            log.error("No OpenAI-compatible client found for '{}'", clientName);
+            return Mono.error(new IllegalArgumentException("Invalid client name: " + clientName));
+        }
+
+        Map<String, Object> request = new LinkedHashMap<>();
+        request.put("model", clientProps.getModel());
+        request.put("messages", List.of(
+                Map.of("role", "system", "content", systemPrompt),
+                Map.of("role", "user", "content", userPrompt)));
+        request.put("max_tokens", clientProps.getMaxTokens());
+        request.put("temperature", clientProps.getTemperature());
+        request.put("top_p", clientProps.getTopP());
+
+        return llmCallExecutor.execute(new LlmCallExecutor.Call(clientName, clientProps.getModel(), task, false), limiter,
+                observation -> webClient.post()
+                        .uri("/chat/completions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .headers(headers -> pipelineTracing.traceHeaders(observation).forEach(headers::set))
+                        .bodyValue(request)
+                        .retrieve()
+                        .bodyToMono(JsonNode.class)
+                        .timeout(clientProps.getTimeout()),
+                response -> usage(response.path("usage")),
+                usage -> costUsd(clientProps, usage),
+                response -> {
+                    JsonNode content = response.path("choices").path(0).path("message").path("content");
+                    return content.isTextual() ? content.asText() : null;
+                });
+    }
+
+    /**
+     * The usage block has the same shape as Azure's, so it is read into the SDK type the metrics take.
+     * Servers that leave it out record no usage.
+     */
+    private static CompletionsUsage usage(JsonNode usageNode) {
+        if (!usageNode.isObject()) {
+            return null;
+        }
+        try (JsonReader reader = JsonProviders.createReader(usageNode.toString())) {
+            return CompletionsUsage.fromJson(reader);
+        } catch (IOException | RuntimeException e) {
+            log.debug("Ignoring unreadable usage block {}: {}", usageNode, e.getMessage());
+            return null;
+        }
+    }
+
+    private static double costUsd(LlmProperties.OpenAICompatibleClient clientProps, CompletionsUsage usage) {
+        return (usage.getPromptTokens() * clientProps.getPromptCostPerMillionTokens()
+                + usage.getCompletionTokens() * clientProps.getCompletionCostPerMillionTokens()) / 1_000_000;
+    }
+}
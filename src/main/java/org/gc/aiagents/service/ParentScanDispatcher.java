@@ -0,0 +1,57 @@
+package org.gc.aiagents.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Single entry point for parent blog scans, scheduled or manually triggered. Scans are started in
+ * submission order and only while fewer than {@code blog-manager.scan.max-concurrent} are running, so
+ * a burst of due parents (e.g. after a deploy or an outage) does not start every crawl and LLM
+ * classification call at once.
+ */
+@Slf4j
+@Service
+public class ParentScanDispatcher {
+
+    @Value("${blog-manager.scan.max-concurrent:2}")
+    private int maxConcurrentScans;
+
+    private final BoundedKeyedDispatcher<String> dispatcher =
+            new BoundedKeyedDispatcher<>(BoundedKeyedDispatcher.fifo(), Function.identity(), () -> maxConcurrentScans, "scan");
+
+    public ParentScanDispatcher(MeterRegistry meterRegistry) {
+        Gauge.builder("blog.manager.scans.queued", this, ParentScanDispatcher::getQueuedCount)
+                .description("Parent blog scans waiting to start")
+                .register(meterRegistry);
+        Gauge.builder("blog.manager.scans.running", this, ParentScanDispatcher::getRunningCount)
+                .description("Parent blog scans currently running")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues a scan for a parent blog. The returned Mono completes once the scan has finished; it never
+     * errors, since scan failures are logged and recorded by the scan itself. Submitting a parent that is
+     * already queued or being scanned returns the completion of the existing submission.
+     */
+    public Mono<Void> submit(String parentUid, Supplier<Mono<Void>> scan) {
+        return dispatcher.submit(parentUid, () -> {
+            log.debug("Starting scan for parent UID {}", parentUid);
+            return scan.get();
+        });
+    }
+
+    public int getQueuedCount() {
+        return dispatcher.getQueuedCount();
+    }
+
+    public int getRunningCount() {
+        return dispatcher.getRunningCount();
+    }
+}
@@ -0,0 +1,233 @@
+package org.gc.aiagents.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.gc.aiagents.domain.PipelineJob;
+import org.gc.aiagents.repository.PipelineJobRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Runs on-demand extractions, parent scans and fine-tuning exports as persisted jobs. Submitting saves the job and returns
+ * it at once; the work then runs on the shared bounded pipeline: extractions through the
+ * {@link ArticleWorkScheduler} under the {@link #ON_DEMAND_QUEUE} parent key (weighted like any parent
+ * blog via {@code blog-manager.work-queue.parent-weights}), scans through the {@link ParentScanDispatcher},
+ * and exports straight away on their own thread, since they do not touch the crawl or LLM pipeline.
+ * Clients poll the job or subscribe to its updates until it finishes.
+ *
+ * Jobs left QUEUED or RUNNING by a stop are queued again when the application starts, up to
+ * {@code blog-manager.jobs.max-attempts} runs, and finished jobs are deleted after the retention period.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PipelineJobService {
+
+    public static final String ON_DEMAND_QUEUE = "on-demand";
+
+    private static final EnumSet<PipelineJob.JobStatus> UNFINISHED =
+            EnumSet.of(PipelineJob.JobStatus.QUEUED, PipelineJob.JobStatus.RUNNING);
+
+    private final PipelineJobRepository jobRepository;
+    private final PythonApiService pythonApiService;
+    private final BlogManagerService blogManagerService;
+    private final ArticleWorkScheduler articleWorkScheduler;
+    private final ParentScanDispatcher parentScanDispatcher;
+    private final FineTuningExportService fineTuningExportService;
+    private final PipelineSchedulers pipelineSchedulers;
+
+    // Updates of jobs running on this instance; subscribers also poll, so a missed update only arrives later
+    private final Sinks.Many<PipelineJob> updates = Sinks.many().multicast().directBestEffort();
+
+    @Value("${blog-manager.jobs.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${blog-manager.jobs.retention-days:7}")
+    private int retentionDays;
+
+    @Value("${blog-manager.jobs.events-poll-seconds:5}")
+    private int eventsPollSeconds;
+
+    public Mono<PipelineJob> submitExtraction(String articleUrl, String provider) {
+        log.info("Submitting extraction job for: {} using provider: {}", articleUrl, provider);
+        return save(PipelineJob.extract(articleUrl, provider))
+                .map(this::enqueue);
+    }
+
+    public Mono<PipelineJob> submitScan(String parentUid, String parentUrl) {
+        log.info("Submitting scan job for: {} (UID: {})", parentUrl, parentUid);
+        return save(PipelineJob.scan(parentUid, parentUrl))
+                .map(this::enqueue);
+    }
+
+    public Mono<PipelineJob> submitExport(double validationRatio) {
+        log.info("Submitting fine-tuning export job with validation ratio {}", validationRatio);
+        return save(PipelineJob.export(validationRatio))
+                .map(this::enqueue);
+    }
+
+    public Mono<PipelineJob> getJob(String jobId) {
+        return Mono.fromCallable(() -> jobRepository.findById(jobId))
+                .subscribeOn(pipelineSchedulers.elasticsearch())
+                .flatMap(Mono::justOrEmpty);
+    }
+
+    /**
+     * Emits the job's current state and then every change to it, completing once it has finished.
+     * Changes made on this instance arrive at once, others with the next poll. Empty if the job does not exist.
+     */
+    public Flux<PipelineJob> jobUpdates(String jobId) {
+        return getJob(jobId).flatMapMany(current -> {
+            AtomicReference<Instant> lastUpdate = new AtomicReference<>(current.getUpdatedAtUtc());
+            Flux<PipelineJob> local = updates.asFlux()
+                    .filter(job -> job.getId().equals(jobId));
+            Flux<PipelineJob> polled = Flux.interval(Duration.ofSeconds(eventsPollSeconds))
+                    .concatMap(tick -> getJob(jobId));
+
+            Flux<PipelineJob> changes = current.getStatus().isFinished()
+                    ? Flux.empty()
+                    : Flux.merge(local, polled)
+                            // Local updates and polls interleave; only pass on states newer than the last one sent
+                            .filter(job -> lastUpdate.getAndAccumulate(job.getUpdatedAtUtc(),
+                                    (last, next) -> next.isAfter(last) ? next : last).isBefore(job.getUpdatedAtUtc()))
+                            .takeUntil(job -> job.getStatus().isFinished());
+            return Flux.just(current).concatWith(changes);
+        });
+    }
+
+    /**
+     * Queues jobs that were left QUEUED or RUNNING when the application stopped. A RUNNING job starts
+     * over, since its progress was not persisted; one that has used up its attempts is failed instead.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinishedJobs() {
+        Mono.fromCallable(() -> jobRepository.findByStatusIn(UNFINISHED))
+                .flatMapMany(Flux::fromIterable)
+                .concatMap(job -> {
+                    if (job.getAttempts() != null && job.getAttempts() >= maxAttempts) {
+                        log.warn("Job {} was interrupted {} times, failing it", job.getId(), job.getAttempts());
+                        return finish(job, PipelineJob.JobStatus.FAILED, null,
+                                "Interrupted by a restart " + job.getAttempts() + " times").thenReturn(job);
+                    }
+                    job.setStatus(PipelineJob.JobStatus.QUEUED);
+                    job.setUpdatedAtUtc(Instant.now());
+                    return save(job).map(this::enqueue);
+                })
+                .count()
+                .subscribeOn(pipelineSchedulers.elasticsearch())
+                .subscribe(
+                        count -> log.info("Found {} unfinished jobs after startup", count),
+                        error -> log.error("Error resuming unfinished jobs: {}", error.getMessage())
+                );
+    }
+
+    /**
+     * Deletes jobs that finished more than the retention period ago and emits how many were deleted
+     */
+    public Mono<Long> purgeFinishedJobs() {
+        Instant finishedBefore = Instant.now().minus(retentionDays, ChronoUnit.DAYS);
+
+        return Mono.fromCallable(() -> {
+                    List<PipelineJob> expired = jobRepository.findByFinishedAtUtcLessThan(finishedBefore);
+                    jobRepository.deleteAll(expired);
+                    return (long) expired.size();
+                })
+                .subscribeOn(pipelineSchedulers.elasticsearch())
+                .doOnSuccess(count -> log.info("Deleted {} jobs finished before {}", count, finishedBefore))
+                .doOnError(error -> log.error("Error purging finished jobs: {}", error.getMessage()));
+    }
+
+    /**
+     * Queues the job and returns a snapshot of it as submitted; the job itself changes as it runs.
+     */
+    private PipelineJob enqueue(PipelineJob job) {
+        PipelineJob submitted = job.toBuilder().build();
+        AtomicBoolean started = new AtomicBoolean();
+        Supplier<Mono<Void>> run = () -> {
+            started.set(true);
+            return run(job);
+        };
+
+        Mono<Void> done = switch (job.getJobType()) {
+            case EXTRACT -> articleWorkScheduler.submit("job:" + job.getId(), ON_DEMAND_QUEUE, WeightedFairQueue.Priority.FRESH, run);
+            case SCAN -> parentScanDispatcher.submit(job.getParentUid(), run);
+            case EXPORT -> Mono.defer(run);
+        };
+
+        done.then(Mono.defer(() -> {
+                    if (started.get()) {
+                        return Mono.empty();
+                    }
+                    // The dispatcher joined this job to a scan of the same parent that was already queued or running
+                    log.info("Scan job {} finished with an earlier scan of parent {}", job.getId(), job.getParentUid());
+                    return finish(job, PipelineJob.JobStatus.SUCCEEDED, null, null);
+                }))
+                .subscribe(
+                        null,
+                        error -> log.error("Error finishing job {}: {}", job.getId(), error.getMessage())
+                );
+        return submitted;
+    }
+
+    private Mono<Void> run(PipelineJob job) {
+        Instant now = Instant.now();
+        job.setStatus(PipelineJob.JobStatus.RUNNING);
+        job.setAttempts(job.getAttempts() == null ? 1 : job.getAttempts() + 1);
+        job.setStartedAtUtc(now);
+        job.setUpdatedAtUtc(now);
+
+        Mono<Map<String, Object>> work = switch (job.getJobType()) {
+            case EXTRACT -> pythonApiService.extractBlogContent(job.getArticleUrl(), job.getProvider());
+            case SCAN -> blogManagerService.scanParentBlogUrl(job.getParentUid(), job.getParentUrl()).then(Mono.empty());
+            case EXPORT -> fineTuningExportService.exportDataset(job.getValidationRatio() != null ? job.getValidationRatio() : 0.0);
+        };
+
+        return save(job)
+                .then(work.map(Optional::of).defaultIfEmpty(Optional.empty()))
+                .flatMap(result -> finish(job, PipelineJob.JobStatus.SUCCEEDED, result.orElse(null), null))
+                .onErrorResume(error -> {
+                    log.error("Job {} failed: {}", job.getId(), error.getMessage());
+                    return finish(job, PipelineJob.JobStatus.FAILED, null, String.valueOf(error.getMessage()));
+                });
+    }
+
+    private Mono<Void> finish(PipelineJob job, PipelineJob.JobStatus status, Map<String, Object> result, String errorMessage) {
+        Instant now = Instant.now();
+        job.setStatus(status);
+        job.setResult(result);
+        job.setErrorMessage(errorMessage);
+        job.setFinishedAtUtc(now);
+        job.setUpdatedAtUtc(now);
+        return save(job)
+                .doOnNext(saved -> log.info("Job {} {}", saved.getId(), status))
+                .then();
+    }
+
+    private Mono<PipelineJob> save(PipelineJob job) {
+        return Mono.fromCallable(() -> jobRepository.save(job))
+                .subscribeOn(pipelineSchedulers.elasticsearch())
+                .doOnNext(saved -> {
+                    // Subscribers get a snapshot, the job itself keeps changing while it runs
+                    PipelineJob snapshot = saved.toBuilder().build();
+                    synchronized (updates) {
+                        updates.tryEmitNext(snapshot);
+                    }
+                });
+    }
+}
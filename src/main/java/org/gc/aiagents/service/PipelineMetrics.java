@@ -0,0 +1,227 @@
+package org.gc.aiagents.service;
+
+import com.azure.ai.openai.models.CompletionsUsage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.gc.aiagents.domain.ArticleScrapeStatus;
+import org.gc.aiagents.repository.ArticleScrapeStatusRepository;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer meters for the blog ingestion pipeline, exposed through Actuator (/actuator/prometheus).
+ *
+ * blog.manager.stage            - latency per pipeline stage (crawl, classify, preprocess, the three
+ *                                 extraction calls, store), tagged with outcome
+ * blog.manager.llm.semaphore.wait, blog.manager.llm.in_flight, blog.manager.llm.waiting,
+ * blog.manager.llm.concurrency.limit
+ *                               - per Azure OpenAI client concurrency and its (adaptive) limit
+ * blog.manager.llm.tokens       - prompt and completion tokens reported by ChatCompletions usage, per
+ *                                 client, deployment and task
+ * blog.manager.llm.cost         - the same usage priced with the client's configured token costs (USD)
+ * blog.manager.llm.hedges       - hedged (duplicated) slow LLM calls per task and outcome
+ * blog.manager.articles         - articles per scrape status, refreshed from Elasticsearch
+ *
+ * Queue depth is published by ArticleWorkScheduler and ParentScanDispatcher, and the due backlog of
+ * each scheduled job by ScheduledRunCoordinator. Every timed stage is also traced as a span through
+ * {@link PipelineTracing}.
+ */
+@Slf4j
+@Component
+public class PipelineMetrics {
+
+    public static final String STAGE_CRAWL = "crawl";
+    public static final String STAGE_CLASSIFY = "classify";
+    public static final String STAGE_PREPROCESS = "preprocess";
+    public static final String STAGE_EXTRACT_INDICATORS = "extract_indicators";
+    public static final String STAGE_EXTRACT_TECHNIQUES = "extract_techniques";
+    public static final String STAGE_EXTRACT_DFIR = "extract_dfir";
+    public static final String STAGE_STORE = "store";
+
+    private final MeterRegistry meterRegistry;
+    private final PipelineTracing pipelineTracing;
+    private final ArticleScrapeStatusRepository articleRepository;
+    private final Map<ArticleScrapeStatus.ScrapeStatus, AtomicLong> articlesByStatus = new EnumMap<>(ArticleScrapeStatus.ScrapeStatus.class);
+
+    public PipelineMetrics(MeterRegistry meterRegistry, PipelineTracing pipelineTracing, ArticleScrapeStatusRepository articleRepository) {
+        this.meterRegistry = meterRegistry;
+        this.pipelineTracing = pipelineTracing;
+        this.articleRepository = articleRepository;
+        for (ArticleScrapeStatus.ScrapeStatus status : ArticleScrapeStatus.ScrapeStatus.values()) {
+            AtomicLong count = new AtomicLong();
+            articlesByStatus.put(status, count);
+            Gauge.builder("blog.manager.articles", count, AtomicLong::get)
+                    .description("Articles per scrape status, as of the last refresh")
+                    .tag("status", status.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Times a stage from subscription until it completes or errors. Each resubscription (e.g. a retry)
+     * is recorded as a separate sample, and added to the article's {@link ArticleProcessingStats} if
+     * the subscriber's context carries one.
+     */
+    public <T> Mono<T> timeStage(String stage, Mono<T> mono) {
+        return pipelineTracing.span(stage, Map.of(), Mono.deferContextual(context -> {
+            ArticleProcessingStats articleStats = ArticleProcessingStats.from(context);
+            long startNanos = System.nanoTime();
+            return mono
+                    .doOnSuccess(value -> recordStageSample(stage, "success", System.nanoTime() - startNanos, articleStats))
+                    .doOnError(error -> recordStageSample(stage, "error", System.nanoTime() - startNanos, articleStats));
+        }));
+    }
+
+    /**
+     * Times a blocking stage.
+     */
+    public <T> T recordStage(String stage, Supplier<T> call) {
+        long startNanos = System.nanoTime();
+        String outcome = "error";
+        try {
+            T result = pipelineTracing.observe(stage, Map.of(), call);
+            outcome = "success";
+            return result;
+        } finally {
+            stageTimer(stage, outcome).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Registers the limit, in-flight and waiting gauges for an Azure OpenAI client's concurrency limiter.
+     */
+    public void registerClientConcurrency(String client, String deployment, AdaptiveConcurrencyLimiter limiter) {
+        Gauge.builder("blog.manager.llm.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current concurrency limit of an Azure OpenAI client")
+                .tags("client", client, "deployment", deployment)
+                .register(meterRegistry);
+        Gauge.builder("blog.manager.llm.in_flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("LLM requests currently holding a client permit")
+                .tag("client", client)
+                .register(meterRegistry);
+        Gauge.builder("blog.manager.llm.waiting", limiter, AdaptiveConcurrencyLimiter::getWaiting)
+                .description("LLM requests waiting for a client permit")
+                .tag("client", client)
+                .register(meterRegistry);
+    }
+
+    public void recordSemaphoreWait(String client, Duration wait) {
+        Timer.builder("blog.manager.llm.semaphore.wait")
+                .description("Time spent waiting for an Azure OpenAI client permit")
+                .tag("client", client)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(wait);
+    }
+
+    /**
+     * Records the tokens and cost of one LLM call, per client, deployment and task (the pipeline stage
+     * the call belongs to).
+     */
+    public void recordLlmUsage(String client, String deployment, String task, CompletionsUsage usage, double costUsd) {
+        if (usage == null) {
+            return;
+        }
+        tokenCounter(client, deployment, task, "prompt").increment(usage.getPromptTokens());
+        tokenCounter(client, deployment, task, "completion").increment(usage.getCompletionTokens());
+        Counter.builder("blog.manager.llm.cost")
+                .description("Cost of Azure OpenAI chat completions, from the configured token prices")
+                .baseUnit("usd")
+                .tags("client", client, "deployment", deployment, "task", task)
+                .register(meterRegistry)
+                .increment(costUsd);
+    }
+
+    /**
+     * Same as {@link #recordLlmUsage(String, String, String, CompletionsUsage, double)}, also adding the
+     * usage to the article's {@link ArticleProcessingStats} if the context carries one.
+     */
+    public void recordLlmUsage(String client, String deployment, String task, CompletionsUsage usage, double costUsd,
+                               ContextView context) {
+        recordLlmUsage(client, deployment, task, usage, costUsd);
+        ArticleProcessingStats articleStats = ArticleProcessingStats.from(context);
+        if (articleStats != null) {
+            articleStats.addUsage(task, usage, costUsd);
+        }
+    }
+
+    /**
+     * Counts a candidate URL by who classified it (local or llm) and the verdict (article or not_article).
+     */
+    public void recordUrlClassification(String source, String verdict) {
+        Counter.builder("blog.manager.urls.classified")
+                .description("Candidate URLs classified as article or not, locally or by the LLM")
+                .tags("source", source, "verdict", verdict)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Counts a successful LLM call offered to the training-data harvester, by what became of it
+     * (stored, duplicate, sampled_out, too_large, dropped or capped).
+     */
+    public void recordTrainingSample(String task, String outcome) {
+        Counter.builder("blog.manager.training.samples")
+                .description("Successful LLM calls offered as fine-tuning samples")
+                .tags("task", task, "outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Counts a hedge decision for a slow LLM call: sent, won (the duplicate answered first) or
+     * budget_exhausted.
+     */
+    public void recordHedge(String task, String outcome) {
+        Counter.builder("blog.manager.llm.hedges")
+                .description("Duplicate LLM calls sent to an alternate deployment for slow calls")
+                .tags("task", task, "outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Refreshes the per-status article gauges and emits the number of statuses counted. Counting runs
+     * against Elasticsearch, so BlogManagerScheduler runs it on a fixed delay through the
+     * ScheduledRunCoordinator rather than on every scrape.
+     */
+    public Mono<Long> refreshArticleStatusCounts() {
+        return Flux.fromIterable(articlesByStatus.entrySet())
+                .flatMap(entry -> articleRepository.countByScrapeStatus(entry.getKey()).doOnNext(entry.getValue()::set))
+                .count();
+    }
+
+    private void recordStageSample(String stage, String outcome, long nanos, ArticleProcessingStats articleStats) {
+        stageTimer(stage, outcome).record(nanos, TimeUnit.NANOSECONDS);
+        if (articleStats != null) {
+            articleStats.addStage(stage, nanos);
+        }
+    }
+
+    private Timer stageTimer(String stage, String outcome) {
+        return Timer.builder("blog.manager.stage")
+                .description("Latency of a blog ingestion pipeline stage")
+                .tags("stage", stage, "outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private Counter tokenCounter(String client, String deployment, String task, String type) {
+        return Counter.builder("blog.manager.llm.tokens")
+                .description("Tokens reported by Azure OpenAI chat completions")
+                .tags("client", client, "deployment", deployment, "task", task, "type", type)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,153 @@
+package org.gc.aiagents.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.gc.aiagents.properties.PipelineSchedulerProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.NonBlocking;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The pipeline's thread pools, one per kind of work, so that blocking calls never run on a Netty event
+ * loop and one kind of work cannot starve another:
+ * <ul>
+ *   <li>{@link #elasticsearch()} for the blocking Spring Data Elasticsearch repositories and operations, and the
+ *       file system report store;</li>
+ *   <li>{@link #fetch()} for fetching and parsing HTML with Jsoup;</li>
+ *   <li>{@link #compute()} for CPU-heavy post-processing of extraction results. Its threads are marked
+ *       {@link NonBlocking}, like Reactor's parallel scheduler, so blocking calls made there are reported.</li>
+ *   <li>{@link #export()} for fine-tuning exports, which hold a thread for as long as they run and would
+ *       otherwise take it from the Elasticsearch calls of the pipeline;</li>
+ *   <li>{@link #trainingData()} for writing harvested training samples, off the shared {@code @Scheduled}
+ *       thread.</li>
+ * </ul>
+ * Each pool is a fixed number of threads with a bounded queue; work beyond the queue is rejected and
+ * fails the pipeline step instead of piling up. The pools are published as Micrometer executor metrics
+ * ({@code executor.active}, {@code executor.queued}, {@code executor.queue.remaining}, {@code executor.idle}
+ * for the queueing delay, ...) tagged {@code name=es|fetch|compute|export|training}.
+ * <p>
+ * With {@code spring.threads.virtual.enabled=true} on Java 21 or later, the Elasticsearch and fetch work
+ * runs on a new virtual thread per task instead, so thousands of crawls and Elasticsearch calls waiting on I/O
+ * cost little memory; their limits are then the ones of the scan dispatcher, the work queue and the
+ * Elasticsearch client's connection pool. Compute work stays on platform threads, where it gains nothing
+ * from being virtual, and so do exports and training data writes, which are meant to run one at a time. The same property moves
+ * {@code @Async} and {@code @Scheduled} onto virtual threads.
+ */
+@Slf4j
+@Component
+public class PipelineSchedulers {
+
+    private final Scheduler elasticsearch;
+    private final Scheduler fetch;
+    private final Scheduler compute;
+    private final Scheduler export;
+    private final Scheduler trainingData;
+
+    @Autowired
+    public PipelineSchedulers(PipelineSchedulerProperties properties, MeterRegistry meterRegistry, Environment environment) {
+        this(properties, meterRegistry, virtualThreads(environment));
+    }
+
+    public PipelineSchedulers(PipelineSchedulerProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, false);
+    }
+
+    private PipelineSchedulers(PipelineSchedulerProperties properties, MeterRegistry meterRegistry, boolean virtualThreads) {
+        this.elasticsearch = virtualThreads
+                ? createVirtual("es", meterRegistry)
+                : create("es", properties.getElasticsearch(), false, meterRegistry);
+        this.fetch = virtualThreads
+                ? createVirtual("fetch", meterRegistry)
+                : create("fetch", properties.getFetch(), false, meterRegistry);
+        this.compute = create("compute", properties.getCompute(), true, meterRegistry);
+        this.export = create("export", properties.getExport(), false, meterRegistry);
+        this.trainingData = create("training", properties.getTrainingData(), false, meterRegistry);
+    }
+
+    public Scheduler elasticsearch() {
+        return elasticsearch;
+    }
+
+    public Scheduler fetch() {
+        return fetch;
+    }
+
+    public Scheduler compute() {
+        return compute;
+    }
+
+    public Scheduler export() {
+        return export;
+    }
+
+    public Scheduler trainingData() {
+        return trainingData;
+    }
+
+    @PreDestroy
+    public void dispose() {
+        List.of(elasticsearch, fetch, compute, export, trainingData).forEach(Scheduler::dispose);
+    }
+
+    private static Scheduler create(String name, PipelineSchedulerProperties.Pool pool, boolean nonBlocking, MeterRegistry meterRegistry) {
+        int threads = pool.getThreads() > 0 ? pool.getThreads() : Runtime.getRuntime().availableProcessors();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(Math.max(1, pool.getQueueCapacity())), threadFactory(name, nonBlocking));
+        executor.allowCoreThreadTimeOut(true);
+        log.info("Created {} scheduler with {} threads and a queue of {}", name, threads, pool.getQueueCapacity());
+        return Schedulers.fromExecutorService(ExecutorServiceMetrics.monitor(meterRegistry, executor, name), name);
+    }
+
+    /**
+     * A thread per task: no pool and no queue, since a virtual thread blocked on I/O holds no carrier thread.
+     */
+    private static Scheduler createVirtual(String name, MeterRegistry meterRegistry) {
+        ThreadFactory threadFactory = new VirtualThreadTaskExecutor(name + "-").getVirtualThreadFactory();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 0, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), threadFactory);
+        log.info("Created {} scheduler on virtual threads", name);
+        return Schedulers.fromExecutorService(ExecutorServiceMetrics.monitor(meterRegistry, executor, name), name);
+    }
+
+    private static boolean virtualThreads(Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return true;
+        }
+        if (environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)) {
+            log.warn("spring.threads.virtual.enabled is set but Java {} has no virtual threads, using platform threads",
+                    Runtime.version().feature());
+        }
+        return false;
+    }
+
+    private static ThreadFactory threadFactory(String name, boolean nonBlocking) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            String threadName = name + "-" + counter.incrementAndGet();
+            Thread thread = nonBlocking ? new NonBlockingThread(runnable, threadName) : new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class NonBlockingThread extends Thread implements NonBlocking {
+        NonBlockingThread(Runnable runnable, String name) {
+            super(runnable, name);
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package org.gc.aiagents.service;
+
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.Time;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.aggregations.CalendarInterval;
+import co.elastic.clients.elasticsearch._types.aggregations.DateHistogramBucket;
+import co.elastic.clients.elasticsearch._types.aggregations.FieldDateMath;
+import co.elastic.clients.elasticsearch._types.aggregations.FilterAggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.StringTermsBucket;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.json.JsonData;
+import lombok.RequiredArgsConstructor;
+import org.gc.aiagents.domain.ArticleScrapeStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregation;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregations;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Backlog and throughput figures for the ingestion pipeline, computed by Elasticsearch in a single
+ * size-0 search over article_scrape_status, so the cost does not grow with the number of articles
+ * returned to the JVM:
+ * - articles per scrape status, overall and per parent blog, with the oldest PENDING article by discovery
+ *   time (updates such as a stuck-article reset do not make it look younger)
+ * - articles processed per hour over the last {@code hours}
+ * - average processing time and summed stage durations per article over the same window
+ * - LLM prompt and completion tokens and cost per day, per parent blog and per task (cost only) over the
+ *   last {@code days}, by the day of each article's last attempt (an article's usage is summed over its
+ *   attempts, so it is booked on the day of the latest one)
+ *
+ * The durations, tokens and costs are the ones stored on each article from its {@link ArticleProcessingStats}.
+ */
+@Service
+@RequiredArgsConstructor
+public class PipelineStatsService {
+
+    private static final List<String> STAGES = List.of(
+            PipelineMetrics.STAGE_PREPROCESS,
+            PipelineMetrics.STAGE_EXTRACT_INDICATORS,
+            PipelineMetrics.STAGE_EXTRACT_TECHNIQUES,
+            PipelineMetrics.STAGE_EXTRACT_DFIR
+    );
+    private static final List<String> LLM_TASKS = List.of(
+            PipelineMetrics.STAGE_EXTRACT_INDICATORS,
+            PipelineMetrics.STAGE_EXTRACT_TECHNIQUES,
+            PipelineMetrics.STAGE_EXTRACT_DFIR
+    );
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final PipelineSchedulers pipelineSchedulers;
+
+    @Value("${blog-manager.stats.max-parents:500}")
+    private int maxParents;
+
+    /**
+     * Computes the pipeline stats; see the class comment for the figures returned.
+     */
+    public Mono<Map<String, Object>> getPipelineStats(int hours, int days) {
+        return Mono.fromCallable(() -> {
+            SearchHits<ArticleScrapeStatus> hits = elasticsearchOperations.search(statsQuery(hours, days), ArticleScrapeStatus.class);
+            Map<String, ElasticsearchAggregation> aggregations = ((ElasticsearchAggregations) hits.getAggregations()).aggregationsAsMap();
+            return toStats(aggregations, hours, days);
+        }).subscribeOn(pipelineSchedulers.elasticsearch());
+    }
+
+    private NativeQuery statsQuery(int hours, int days) {
+        Query pending = Query.of(q -> q.term(t -> t.field("scrapeStatus").value(FieldValue.of(ArticleScrapeStatus.ScrapeStatus.PENDING.name()))));
+        Aggregation statusTerms = Aggregation.of(a -> a.terms(t -> t.field("scrapeStatus").size(ArticleScrapeStatus.ScrapeStatus.values().length)));
+        Aggregation oldestPending = Aggregation.of(a -> a.filter(pending)
+                .aggregations("since", Aggregation.of(m -> m.min(min -> min.field("discoveryDatetimeUtc")))));
+
+        Aggregation recent = Aggregation.of(a -> a
+                .filter(q -> q.range(r -> r.field("lastSuccessDatetimeUtc").gte(JsonData.of("now-" + hours + "h"))))
+                .aggregations("per_hour", Aggregation.of(h -> h.dateHistogram(d -> d
+                        .field("lastSuccessDatetimeUtc")
+                        .fixedInterval(Time.of(t -> t.time("1h")))
+                        .minDocCount(0)
+                        .extendedBounds(b -> b.min(FieldDateMath.of(f -> f.expr("now-" + hours + "h/h")))
+                                .max(FieldDateMath.of(f -> f.expr("now/h")))))))
+                .aggregations("processing_ms", Aggregation.of(m -> m.stats(st -> st.field("processingDurationMs"))))
+                .aggregations(stageAggregations()));
+
+        // By last attempt rather than last success, so articles that never succeeded count as well
+        Query tokenWindow = Query.of(q -> q.range(r -> r.field("updatedAtUtc").gte(JsonData.of("now-" + days + "d/d"))));
+        Aggregation tokens = Aggregation.of(a -> a
+                .filter(tokenWindow)
+                .aggregations("per_day", Aggregation.of(h -> h.dateHistogram(d -> d
+                                .field("updatedAtUtc")
+                                .calendarInterval(CalendarInterval.Day)
+                                .minDocCount(0)
+                                .extendedBounds(b -> b.min(FieldDateMath.of(f -> f.expr("now-" + days + "d/d")))
+                                        .max(FieldDateMath.of(f -> f.expr("now/d")))))
+                        .aggregations(usageAggregations())))
+                .aggregations(taskCostAggregations()));
+        Aggregation parentTokens = Aggregation.of(a -> a
+                .filter(tokenWindow)
+                .aggregations(usageAggregations()));
+
+        return NativeQuery.builder()
+                .withQuery(q -> q.matchAll(m -> m))
+                .withMaxResults(0)
+                .withAggregation("by_status", statusTerms)
+                .withAggregation("oldest_pending", oldestPending)
+                .withAggregation("by_parent", Aggregation.of(a -> a
+                        .terms(t -> t.field("parentUid").size(maxParents))
+                        .aggregations("by_status", statusTerms)
+                        .aggregations("oldest_pending", oldestPending)
+                        .aggregations("tokens", parentTokens)))
+                .withAggregation("recent", recent)
+                .withAggregation("tokens", tokens)
+                .build();
+    }
+
+    private Map<String, Aggregation> stageAggregations() {
+        Map<String, Aggregation> aggregations = new HashMap<>();
+        for (String stage : STAGES) {
+            aggregations.put("stage_" + stage, Aggregation.of(m -> m.stats(st -> st.field("stageDurationsMs." + stage))));
+        }
+        return aggregations;
+    }
+
+    private static Map<String, Aggregation> usageAggregations() {
+        return Map.of(
+                "prompt_tokens", Aggregation.of(m -> m.sum(sum -> sum.field("llmPromptTokens"))),
+                "completion_tokens", Aggregation.of(m -> m.sum(sum -> sum.field("llmCompletionTokens"))),
+                "cost_usd", Aggregation.of(m -> m.sum(sum -> sum.field("llmCostUsd"))));
+    }
+
+    private static Map<String, Aggregation> taskCostAggregations() {
+        Map<String, Aggregation> aggregations = new HashMap<>();
+        for (String task : LLM_TASKS) {
+            aggregations.put("task_" + task, Aggregation.of(m -> m.sum(sum -> sum.field("llmUsageByTask." + task + ".costUsd"))));
+        }
+        return aggregations;
+    }
+
+    private Map<String, Object> toStats(Map<String, ElasticsearchAggregation> aggregations, int hours, int days) {
+        Instant now = Instant.now();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("generated_at", now.toString());
+
+        stats.put("articles_by_status", statusCounts(aggregate(aggregations, "by_status")));
+        putOldestPending(stats, aggregate(aggregations, "oldest_pending").filter(), now);
+
+        List<Map<String, Object>> parents = new ArrayList<>();
+        for (StringTermsBucket bucket : aggregate(aggregations, "by_parent").sterms().buckets().array()) {
+            Map<String, Object> parent = new LinkedHashMap<>();
+            parent.put("parent_uid", bucket.key().stringValue());
+            parent.put("articles", bucket.docCount());
+            parent.put("by_status", statusCounts(bucket.aggregations().get("by_status")));
+            putOldestPending(parent, bucket.aggregations().get("oldest_pending").filter(), now);
+            putUsage(parent, bucket.aggregations().get("tokens").filter().aggregations());
+            parents.add(parent);
+        }
+        stats.put("parents", parents);
+
+        FilterAggregate recent = aggregate(aggregations, "recent").filter();
+        List<Map<String, Object>> perHour = new ArrayList<>();
+        for (DateHistogramBucket bucket : recent.aggregations().get("per_hour").dateHistogram().buckets().array()) {
+            Map<String, Object> hour = new LinkedHashMap<>();
+            hour.put("hour", bucket.keyAsString());
+            hour.put("articles", bucket.docCount());
+            perHour.add(hour);
+        }
+        stats.put("window_hours", hours);
+        stats.put("processed_in_window", recent.docCount());
+        stats.put("processed_per_hour", perHour);
+        stats.put("avg_processing_ms", average(recent.aggregations().get("processing_ms")));
+        Map<String, Object> stageAverages = new TreeMap<>();
+        for (String stage : STAGES) {
+            stageAverages.put(stage, average(recent.aggregations().get("stage_" + stage)));
+        }
+        stats.put("avg_stage_ms", stageAverages);
+
+        List<Map<String, Object>> perDay = new ArrayList<>();
+        FilterAggregate tokens = aggregate(aggregations, "tokens").filter();
+        for (DateHistogramBucket bucket : tokens.aggregations().get("per_day").dateHistogram().buckets().array()) {
+            Map<String, Object> day = new LinkedHashMap<>();
+            day.put("day", bucket.keyAsString());
+            day.put("articles", bucket.docCount());
+            putUsage(day, bucket.aggregations());
+            perDay.add(day);
+        }
+        Map<String, Object> costByTask = new TreeMap<>();
+        for (String task : LLM_TASKS) {
+            costByTask.put(task, roundCost(tokens.aggregations().get("task_" + task).sum().value()));
+        }
+        stats.put("window_days", days);
+        stats.put("llm_tokens_per_day", perDay);
+        stats.put("llm_cost_usd_by_task", costByTask);
+        return stats;
+    }
+
+    private static Aggregate aggregate(Map<String, ElasticsearchAggregation> aggregations, String name) {
+        return aggregations.get(name).aggregation().getAggregate();
+    }
+
+    private static Map<String, Long> statusCounts(Aggregate statusTerms) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (ArticleScrapeStatus.ScrapeStatus status : ArticleScrapeStatus.ScrapeStatus.values()) {
+            counts.put(status.name(), 0L);
+        }
+        for (StringTermsBucket bucket : statusTerms.sterms().buckets().array()) {
+            counts.put(bucket.key().stringValue(), bucket.docCount());
+        }
+        return counts;
+    }
+
+    private static void putOldestPending(Map<String, Object> target, FilterAggregate pending, Instant now) {
+        if (pending.docCount() == 0) {
+            target.put("oldest_pending_since", null);
+            target.put("oldest_pending_age_minutes", null);
+            return;
+        }
+        Instant since = Instant.ofEpochMilli((long) pending.aggregations().get("since").min().value());
+        target.put("oldest_pending_since", since.toString());
+        target.put("oldest_pending_age_minutes", Duration.between(since, now).toMinutes());
+    }
+
+    private static void putUsage(Map<String, Object> target, Map<String, Aggregate> usage) {
+        target.put("prompt_tokens", (long) usage.get("prompt_tokens").sum().value());
+        target.put("completion_tokens", (long) usage.get("completion_tokens").sum().value());
+        target.put("cost_usd", roundCost(usage.get("cost_usd").sum().value()));
+    }
+
+    private static double roundCost(double costUsd) {
+        return Math.round(costUsd * 10_000) / 10_000.0;
+    }
+
+    private static Double average(Aggregate stats) {
+        // A stats aggregation rather than avg, since the client reads a missing avg as 0; articles
+        // processed before durations were stored have no values and must not count as 0 ms
+        if (stats.stats().count() == 0) {
+            return null;
+        }
+        return Math.round(stats.stats().avg() * 10) / 10.0;
+    }
+}
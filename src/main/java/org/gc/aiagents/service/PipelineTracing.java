@@ -0,0 +1,114 @@
+package org.gc.aiagents.service;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import io.micrometer.tracing.handler.TracingObservationHandler;
+import io.micrometer.tracing.propagation.Propagator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Spans for the blog ingestion pipeline, built on Micrometer Observation and exported through the
+ * OpenTelemetry bridge (OTLP collector or span log, see the tracing section of the README).
+ *
+ * Reactive spans are started on subscription and put into the Reactor context under
+ * {@link ObservationThreadLocalAccessor#KEY}, which is where the Boot-configured WebClient looks for its
+ * parent, so calls to the Python API carry the article's trace. The article URL and parent UID of the
+ * enclosing span are copied onto every child span, so any stage can be looked up by article.
+ */
+@Component
+@RequiredArgsConstructor
+public class PipelineTracing {
+
+    public static final String ARTICLE_URL = "article.url";
+    public static final String PARENT_UID = "parent.uid";
+
+    private final ObservationRegistry observationRegistry;
+    private final Propagator propagator;
+
+    /**
+     * Runs {@code mono} inside a span named {@code name}, child of the span in the subscriber's context.
+     */
+    public <T> Mono<T> span(String name, Map<String, String> attributes, Mono<T> mono) {
+        return span(name, attributes, observation -> mono);
+    }
+
+    /**
+     * Same as {@link #span(String, Map, Mono)}, for callers that need the span itself, e.g. to pass its
+     * context on with {@link #traceHeaders(Observation)}.
+     */
+    public <T> Mono<T> span(String name, Map<String, String> attributes, Function<Observation, Mono<T>> body) {
+        return Mono.deferContextual(contextView -> {
+            Observation parent = contextView.getOrDefault(ObservationThreadLocalAccessor.KEY, null);
+            Observation observation = create(name, attributes, parent).start();
+            return body.apply(observation)
+                    .doOnError(observation::error)
+                    .doFinally(signalType -> observation.stop())
+                    .contextWrite(context -> context.put(ObservationThreadLocalAccessor.KEY, observation));
+        });
+    }
+
+    /**
+     * Runs a blocking call inside a span, child of the current thread's observation.
+     */
+    public <T> T observe(String name, Map<String, String> attributes, Supplier<T> call) {
+        return create(name, attributes, observationRegistry.getCurrentObservation()).observe(call);
+    }
+
+    /**
+     * Span attributes identifying an article; either value may be null.
+     */
+    public static Map<String, String> articleAttributes(String articleUrl, String parentUid) {
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put(ARTICLE_URL, articleUrl);
+        attributes.put(PARENT_UID, parentUid);
+        return attributes;
+    }
+
+    /**
+     * Returns the W3C trace headers (traceparent, and baggage if any) for a span, for clients that are not
+     * instrumented, such as the Azure OpenAI SDK. Empty when tracing is disabled.
+     */
+    public Map<String, String> traceHeaders(Observation observation) {
+        Map<String, String> headers = new HashMap<>();
+        if (observation == null) {
+            return headers;
+        }
+        TracingObservationHandler.TracingContext tracingContext = observation.getContextView().get(TracingObservationHandler.TracingContext.class);
+        if (tracingContext != null && tracingContext.getSpan() != null) {
+            propagator.inject(tracingContext.getSpan().context(), headers, Map::put);
+        }
+        return headers;
+    }
+
+    private Observation create(String name, Map<String, String> attributes, Observation parent) {
+        // One observation name for all pipeline spans, so the timer the observation registry derives from
+        // them is a single blog.manager.pipeline family tagged by span
+        Observation observation = Observation.createNotStarted("blog.manager.pipeline", observationRegistry)
+                .contextualName(name)
+                .lowCardinalityKeyValue("span", name)
+                .parentObservation(parent);
+        if (parent != null) {
+            for (String key : new String[] {ARTICLE_URL, PARENT_UID}) {
+                KeyValue inherited = parent.getContextView().getHighCardinalityKeyValue(key);
+                if (inherited != null) {
+                    observation.highCardinalityKeyValue(inherited);
+                }
+            }
+        }
+        attributes.forEach((key, value) -> {
+            if (value != null) {
+                observation.highCardinalityKeyValue(key, value);
+            }
+        });
+        return observation;
+    }
+}
@@ -15,7 +15,7 @@ import com.gambitcyber.datamodel.common.ReportSummary;
 import com.gambitcyber.datamodel.common.EntityUsage;
 import com.gambitcyber.datamodel.common.GraphData;
 import com.gambitcyber.datamodel.common.IndicatorType;
-import org.gc.aiagents.service.AzureOpenAIService;
+import org.gc.aiagents.domain.ArticleScrapeStatus.FailureType;
 import org.gc.aiagents.domain.es.ThreatIntelDoc;
 import org.gc.aiagents.repository.es.ThreatIntelRepository;
 import java.util.Objects;
@@ -36,7 +36,12 @@ import java.util.UUID;
 import java.time.Instant;
 import org.gc.aiagents.domain.dto.IntelligenceReportDTO;
 import reactor.core.publisher.Flux;
+import reactor.util.retry.Retry;
 import java.util.LinkedHashSet;
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
 
 @Slf4j
 @Service
@@ -45,8 +50,12 @@ public class PythonApiService {
     
     private final WebClient.Builder webClientBuilder;
     private final ObjectMapper objectMapper;
-    private final AzureOpenAIService azureOpenAIService;
+    private final LlmRouter llmRouter;
     private final ThreatIntelRepository threatIntelRepository;
+    private final PipelineMetrics pipelineMetrics;
+    private final TrainingDataHarvester trainingDataHarvester;
+    private final PipelineSchedulers pipelineSchedulers;
+    private final RetryBackoffPolicy retryBackoffPolicy;
     
     // @Value("${python.api.base-url:http://localhost:8000}")
     @Value("${python.api.base-url:https://knightguard-api-dev.gambitcyber.org}")
@@ -57,6 +66,19 @@ public class PythonApiService {
 
     @Value("${python.api.max-concurrent-llm-calls:1}")
     private int maxConcurrentLlmCalls;
+
+    // Attempts per LLM call (each DFIR chunk, indicators, techniques) before that part is recorded as missing
+    @Value("${python.api.llm-call-max-attempts:3}")
+    private int llmCallMaxAttempts;
+
+    // URLs of one batch extraction request processed at once; the LLM clients' own limits still apply
+    @Value("${python.api.batch-extract-concurrency:4}")
+    private int batchExtractConcurrency;
+
+    public static final String EXTRACTION_KEY = "extraction";
+    public static final String SECTION_INDICATORS = "indicators";
+    public static final String SECTION_TECHNIQUES = "techniques";
+    private static final String NO_USAGE_AVAILABLE = "No detailed information available";
     
     // --- Prompts copied from CTIAnalystAIAgent ---
     private static final String EXTRACT_INDICATORS_PROMPT = "You are an expert cybersecurity analyst assisting users in extracting and analyzing relevant cybersecurity threats, tactics, techniques, and mitigations from structured content. Your goal is to summarize, extract key insights, and format the information in an actionable way.\n" +
@@ -196,26 +218,88 @@ public class PythonApiService {
         
         Map<String, Object> requestBody = Map.of("pdf_path", url);
         
-        return webClient.post()
+        return pipelineMetrics.timeStage(PipelineMetrics.STAGE_PREPROCESS, webClient.post()
                 .uri("/pdf-parser/preprocess")
                 .bodyValue(requestBody)
                 .retrieve()
                 .bodyToMono(Map.class)
                 .map(response -> (Map<String, Object>) response)
-                .timeout(Duration.ofSeconds(timeoutSeconds))
+                .timeout(Duration.ofSeconds(timeoutSeconds)))
                 .doOnSuccess(response -> log.info("Successfully preprocessed content from: {}", url))
                 .doOnError(error -> log.error("Error during preprocessing call for {}: {}", url, error.getMessage()));
     }
-    
+
+    /**
+     * Preprocesses one article and extracts its intelligence report, without storing anything.
+     */
+    @SuppressWarnings("unchecked")
+    public Mono<Map<String, Object>> extractBlogContent(String url, String provider) {
+        return getPreprocessedContent(url)
+            .flatMap(preprocessedDataMap -> {
+                Object rawDataObj = preprocessedDataMap.get("raw_data");
+                Object filteredDataObj = preprocessedDataMap.get("filtered_data");
+                Object dfirDataObj = preprocessedDataMap.get("dfir_data");
+
+                // Ensure they are lists, default to empty lists if null
+                List<Map<String, Object>> rawData = (rawDataObj instanceof List) ? (List<Map<String, Object>>) rawDataObj : new ArrayList<>();
+                List<Map<String, Object>> filteredData = (filteredDataObj instanceof List) ? (List<Map<String, Object>>) filteredDataObj : new ArrayList<>();
+                List<?> dfirData = (dfirDataObj instanceof List) ? (List<?>) dfirDataObj : new ArrayList<>();
+                Map<String, Object> metadata = (Map<String, Object>) preprocessedDataMap.getOrDefault("metadata", Map.of());
+
+                log.info("Preprocessed content obtained for {}, proceeding to internal intelligence extraction.", url);
+                return extractIntel(url, filteredData, rawData, dfirData, metadata, provider);
+            });
+    }
+
+    /**
+     * Runs {@link #extractBlogContent} for many URLs, at most {@code batchExtractConcurrency} at a time,
+     * and emits one result per distinct URL as soon as it is ready, so results arrive out of order.
+     * Each result carries the URL's position in the request ("index"), "articleUrl" and "success",
+     * plus the report under "report" or the failure under "errorMessage"; a failed URL does not end the batch.
+     */
+    public Flux<Map<String, Object>> extractBlogContents(List<String> urls, String provider) {
+        Map<String, Integer> indexByUrl = new LinkedHashMap<>();
+        for (int i = 0; i < urls.size(); i++) {
+            indexByUrl.putIfAbsent(urls.get(i).trim(), i);
+        }
+        log.info("Extracting {} URLs ({} submitted) with concurrency {} using provider: {}",
+                indexByUrl.size(), urls.size(), batchExtractConcurrency, provider);
+
+        return Flux.fromIterable(indexByUrl.entrySet())
+            .flatMap(entry -> {
+                String url = entry.getKey();
+                return extractBlogContent(url, provider)
+                    .map(report -> {
+                        Map<String, Object> result = new LinkedHashMap<>();
+                        result.put("index", entry.getValue());
+                        result.put("articleUrl", url);
+                        result.put("success", true);
+                        result.put("report", report);
+                        return result;
+                    })
+                    .onErrorResume(error -> {
+                        log.error("Error extracting content from {} in batch: {}", url, error.getMessage());
+                        Map<String, Object> result = new LinkedHashMap<>();
+                        result.put("index", entry.getValue());
+                        result.put("articleUrl", url);
+                        result.put("success", false);
+                        result.put("errorMessage", String.valueOf(error.getMessage()));
+                        return Mono.just(result);
+                    });
+            }, Math.max(1, batchExtractConcurrency));
+    }
+
     /**
      * Calls the Python API to extract intelligence from already processed content.
      * rawContent and filteredContent are passed as Objects, expecting them to be
      * List<Map<String, Object>> for structured data, which will be serialized to JSON arrays.
+     * The returned report carries an "extraction" block recording whether every section and
+     * DFIR chunk was extracted, so that missing parts can be re-run with {@link #reextractMissingParts}.
      */
     public Mono<Map<String, Object>> extractIntel(String url, List<Map<String, Object>> filteredContent,
                                                   List<Map<String, Object>> rawContent, List<?> dfirData, Map<String, Object> metadata,
                                                   String provider) {
-        log.info("Attempting to extract intelligence internally for URL: {} using AzureOpenAIService", url);
+        log.info("Attempting to extract intelligence internally for URL: {} using provider: {}", url, provider);
 
         // Prepare content for different LLM calls
         String indicatorsContent = prepareContentForLlm(rawContent);
@@ -226,67 +310,23 @@ public class PythonApiService {
             return Mono.just(convertDtoToMap(null, url));
         }
 
-        // --- Direct LLM calls using AzureOpenAIService (Reactive) ---
-        Mono<String> indicatorsResponseMono = !indicatorsContent.isEmpty()
-                ? azureOpenAIService.getChatCompletionAsync("azure-1", EXTRACT_INDICATORS_PROMPT, indicatorsContent)
-                        .doOnError(e -> log.error("Error getting indicators response for {}", url, e))
-                        .defaultIfEmpty("{}")
-                : Mono.just("{}");
-
-        Mono<String> techniquesResponseMono = !techniquesContent.isEmpty()
-                ? azureOpenAIService.getChatCompletionAsync("azure-1", EXTRACT_TECHNIQUES_PROMPT, techniquesContent)
-                        .doOnError(e -> log.error("Error getting techniques response for {}", url, e))
-                        .defaultIfEmpty("{}")
-                : Mono.just("{}");
-        
-        Mono<List<Map<String, Object>>> dfirTechniquesListMono;
-        if (dfirData != null && !dfirData.isEmpty()) {
-            dfirTechniquesListMono = Flux.fromIterable(dfirData)
-                .flatMap(chunkAsObject -> { // It's a raw object from a heterogenous list, expecting List<Map>
-                    if (!(chunkAsObject instanceof List)) {
-                        log.warn("Skipping DFIR chunk because it is not a List: {}", chunkAsObject);
-                        return Mono.empty();
-                    }
-                    @SuppressWarnings("unchecked")
-                    List<Map<String, Object>> chunkPages = (List<Map<String, Object>>) chunkAsObject;
-                    
-                    String content = chunkPages.stream()
-                        .map(page -> page.getOrDefault("content", "").toString())
-                        .filter(s -> !s.trim().isEmpty())
-                        .collect(Collectors.joining("\n\n---\n\n"));
-
-                    if (content.isEmpty()) {
-                        return Mono.empty();
-                    }
-                    
-                    return azureOpenAIService.getChatCompletionAsync("azure-2", EXTRACT_DFIR_TECHNIQUES_PROMPT, content)
-                            .doOnError(e -> log.error("Error getting DFIR techniques for a chunk for {}", url, e))
-                            .onErrorReturn("[]"); // Return empty list string on error for one chunk
-                }) // No global limit needed - per-client limits handle this
-                .flatMap(jsonResponse -> {
-                    try {
-                        List<Map<String, Object>> techniques = objectMapper.readValue(jsonResponse, new TypeReference<List<Map<String, Object>>>() {});
-                        return Flux.fromIterable(techniques);
-                    } catch (Exception e) {
-                        log.error("Error parsing DFIR techniques chunk for {}: {}", url, jsonResponse, e);
-                        return Flux.empty();
-                    }
-                })
-                .collectList()
-                .defaultIfEmpty(Collections.emptyList());
-        } else {
-            dfirTechniquesListMono = Mono.just(Collections.emptyList());
+        List<Integer> allChunks = new ArrayList<>();
+        for (int i = 0; dfirData != null && i < dfirData.size(); i++) {
+            allChunks.add(i);
         }
 
-        // Process in parallel with per-client concurrency control
-        return Mono.zip(
-                indicatorsResponseMono.flatMap(this::safelyParseIndicatorsResponse),
-                techniquesResponseMono.flatMap(this::safelyParseTechniquesResponse),
-                dfirTechniquesListMono)
-            .flatMap(tuple -> {
-                Map<String, Object> indicatorsMap = tuple.getT1();
-                Map<String, Object> techniquesMap = tuple.getT2();
-                List<Map<String, Object>> dfirTechniquesList = tuple.getT3();
+        return extractParts(url, indicatorsContent, techniquesContent, dfirData, allChunks, provider)
+            // The LLM responses arrive on Netty threads; merging them into the report is CPU work that would hold those up
+            .publishOn(pipelineSchedulers.compute())
+            .flatMap(parts -> {
+                if (parts.isTotalFailure()) {
+                    // Nothing was extracted at all; fail so the article is retried with backoff for this error
+                    return Mono.error(parts.getFailures().get(0));
+                }
+
+                Map<String, Object> indicatorsMap = parts.getIndicators();
+                Map<String, Object> techniquesMap = parts.getTechniques();
+                List<Map<String, Object>> dfirTechniquesList = parts.getDfirTechniques();
 
                 log.info("LLM Indicators Response: {}", indicatorsMap);
                 log.info("LLM Techniques Response: {}", techniquesMap);
@@ -316,40 +356,7 @@ public class PythonApiService {
                     }
 
                     // Process and merge DFIR techniques
-                    if (dfirTechniquesList != null && !dfirTechniquesList.isEmpty()) {
-                        for (Map<String, Object> extract : dfirTechniquesList) {
-                            String techId = (String) extract.get("technique_id");
-                            if (techId == null) continue;
-
-                            String procedure = (String) extract.get("technique_procedure");
-                            
-                            if (finalTechniques.containsKey(techId)) {
-                                // Technique exists, append usage
-                                IntelligenceReportDTO.Technique existingTech = finalTechniques.get(techId);
-                                Map<String, String> usage = existingTech.getTechnique_usage();
-                                if (usage == null) {
-                                    usage = new HashMap<>();
-                                }
-                                String existingProcedure = usage.getOrDefault("from_dfir", "");
-                                if (procedure != null && !procedure.isEmpty()) {
-                                    usage.put("from_dfir", (existingProcedure.isEmpty() ? "" : existingProcedure + "\n") + "* " + procedure);
-                                }
-                                existingTech.setTechnique_usage(usage);
-
-                            } else {
-                                // New technique from DFIR extract
-                                IntelligenceReportDTO.Technique newTech = new IntelligenceReportDTO.Technique();
-                                newTech.setTechnique_id(techId);
-                                newTech.setTechnique_name((String) extract.get("technique_name"));
-                                Map<String, String> usage = new HashMap<>();
-                                if (procedure != null && !procedure.isEmpty()) {
-                                    usage.put("from_dfir", "* " + procedure);
-                                }
-                                newTech.setTechnique_usage(usage);
-                                finalTechniques.put(techId, newTech);
-                            }
-                        }
-                    }
+                    mergeDfirTechniques(finalTechniques, dfirTechniquesList);
 
                     report.setTechniques(new ArrayList<>(finalTechniques.values()));
                     
@@ -359,19 +366,7 @@ public class PythonApiService {
                     finalReport.put("name", report.getName());
                     finalReport.put("type", "malware");
                     
-                    // Date handling
-                    String createdDateStr = (String) indicatorsMap.get("created");
-                    String isoDate = Instant.now().toString(); // Default to now
-                    if (createdDateStr != null && !createdDateStr.isEmpty()) {
-                        try {
-                             // Assuming format like DD-MM-YYYY, needs to be parsed and formatted
-                            isoDate = java.time.format.DateTimeFormatter.ISO_INSTANT.format(
-                                java.time.LocalDate.parse(createdDateStr, java.time.format.DateTimeFormatter.ofPattern("dd-MM-yyyy"))
-                                .atStartOfDay(java.time.ZoneOffset.UTC).toInstant());
-                        } catch (java.time.format.DateTimeParseException e) {
-                            log.warn("Could not parse date '{}', defaulting to now.", createdDateStr);
-                        }
-                    }
+                    String isoDate = parseCreatedDate((String) indicatorsMap.get("created"));
                     finalReport.put("created", isoDate);
 
                     // Reports array
@@ -384,60 +379,18 @@ public class PythonApiService {
                     finalReport.put("indicators", report.getIndicators() != null ? report.getIndicators() : Collections.emptyList());
 
                     List<Map<String, Object>> finalTechniquesList = new ArrayList<>();
-                    if (report.getTechniques() != null) {
-                        for (IntelligenceReportDTO.Technique tech : report.getTechniques()) {
-                            Map<String, Object> finalTech = new LinkedHashMap<>();
-                            finalTech.put("id", tech.getTechnique_id());
-                            finalTech.put("name", tech.getTechnique_name());
-
-                            // Process and merge usage details
-                            List<String> finalUsageLines = new ArrayList<>();
-                            Set<String> seenLines = new HashSet<>();
-
-                            if (tech.getTechnique_usage() != null) {
-                                // Process usage from tables first, without a prefix
-                                String fromTable = tech.getTechnique_usage().get("from_table");
-                                if (fromTable != null && !fromTable.trim().isEmpty()) {
-                                     String cleaned = fromTable.trim().replaceAll("[\"“”]", "");
-                                     if (seenLines.add(cleaned)) {
-                                         finalUsageLines.add(cleaned);
-                                     }
-                                }
-
-                                // Process usage from DFIR next, with a '*' prefix
-                                String fromDfir = tech.getTechnique_usage().get("from_dfir");
-                                if (fromDfir != null && !fromDfir.trim().isEmpty()) {
-                                    String[] dfirLines = fromDfir.split("\\n");
-                                    for (String line : dfirLines) {
-                                        String cleanedLine = line.trim().replaceAll("^\\*\\s*", "").replaceAll("[\"“”]", "");
-                                        if (!cleanedLine.isEmpty() && seenLines.add(cleanedLine)) {
-                                            finalUsageLines.add("* " + cleanedLine);
-                                        }
-                                    }
-                                }
-                            }
-                            
-                            String combinedUsage = String.join("\n", finalUsageLines);
-                            
-                            if(combinedUsage.isEmpty()){
-                                combinedUsage = "No detailed information available";
-                            }
-
-                            Map<String, Object> usageDetail = new LinkedHashMap<>();
-                            usageDetail.put("name", "AI Report");
-                            usageDetail.put("usage", combinedUsage);
-                            
-                            finalTech.put("usage", Collections.singletonList(usageDetail));
-                            finalTech.put("sub_techniques", Collections.emptyList());
-                            finalTech.put("entities", Collections.emptyList());
-
-                            finalTechniquesList.add(finalTech);
-                        }
+                    for (IntelligenceReportDTO.Technique tech : report.getTechniques()) {
+                        finalTechniquesList.add(toFinalTechnique(tech));
                     }
                     finalReport.put("techniques", finalTechniquesList);
                     finalReport.put("description", report.getDescription());
                     finalReport.put("last_modified", isoDate);
+                    finalReport.put(EXTRACTION_KEY, buildExtractionBlock(parts.getMissingSections(), parts.getMissingDfirChunks(), allChunks.size()));
 
+                    if (!parts.getMissingSections().isEmpty() || !parts.getMissingDfirChunks().isEmpty()) {
+                        log.warn("Partial extraction for {}: missing sections {}, missing DFIR chunks {} of {}",
+                                url, parts.getMissingSections(), parts.getMissingDfirChunks(), allChunks.size());
+                    }
 
                     return Mono.just(finalReport);
 
@@ -447,6 +400,426 @@ public class PythonApiService {
                 }
             });
     }
+
+    /**
+     * Re-runs only the sections and DFIR chunks recorded as missing in the "extraction" block of a
+     * previously produced report, and merges what comes back into a copy of that report.
+     * The report id is kept so the stored threat-intel document is overwritten rather than duplicated.
+     */
+    public Mono<Map<String, Object>> reextractMissingParts(String url, Map<String, Object> preprocessedDataMap,
+                                                           Map<String, Object> existingReport, String provider) {
+        List<String> missingSections = getMissingSections(existingReport);
+        List<Integer> missingChunks = getMissingDfirChunks(existingReport);
+
+        if (missingSections.isEmpty() && missingChunks.isEmpty()) {
+            log.info("Nothing to re-extract for {}", url);
+            return Mono.just(existingReport);
+        }
+
+        Object rawData = preprocessedDataMap.get("raw_data");
+        Object filteredData = preprocessedDataMap.get("filtered_data");
+        Object dfirDataObj = preprocessedDataMap.get("dfir_data");
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> rawDataList = (rawData instanceof List) ? (List<Map<String, Object>>) rawData : new ArrayList<>();
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> filteredDataList = (filteredData instanceof List) ? (List<Map<String, Object>>) filteredData : new ArrayList<>();
+        List<?> dfirData = (dfirDataObj instanceof List) ? (List<?>) dfirDataObj : new ArrayList<>();
+
+        String indicatorsContent = missingSections.contains(SECTION_INDICATORS) ? prepareContentForLlm(rawDataList) : "";
+        String techniquesContent = missingSections.contains(SECTION_TECHNIQUES) ? prepareContentForLlm(filteredDataList) : "";
+
+        // Chunk indexes are only meaningful if the preprocessor produced the same chunking as before
+        List<Integer> chunksToRun = new ArrayList<>(missingChunks);
+        Object extraction = existingReport.get(EXTRACTION_KEY);
+        Object previousChunkCount = extraction instanceof Map ? ((Map<?, ?>) extraction).get("dfir_chunk_count") : null;
+        if (previousChunkCount instanceof Number && ((Number) previousChunkCount).intValue() != dfirData.size()) {
+            log.warn("DFIR chunking for {} changed from {} to {} chunks; re-running all chunks", url, previousChunkCount, dfirData.size());
+            chunksToRun.clear();
+            for (int i = 0; i < dfirData.size(); i++) {
+                chunksToRun.add(i);
+            }
+        }
+        chunksToRun.removeIf(index -> index >= dfirData.size());
+
+        log.info("Re-extracting {}: sections {}, DFIR chunks {}", url, missingSections, chunksToRun);
+
+        return extractParts(url, indicatorsContent, techniquesContent, dfirData, chunksToRun, provider)
+            .publishOn(pipelineSchedulers.compute())
+            .flatMap(parts -> {
+                if (parts.isTotalFailure()) {
+                    return Mono.error(parts.getFailures().get(0));
+                }
+
+                Map<String, Object> report = new LinkedHashMap<>(existingReport);
+
+                Map<String, Object> indicatorsMap = parts.getIndicators();
+                if (missingSections.contains(SECTION_INDICATORS) && !parts.getMissingSections().contains(SECTION_INDICATORS)) {
+                    if (url.equals(report.get("name")) && indicatorsMap.get("name") != null) {
+                        report.put("name", indicatorsMap.get("name"));
+                    }
+                    if (report.get("description") == null) {
+                        report.put("description", indicatorsMap.get("description"));
+                    }
+                    if (indicatorsMap.containsKey("indicators")) {
+                        report.put("indicators", objectMapper.convertValue(indicatorsMap.get("indicators"), new TypeReference<List<IntelligenceReportDTO.Indicator>>() {}));
+                    }
+                }
+
+                Map<String, IntelligenceReportDTO.Technique> techniques = new LinkedHashMap<>();
+                Object existingTechniques = report.get("techniques");
+                if (existingTechniques instanceof List) {
+                    for (Object techObject : (List<?>) existingTechniques) {
+                        if (techObject instanceof Map) {
+                            IntelligenceReportDTO.Technique tech = fromFinalTechnique((Map<?, ?>) techObject);
+                            techniques.put(tech.getTechnique_id(), tech);
+                        }
+                    }
+                }
+                if (parts.getTechniques().containsKey("techniques")) {
+                    List<IntelligenceReportDTO.Technique> primaryTechniques = objectMapper.convertValue(parts.getTechniques().get("techniques"), new TypeReference<List<IntelligenceReportDTO.Technique>>() {});
+                    for (IntelligenceReportDTO.Technique tech : primaryTechniques) {
+                        IntelligenceReportDTO.Technique existing = techniques.get(tech.getTechnique_id());
+                        if (existing != null && existing.getTechnique_usage() != null && existing.getTechnique_usage().containsKey("from_dfir")) {
+                            // Keep DFIR procedures already merged into this technique
+                            Map<String, String> usage = tech.getTechnique_usage() != null ? new HashMap<>(tech.getTechnique_usage()) : new HashMap<>();
+                            usage.put("from_dfir", existing.getTechnique_usage().get("from_dfir"));
+                            tech.setTechnique_usage(usage);
+                        }
+                        techniques.put(tech.getTechnique_id(), tech);
+                    }
+                }
+                mergeDfirTechniques(techniques, parts.getDfirTechniques());
+
+                List<Map<String, Object>> finalTechniquesList = new ArrayList<>();
+                for (IntelligenceReportDTO.Technique tech : techniques.values()) {
+                    finalTechniquesList.add(toFinalTechnique(tech));
+                }
+                report.put("techniques", finalTechniquesList);
+
+                report.put(EXTRACTION_KEY, buildExtractionBlock(parts.getMissingSections(), parts.getMissingDfirChunks(), dfirData.size()));
+
+                log.info("Re-extraction for {} finished: missing sections {}, missing DFIR chunks {}",
+                        url, parts.getMissingSections(), parts.getMissingDfirChunks());
+                return Mono.just(report);
+            });
+    }
+
+    /**
+     * Returns true if the report's "extraction" block records missing sections or DFIR chunks.
+     */
+    public static boolean isPartialExtraction(Map<String, Object> report) {
+        return !getMissingSections(report).isEmpty() || !getMissingDfirChunks(report).isEmpty();
+    }
+
+    public static List<String> getMissingSections(Map<String, Object> report) {
+        Object extraction = report != null ? report.get(EXTRACTION_KEY) : null;
+        if (extraction instanceof Map && ((Map<?, ?>) extraction).get("missing_sections") instanceof List) {
+            return ((List<?>) ((Map<?, ?>) extraction).get("missing_sections")).stream()
+                    .map(Object::toString)
+                    .collect(Collectors.toList());
+        }
+        return new ArrayList<>();
+    }
+
+    public static List<Integer> getMissingDfirChunks(Map<String, Object> report) {
+        Object extraction = report != null ? report.get(EXTRACTION_KEY) : null;
+        if (extraction instanceof Map && ((Map<?, ?>) extraction).get("missing_dfir_chunks") instanceof List) {
+            return ((List<?>) ((Map<?, ?>) extraction).get("missing_dfir_chunks")).stream()
+                    .filter(Number.class::isInstance)
+                    .map(index -> ((Number) index).intValue())
+                    .collect(Collectors.toList());
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * Runs the indicator, technique and selected DFIR chunk LLM calls in parallel. Each call gets its own
+     * retry budget; a call that still fails is recorded as missing instead of failing the whole extraction.
+     */
+    private Mono<ExtractionParts> extractParts(String url, String indicatorsContent, String techniquesContent,
+                                               List<?> dfirData, List<Integer> dfirChunkIndexes, String provider) {
+        Set<String> missingSections = ConcurrentHashMap.newKeySet();
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+
+        // --- Direct LLM calls, routed per task by LlmRouter (Reactive) ---
+        Mono<Map<String, Object>> indicatorsMono = !indicatorsContent.isEmpty()
+                ? withRetryBudget(() -> pipelineMetrics.timeStage(PipelineMetrics.STAGE_EXTRACT_INDICATORS,
+                                llmRouter.getChatCompletionAsync(provider, "azure-1", PipelineMetrics.STAGE_EXTRACT_INDICATORS, EXTRACT_INDICATORS_PROMPT, indicatorsContent))
+                                .flatMap(response -> safelyParseIndicatorsResponse(response)
+                                        .doOnNext(parsed -> trainingDataHarvester.offer(PipelineMetrics.STAGE_EXTRACT_INDICATORS,
+                                                EXTRACT_INDICATORS_PROMPT, indicatorsContent, response))))
+                        .onErrorResume(e -> {
+                            log.error("Giving up on indicators extraction for {}: {}", url, e.getMessage());
+                            missingSections.add(SECTION_INDICATORS);
+                            failures.add(e);
+                            return Mono.just(Collections.emptyMap());
+                        })
+                : Mono.just(Collections.emptyMap());
+
+        Mono<Map<String, Object>> techniquesMono = !techniquesContent.isEmpty()
+                ? withRetryBudget(() -> pipelineMetrics.timeStage(PipelineMetrics.STAGE_EXTRACT_TECHNIQUES,
+                                llmRouter.getChatCompletionAsync(provider, "azure-1", PipelineMetrics.STAGE_EXTRACT_TECHNIQUES, EXTRACT_TECHNIQUES_PROMPT, techniquesContent))
+                                .flatMap(response -> safelyParseTechniquesResponse(response)
+                                        .doOnNext(parsed -> trainingDataHarvester.offer(PipelineMetrics.STAGE_EXTRACT_TECHNIQUES,
+                                                EXTRACT_TECHNIQUES_PROMPT, techniquesContent, response))))
+                        .onErrorResume(e -> {
+                            log.error("Giving up on techniques extraction for {}: {}", url, e.getMessage());
+                            missingSections.add(SECTION_TECHNIQUES);
+                            failures.add(e);
+                            return Mono.just(Collections.emptyMap());
+                        })
+                : Mono.just(Collections.emptyMap());
+
+        Mono<List<DfirChunkResult>> dfirChunksMono = Flux.fromIterable(dfirChunkIndexes)
+                .flatMap(index -> extractDfirChunk(url, index, dfirData.get(index), failures, provider)) // No global limit needed - per-client limits handle this
+                .collectList();
+
+        // Process in parallel with per-client concurrency control
+        return Mono.zip(indicatorsMono, techniquesMono, dfirChunksMono)
+                .map(tuple -> {
+                    List<DfirChunkResult> chunkResults = tuple.getT3();
+                    List<Map<String, Object>> dfirTechniques = chunkResults.stream()
+                            .sorted(Comparator.comparingInt(DfirChunkResult::getIndex))
+                            .filter(DfirChunkResult::isSuccess)
+                            .flatMap(result -> result.getTechniques().stream())
+                            .collect(Collectors.toList());
+                    List<Integer> missingChunks = chunkResults.stream()
+                            .filter(result -> !result.isSuccess())
+                            .map(DfirChunkResult::getIndex)
+                            .sorted()
+                            .collect(Collectors.toList());
+                    List<String> sections = new ArrayList<>(missingSections);
+                    Collections.sort(sections);
+                    int attempted = (indicatorsContent.isEmpty() ? 0 : 1) + (techniquesContent.isEmpty() ? 0 : 1)
+                            + (int) chunkResults.stream().filter(DfirChunkResult::isAttempted).count();
+                    return new ExtractionParts(tuple.getT1(), tuple.getT2(), dfirTechniques, sections, missingChunks, attempted, failures);
+                });
+    }
+
+    private Mono<DfirChunkResult> extractDfirChunk(String url, int index, Object chunkAsObject, List<Throwable> failures,
+                                                   String provider) {
+        // It's a raw object from a heterogenous list, expecting List<Map>
+        if (!(chunkAsObject instanceof List)) {
+            log.warn("Skipping DFIR chunk {} because it is not a List: {}", index, chunkAsObject);
+            return Mono.just(new DfirChunkResult(index, true, false, Collections.emptyList()));
+        }
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> chunkPages = (List<Map<String, Object>>) chunkAsObject;
+
+        String content = chunkPages.stream()
+            .map(page -> page.getOrDefault("content", "").toString())
+            .filter(s -> !s.trim().isEmpty())
+            .collect(Collectors.joining("\n\n---\n\n"));
+
+        if (content.isEmpty()) {
+            return Mono.just(new DfirChunkResult(index, true, false, Collections.emptyList()));
+        }
+
+        return withRetryBudget(() -> pipelineMetrics.timeStage(PipelineMetrics.STAGE_EXTRACT_DFIR,
+                                llmRouter.getChatCompletionAsync(provider, "azure-2", PipelineMetrics.STAGE_EXTRACT_DFIR, EXTRACT_DFIR_TECHNIQUES_PROMPT, content))
+                        .flatMap(jsonResponse -> safelyParseDfirResponse(jsonResponse).collectList()
+                                .doOnNext(parsed -> trainingDataHarvester.offer(PipelineMetrics.STAGE_EXTRACT_DFIR,
+                                        EXTRACT_DFIR_TECHNIQUES_PROMPT, content, jsonResponse))))
+                .map(techniques -> new DfirChunkResult(index, true, true, techniques))
+                .onErrorResume(e -> {
+                    log.error("Giving up on DFIR chunk {} for {}: {}", index, url, e.getMessage());
+                    failures.add(e);
+                    return Mono.just(new DfirChunkResult(index, false, true, Collections.emptyList()));
+                });
+    }
+
+    /**
+     * Retries a single LLM call up to the configured attempt budget, but only for errors another attempt
+     * can get past: throttling, 5xx and timeouts. Client errors (bad request, content filter), unparseable
+     * output and empty completions fail at once instead of spending quota on the same answer.
+     */
+    private <T> Mono<T> withRetryBudget(Supplier<Mono<T>> call) {
+        return Mono.defer(call)
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("Empty response from LLM")))
+                .retryWhen(Retry.backoff(Math.max(0, llmCallMaxAttempts - 1), Duration.ofSeconds(2))
+                        .filter(this::isRetryable));
+    }
+
+    private boolean isRetryable(Throwable error) {
+        FailureType type = retryBackoffPolicy.classify(error);
+        return type == FailureType.THROTTLED || type == FailureType.SERVER_ERROR; // SERVER_ERROR includes timeouts
+    }
+
+    // Package-private, like toFinalTechnique and prepareContentForLlm, for the benchmarks in src/jmh
+    void mergeDfirTechniques(Map<String, IntelligenceReportDTO.Technique> finalTechniques, List<Map<String, Object>> dfirTechniquesList) {
+        if (dfirTechniquesList == null || dfirTechniquesList.isEmpty()) {
+            return;
+        }
+        for (Map<String, Object> extract : dfirTechniquesList) {
+            String techId = (String) extract.get("technique_id");
+            if (techId == null) continue;
+
+            String procedure = (String) extract.get("technique_procedure");
+            
+            if (finalTechniques.containsKey(techId)) {
+                // Technique exists, append usage
+                IntelligenceReportDTO.Technique existingTech = finalTechniques.get(techId);
+                Map<String, String> usage = existingTech.getTechnique_usage();
+                if (usage == null) {
+                    usage = new HashMap<>();
+                }
+                String existingProcedure = usage.getOrDefault("from_dfir", "");
+                if (existingProcedure == null) {
+                    existingProcedure = "";
+                }
+                if (procedure != null && !procedure.isEmpty()) {
+                    usage.put("from_dfir", (existingProcedure.isEmpty() ? "" : existingProcedure + "\n") + "* " + procedure);
+                }
+                existingTech.setTechnique_usage(usage);
+
+            } else {
+                // New technique from DFIR extract
+                IntelligenceReportDTO.Technique newTech = new IntelligenceReportDTO.Technique();
+                newTech.setTechnique_id(techId);
+                newTech.setTechnique_name((String) extract.get("technique_name"));
+                Map<String, String> usage = new HashMap<>();
+                if (procedure != null && !procedure.isEmpty()) {
+                    usage.put("from_dfir", "* " + procedure);
+                }
+                newTech.setTechnique_usage(usage);
+                finalTechniques.put(techId, newTech);
+            }
+        }
+    }
+
+    Map<String, Object> toFinalTechnique(IntelligenceReportDTO.Technique tech) {
+        Map<String, Object> finalTech = new LinkedHashMap<>();
+        finalTech.put("id", tech.getTechnique_id());
+        finalTech.put("name", tech.getTechnique_name());
+
+        // Process and merge usage details
+        List<String> finalUsageLines = new ArrayList<>();
+        Set<String> seenLines = new HashSet<>();
+
+        if (tech.getTechnique_usage() != null) {
+            // Process usage from tables first, without a prefix
+            String fromTable = tech.getTechnique_usage().get("from_table");
+            if (fromTable != null && !fromTable.trim().isEmpty()) {
+                 String cleaned = fromTable.trim().replaceAll("[\"“”]", "");
+                 if (seenLines.add(cleaned)) {
+                     finalUsageLines.add(cleaned);
+                 }
+            }
+
+            // Process usage from DFIR next, with a '*' prefix
+            String fromDfir = tech.getTechnique_usage().get("from_dfir");
+            if (fromDfir != null && !fromDfir.trim().isEmpty()) {
+                String[] dfirLines = fromDfir.split("\\n");
+                for (String line : dfirLines) {
+                    String cleanedLine = line.trim().replaceAll("^\\*\\s*", "").replaceAll("[\"“”]", "");
+                    if (!cleanedLine.isEmpty() && seenLines.add(cleanedLine)) {
+                        finalUsageLines.add("* " + cleanedLine);
+                    }
+                }
+            }
+        }
+        
+        String combinedUsage = String.join("\n", finalUsageLines);
+        
+        if(combinedUsage.isEmpty()){
+            combinedUsage = NO_USAGE_AVAILABLE;
+        }
+
+        Map<String, Object> usageDetail = new LinkedHashMap<>();
+        usageDetail.put("name", "AI Report");
+        usageDetail.put("usage", combinedUsage);
+        
+        finalTech.put("usage", Collections.singletonList(usageDetail));
+        finalTech.put("sub_techniques", Collections.emptyList());
+        finalTech.put("entities", Collections.emptyList());
+        return finalTech;
+    }
+
+    /**
+     * Inverse of {@link #toFinalTechnique}: lines prefixed with '*' came from DFIR chunks, the rest from tables.
+     */
+    private IntelligenceReportDTO.Technique fromFinalTechnique(Map<?, ?> finalTech) {
+        IntelligenceReportDTO.Technique tech = new IntelligenceReportDTO.Technique();
+        tech.setTechnique_id(Objects.toString(finalTech.get("id"), null));
+        tech.setTechnique_name(Objects.toString(finalTech.get("name"), null));
+
+        List<String> tableLines = new ArrayList<>();
+        List<String> dfirLines = new ArrayList<>();
+        Object usageList = finalTech.get("usage");
+        if (usageList instanceof List) {
+            for (Object usageDetail : (List<?>) usageList) {
+                if (!(usageDetail instanceof Map)) continue;
+                String usage = Objects.toString(((Map<?, ?>) usageDetail).get("usage"), "");
+                if (usage.equals(NO_USAGE_AVAILABLE)) continue;
+                for (String line : usage.split("\\n")) {
+                    if (line.startsWith("* ")) {
+                        dfirLines.add(line);
+                    } else if (!line.trim().isEmpty()) {
+                        tableLines.add(line);
+                    }
+                }
+            }
+        }
+
+        Map<String, String> usage = new HashMap<>();
+        if (!tableLines.isEmpty()) {
+            usage.put("from_table", String.join("\n", tableLines));
+        }
+        if (!dfirLines.isEmpty()) {
+            usage.put("from_dfir", String.join("\n", dfirLines));
+        }
+        tech.setTechnique_usage(usage);
+        return tech;
+    }
+
+    private Map<String, Object> buildExtractionBlock(List<String> missingSections, List<Integer> missingDfirChunks, int dfirChunkCount) {
+        Map<String, Object> extraction = new LinkedHashMap<>();
+        extraction.put("status", missingSections.isEmpty() && missingDfirChunks.isEmpty() ? "complete" : "partial");
+        extraction.put("missing_sections", missingSections);
+        extraction.put("missing_dfir_chunks", missingDfirChunks);
+        extraction.put("dfir_chunk_count", dfirChunkCount);
+        return extraction;
+    }
+
+    private String parseCreatedDate(String createdDateStr) {
+        String isoDate = Instant.now().toString(); // Default to now
+        if (createdDateStr != null && !createdDateStr.isEmpty()) {
+            try {
+                 // Assuming format like DD-MM-YYYY, needs to be parsed and formatted
+                isoDate = java.time.format.DateTimeFormatter.ISO_INSTANT.format(
+                    java.time.LocalDate.parse(createdDateStr, java.time.format.DateTimeFormatter.ofPattern("dd-MM-yyyy"))
+                    .atStartOfDay(java.time.ZoneOffset.UTC).toInstant());
+            } catch (java.time.format.DateTimeParseException e) {
+                log.warn("Could not parse date '{}', defaulting to now.", createdDateStr);
+            }
+        }
+        return isoDate;
+    }
+
+    @lombok.Data
+    @lombok.AllArgsConstructor
+    private static class DfirChunkResult {
+        private int index;
+        private boolean success;
+        private boolean attempted; // false for chunks without content, which need no LLM call
+        private List<Map<String, Object>> techniques;
+    }
+
+    @lombok.Data
+    @lombok.AllArgsConstructor
+    private static class ExtractionParts {
+        private Map<String, Object> indicators;
+        private Map<String, Object> techniques;
+        private List<Map<String, Object>> dfirTechniques;
+        private List<String> missingSections;
+        private List<Integer> missingDfirChunks;
+        private int attempted;
+        private List<Throwable> failures;
+
+        boolean isTotalFailure() {
+            return attempted > 0 && failures.size() == attempted;
+        }
+    }
     
     private Mono<Map<String, Object>> safelyParseIndicatorsResponse(String jsonString) {
         try {
@@ -493,7 +866,7 @@ public class PythonApiService {
         return text.substring(0, Math.min(text.length(), 150));
     }
     
-    private String prepareContentForLlm(List<Map<String, Object>> contentToProcess) {
+    String prepareContentForLlm(List<Map<String, Object>> contentToProcess) {
         StringBuilder textContentBuilder = new StringBuilder();
 
         if (contentToProcess != null) {
@@ -633,25 +1006,26 @@ public class PythonApiService {
      * This corresponds to the parse_data_to_db function in the Python code
      */
     public Mono<Void> storeIntelligenceData(Map<String, Object> responseData) {
-        return Mono.fromRunnable(() -> {
-            try {
-                ThreatIntelDoc doc = new ThreatIntelDoc();
-                doc.setId(UUID.randomUUID().toString());
-                doc.setTimestamp(Instant.now());
-                doc.setIntel(responseData);
-
-                if (responseData.containsKey("report_url")) {
-                    doc.setReportUrl(responseData.get("report_url").toString());
-                }
+        return Mono.fromCallable(() -> {
+                    ThreatIntelDoc doc = new ThreatIntelDoc();
+                    // Reuse the report id so a re-extracted report overwrites its earlier partial version
+                    doc.setId(responseData.get("id") != null ? responseData.get("id").toString() : UUID.randomUUID().toString());
+                    doc.setTimestamp(Instant.now());
+                    doc.setIntel(responseData);
 
-                threatIntelRepository.save(doc);
-                log.info("Successfully stored threat intelligence for report: {}", doc.getReportUrl());
-
-            } catch (Exception e) {
-                log.error("Error storing intelligence data to Elasticsearch", e);
-                // We can choose to re-throw or handle it. For now, just logging.
-            }
-        });
+                    if (responseData.containsKey("report_url")) {
+                        doc.setReportUrl(responseData.get("report_url").toString());
+                    }
+                    return doc;
+                })
+                .flatMap(doc -> pipelineMetrics.timeStage(PipelineMetrics.STAGE_STORE, threatIntelRepository.replace(doc)))
+                .doOnNext(doc -> log.info("Successfully stored threat intelligence for report: {}", doc.getReportUrl()))
+                .onErrorResume(e -> {
+                    log.error("Error storing intelligence data to Elasticsearch", e);
+                    // We can choose to re-throw or handle it. For now, just logging.
+                    return Mono.empty();
+                })
+                .then();
     }
     
     /**
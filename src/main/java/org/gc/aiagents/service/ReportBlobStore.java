@@ -0,0 +1,20 @@
+package org.gc.aiagents.service;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Storage for compressed report bodies, selected with {@code blog-manager.report-store.type}.
+ * {@link ReportStore} does the encoding; implementations only keep bytes under a key.
+ */
+public interface ReportBlobStore {
+
+    /**
+     * Stores {@code content} under {@code key}, replacing what was there.
+     */
+    Mono<Void> put(String key, byte[] content);
+
+    /**
+     * The content stored under {@code key}, or empty if there is none.
+     */
+    Mono<byte[]> get(String key);
+}
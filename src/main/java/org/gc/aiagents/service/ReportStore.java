@@ -0,0 +1,103 @@
+package org.gc.aiagents.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the final extraction report of each article out of its status document. The report is written
+ * once per extraction as gzipped JSON to the configured {@link ReportBlobStore}; the status document
+ * only holds the reference, the SHA-256 digest of the JSON and the compressed size, so status reads and
+ * the updates that rewrite the whole document no longer carry the report.
+ * <p>
+ * The copy indexed into {@code threat-intel} is the published one, which ILM may delete; this one is what
+ * re-extraction reads back and merges into, so the two are kept on purpose.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReportStore {
+
+    private static final TypeReference<Map<String, Object>> REPORT_TYPE = new TypeReference<>() {};
+
+    private final ReportBlobStore reportBlobStore;
+    private final ObjectMapper objectMapper;
+    private final PipelineSchedulers pipelineSchedulers;
+
+    /**
+     * Where a report was stored, as recorded on the article's status document.
+     */
+    public record StoredReport(String ref, String digest, long sizeBytes) {
+    }
+
+    /**
+     * Stores {@code report} under {@code key} (the article UID), replacing an earlier report of the article.
+     */
+    public Mono<StoredReport> put(String key, Map<String, Object> report) {
+        return Mono.fromCallable(() -> {
+                    byte[] json = objectMapper.writeValueAsBytes(report);
+                    return new Encoded(digest(json), gzip(json));
+                })
+                .subscribeOn(pipelineSchedulers.compute())
+                .flatMap(encoded -> reportBlobStore.put(key, encoded.content())
+                        .thenReturn(new StoredReport(key, encoded.digest(), encoded.content().length)));
+    }
+
+    /**
+     * Reads a report back, failing if it is missing or does not match {@code digest}.
+     */
+    public Mono<Map<String, Object>> get(String ref, String digest) {
+        return reportBlobStore.get(ref)
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("No report stored under " + ref)))
+                .publishOn(pipelineSchedulers.compute())
+                .map(content -> {
+                    try {
+                        byte[] json = gunzip(content);
+                        if (digest != null && !digest.equals(digest(json))) {
+                            throw new IllegalStateException("Report " + ref + " does not match its digest");
+                        }
+                        return objectMapper.readValue(json, REPORT_TYPE);
+                    } catch (IOException e) {
+                        throw new IllegalStateException("Cannot read report " + ref, e);
+                    }
+                });
+    }
+
+    private static String digest(byte[] json) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (OutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(data);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] data) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private record Encoded(String digest, byte[] content) {
+    }
+}
@@ -0,0 +1,88 @@
+package org.gc.aiagents.service;
+
+import com.azure.core.exception.HttpResponseException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import lombok.RequiredArgsConstructor;
+import org.gc.aiagents.domain.ArticleScrapeStatus.FailureType;
+import org.gc.aiagents.properties.RetryBackoffProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Decides when a failed article is due for another attempt, based on what kind of error it hit.
+ */
+@Component
+@RequiredArgsConstructor
+public class RetryBackoffPolicy {
+
+    private final RetryBackoffProperties properties;
+
+    /**
+     * Classifies an error by walking its cause chain, so wrapped WebClient and Azure errors are recognised.
+     */
+    public FailureType classify(Throwable error) {
+        for (Throwable current = error; current != null; current = current.getCause()) {
+            if (current instanceof WebClientResponseException) {
+                return classifyStatus(((WebClientResponseException) current).getStatusCode().value());
+            }
+            if (current instanceof HttpResponseException && ((HttpResponseException) current).getResponse() != null) {
+                return classifyStatus(((HttpResponseException) current).getResponse().getStatusCode());
+            }
+            if (current instanceof JsonProcessingException) {
+                return FailureType.PARSE_ERROR;
+            }
+            if (current instanceof TimeoutException || current instanceof WebClientRequestException || current instanceof IOException) {
+                return FailureType.SERVER_ERROR;
+            }
+        }
+        return FailureType.UNKNOWN;
+    }
+
+    /**
+     * Returns the earliest time the article may be retried: the initial delay for its failure type, doubled
+     * for every earlier failure up to the type's maximum, with part of the delay randomized so articles that
+     * failed together do not all come back in the same scheduler tick.
+     */
+    public Instant nextRetryAt(FailureType type, int failureCount, Instant now) {
+        RetryBackoffProperties.Backoff backoff = backoffFor(type);
+        long initialMillis = backoff.getInitial().toMillis();
+        long maxMillis = backoff.getMax().toMillis();
+
+        int doublings = Math.min(Math.max(0, failureCount - 1), 30);
+        long delayMillis = initialMillis > maxMillis >> doublings ? maxMillis : initialMillis << doublings;
+
+        double jitter = Math.min(1.0, Math.max(0.0, properties.getJitter()));
+        long jitteredMillis = (long) (delayMillis * (1.0 - jitter * ThreadLocalRandom.current().nextDouble()));
+        return now.plus(Duration.ofMillis(jitteredMillis));
+    }
+
+    private FailureType classifyStatus(int status) {
+        if (status == 429) {
+            return FailureType.THROTTLED;
+        }
+        if (status >= 500) {
+            return FailureType.SERVER_ERROR;
+        }
+        if (status >= 400) {
+            return FailureType.CLIENT_ERROR;
+        }
+        return FailureType.UNKNOWN;
+    }
+
+    private RetryBackoffProperties.Backoff backoffFor(FailureType type) {
+        return switch (type) {
+            case CLIENT_ERROR -> properties.getClientError();
+            case SERVER_ERROR -> properties.getServerError();
+            case THROTTLED -> properties.getThrottled();
+            case PARSE_ERROR -> properties.getParseError();
+            case UNKNOWN -> properties.getUnknown();
+        };
+    }
+}
@@ -0,0 +1,54 @@
+package org.gc.aiagents.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.gc.aiagents.properties.ReportStoreProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+/**
+ * Keeps report bodies as objects {@code <prefix><key>.json.gz} of a bucket on an S3-compatible endpoint,
+ * using plain path-style PUT and GET. Requests are not signed: this is meant for a bucket that accepts
+ * unsigned access from the pipeline's network (e.g. a MinIO bucket policy) or for a signing proxy in front
+ * of the store.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "blog-manager.report-store.type", havingValue = "s3")
+public class S3ReportBlobStore implements ReportBlobStore {
+
+    private final WebClient webClient;
+    private final String bucket;
+    private final String prefix;
+
+    public S3ReportBlobStore(WebClient.Builder webClientBuilder, ReportStoreProperties properties) {
+        ReportStoreProperties.S3 s3 = properties.getS3();
+        this.webClient = webClientBuilder.clone().baseUrl(s3.getEndpoint()).build();
+        this.bucket = s3.getBucket();
+        this.prefix = s3.getPrefix() != null ? s3.getPrefix() : "";
+        log.info("Storing reports in bucket {} at {}", bucket, s3.getEndpoint());
+    }
+
+    @Override
+    public Mono<Void> put(String key, byte[] content) {
+        return webClient.put()
+                .uri(uri -> uri.path("/{bucket}/" + prefix + "{key}.json.gz").build(bucket, key))
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .bodyValue(content)
+                .retrieve()
+                .toBodilessEntity()
+                .then();
+    }
+
+    @Override
+    public Mono<byte[]> get(String key) {
+        return webClient.get()
+                .uri(uri -> uri.path("/{bucket}/" + prefix + "{key}.json.gz").build(bucket, key))
+                .retrieve()
+                .bodyToMono(byte[].class)
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty());
+    }
+}
@@ -0,0 +1,184 @@
+package org.gc.aiagents.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Runs the blog manager's scheduled jobs so that a job never overlaps itself.
+ *
+ * A tick that arrives while the previous run of the same job is still in flight is skipped and
+ * remembered. When a run completes, the job's backlog is counted: if work is left and the backlog
+ * shrank since the previous run (or a tick was skipped meanwhile), a follow-up run is scheduled shortly
+ * after completion instead of waiting for the next tick; otherwise the next tick is accepted only once the idle spacing has passed since
+ * completion. Run duration, items processed, skipped ticks and backlog are published per job.
+ *
+ * A run (and its backlog count) that does not finish within the run timeout is cancelled and counted as
+ * an error, so a hung Elasticsearch or LLM call cannot keep a job marked as running forever.
+ */
+@Slf4j
+@Component
+public class ScheduledRunCoordinator {
+
+    private final TaskScheduler taskScheduler;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, JobState> jobs = new ConcurrentHashMap<>();
+
+    @Value("${blog-manager.scheduler.backlog-rerun-delay-ms:5000}")
+    private long backlogRerunDelayMs;
+
+    @Value("${blog-manager.scheduler.min-idle-spacing-ms:30000}")
+    private long minIdleSpacingMs;
+
+    @Value("${blog-manager.scheduler.run-timeout-ms:3600000}")
+    private long runTimeoutMs;
+
+    public ScheduledRunCoordinator(TaskScheduler taskScheduler, MeterRegistry meterRegistry) {
+        this.taskScheduler = taskScheduler;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Handles a scheduler tick for a job.
+     *
+     * @param job     job name, used in logs and as the metrics tag
+     * @param run     the job itself, emitting the number of items it processed
+     * @param backlog counts the work still due once the run has finished
+     */
+    public void trigger(String job, Supplier<Mono<Long>> run, Supplier<Mono<Long>> backlog) {
+        JobState state = jobs.computeIfAbsent(job, name -> new JobState(name, run, backlog));
+        synchronized (state) {
+            if (state.running) {
+                state.tickMissed = true;
+                state.skippedInFlight.increment();
+                log.debug("Skipping {} tick: previous run still in flight", job);
+                return;
+            }
+            if (state.notBefore != null && Instant.now().isBefore(state.notBefore)) {
+                state.skippedPaced.increment();
+                log.debug("Skipping {} tick: next run paced for {}", job, state.notBefore);
+                return;
+            }
+            state.running = true;
+        }
+        start(state);
+    }
+
+    private void start(JobState state) {
+        long startNanos = System.nanoTime();
+        Duration timeout = Duration.ofMillis(runTimeoutMs);
+        Mono.defer(state.run)
+                .timeout(timeout)
+                .defaultIfEmpty(0L)
+                .doOnNext(items -> {
+                    Duration duration = Duration.ofNanos(System.nanoTime() - startNanos);
+                    state.successTimer.record(duration);
+                    state.items.increment(items);
+                    log.debug("{} run processed {} items in {} ms", state.name, items, duration.toMillis());
+                })
+                .doOnError(error -> {
+                    state.errorTimer.record(Duration.ofNanos(System.nanoTime() - startNanos));
+                    log.error("Error in scheduled {} run: {}", state.name, error.getMessage());
+                })
+                .onErrorResume(error -> Mono.just(0L))
+                .then(Mono.defer(state.backlog).timeout(timeout))
+                .onErrorResume(error -> {
+                    log.warn("Could not count {} backlog: {}", state.name, error.getMessage());
+                    return Mono.just(0L);
+                })
+                .defaultIfEmpty(0L)
+                .subscribe(backlog -> onCompleted(state, backlog));
+    }
+
+    private void onCompleted(JobState state, long backlog) {
+        state.backlogSize.set(backlog);
+        Instant completedAt = Instant.now();
+        Instant followUpAt = null;
+        synchronized (state) {
+            // A backlog that did not shrink (e.g. a parent that keeps failing) waits for the regular ticks
+            boolean progressing = state.lastBacklog < 0 || backlog < state.lastBacklog;
+            state.lastBacklog = backlog;
+            if ((backlog > 0 && progressing) || state.tickMissed) {
+                // Stay marked as running until the follow-up starts so ticks in between are skipped
+                followUpAt = completedAt.plusMillis(backlogRerunDelayMs);
+                state.notBefore = followUpAt;
+            } else {
+                state.notBefore = completedAt.plusMillis(minIdleSpacingMs);
+                state.running = false;
+            }
+            state.tickMissed = false;
+        }
+        if (followUpAt != null) {
+            log.debug("Scheduling follow-up {} run at {} (backlog: {})", state.name, followUpAt, backlog);
+            try {
+                taskScheduler.schedule(() -> start(state), followUpAt);
+            } catch (RuntimeException e) {
+                // E.g. rejected during shutdown; leave the next run to the regular ticks
+                log.warn("Could not schedule follow-up {} run: {}", state.name, e.getMessage());
+                synchronized (state) {
+                    state.notBefore = completedAt.plusMillis(minIdleSpacingMs);
+                    state.running = false;
+                }
+            }
+        }
+    }
+
+    private class JobState {
+        private final String name;
+        private final Supplier<Mono<Long>> run;
+        private final Supplier<Mono<Long>> backlog;
+        private final Timer successTimer;
+        private final Timer errorTimer;
+        private final Counter items;
+        private final Counter skippedInFlight;
+        private final Counter skippedPaced;
+        private final AtomicLong backlogSize = new AtomicLong();
+        private boolean running;
+        private boolean tickMissed;
+        private Instant notBefore;
+        private long lastBacklog = -1;
+
+        private JobState(String name, Supplier<Mono<Long>> run, Supplier<Mono<Long>> backlog) {
+            this.name = name;
+            this.run = run;
+            this.backlog = backlog;
+            this.successTimer = Timer.builder("blog.manager.scheduler.run")
+                    .description("Duration of scheduled blog manager runs")
+                    .tags("job", name, "outcome", "success")
+                    .register(meterRegistry);
+            this.errorTimer = Timer.builder("blog.manager.scheduler.run")
+                    .description("Duration of scheduled blog manager runs")
+                    .tags("job", name, "outcome", "error")
+                    .register(meterRegistry);
+            this.items = Counter.builder("blog.manager.scheduler.items")
+                    .description("Items processed by scheduled blog manager runs")
+                    .tag("job", name)
+                    .register(meterRegistry);
+            this.skippedInFlight = Counter.builder("blog.manager.scheduler.skipped")
+                    .description("Scheduler ticks skipped instead of starting an overlapping or early run")
+                    .tags("job", name, "reason", "in_flight")
+                    .register(meterRegistry);
+            this.skippedPaced = Counter.builder("blog.manager.scheduler.skipped")
+                    .description("Scheduler ticks skipped instead of starting an overlapping or early run")
+                    .tags("job", name, "reason", "paced")
+                    .register(meterRegistry);
+            Gauge.builder("blog.manager.scheduler.backlog", backlogSize, AtomicLong::get)
+                    .description("Work still due after the last scheduled run")
+                    .tag("job", name)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package org.gc.aiagents.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.gc.aiagents.domain.TrainingData;
+import org.gc.aiagents.properties.TrainingDataProperties;
+import org.gc.aiagents.repository.TrainingDataRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Records the system/user/assistant messages of successful extraction calls as {@link TrainingData},
+ * to fine-tune a cheaper model for the extraction prompts later.
+ *
+ * {@link #offer} runs on the extraction path, so it only samples, checks the size cap and queues the
+ * call without blocking; a full queue drops the sample. Everything else happens in {@link #flush()},
+ * which runs on its own scheduler and writes the queue in batches: samples are keyed by a hash of task, system prompt and user
+ * prompt, so the same input is stored once however often it is extracted, and harvesting stops once
+ * the training index holds {@code max-samples} samples.
+ */
+@Slf4j
+@Service
+public class TrainingDataHarvester {
+
+    private final TrainingDataRepository trainingDataRepository;
+    private final TrainingDataProperties properties;
+    private final PipelineMetrics pipelineMetrics;
+    private final PipelineSchedulers pipelineSchedulers;
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final BlockingQueue<HarvestedCall> queue;
+    private final Set<String> recentIds;
+    private volatile boolean capReached;
+
+    public TrainingDataHarvester(TrainingDataRepository trainingDataRepository, TrainingDataProperties properties,
+                                 PipelineMetrics pipelineMetrics, PipelineSchedulers pipelineSchedulers) {
+        this.trainingDataRepository = trainingDataRepository;
+        this.properties = properties;
+        this.pipelineMetrics = pipelineMetrics;
+        this.pipelineSchedulers = pipelineSchedulers;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+        int dedupCacheSize = Math.max(1, properties.getDedupCacheSize());
+        this.recentIds = Collections.newSetFromMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > dedupCacheSize;
+            }
+        });
+    }
+
+    /**
+     * Queues a successful LLM call for the training index. Never blocks and never throws.
+     */
+    public void offer(String task, String systemPrompt, String userPrompt, String response) {
+        if (!properties.isEnabled() || response == null || response.isBlank()) {
+            return;
+        }
+        if (capReached) {
+            pipelineMetrics.recordTrainingSample(task, "capped");
+        } else if (ThreadLocalRandom.current().nextDouble() >= properties.sampleRateFor(task)) {
+            pipelineMetrics.recordTrainingSample(task, "sampled_out");
+        } else if (systemPrompt.length() + userPrompt.length() + response.length() > properties.getMaxSampleChars()) {
+            pipelineMetrics.recordTrainingSample(task, "too_large");
+        } else if (!queue.offer(new HarvestedCall(task, systemPrompt, userPrompt, response, Instant.now()))) {
+            pipelineMetrics.recordTrainingSample(task, "dropped");
+        }
+    }
+
+    /**
+     * Hands a flush to the training data scheduler unless the previous one is still pending, so the
+     * blocking count and saveAll calls do not hold up the other scheduled jobs.
+     */
+    @Scheduled(fixedDelayString = "${blog-manager.training-data.flush-interval-ms:5000}")
+    public void scheduleFlush() {
+        if (!flushScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            pipelineSchedulers.trainingData().schedule(() -> {
+                try {
+                    flush();
+                } finally {
+                    flushScheduled.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // E.g. during shutdown, which flushes on its own
+            flushScheduled.set(false);
+            log.warn("Could not schedule a training data flush: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the queued samples in batches. Also runs on shutdown, so queued samples are not lost.
+     */
+    @PreDestroy
+    public synchronized void flush() {
+        // While capped, keep recounting, so harvesting resumes once samples are deleted
+        if (queue.isEmpty() && !capReached) {
+            return;
+        }
+        try {
+            long remaining = properties.getMaxSamples() - trainingDataRepository.count();
+            List<HarvestedCall> calls = new ArrayList<>();
+            while (queue.drainTo(calls, Math.max(1, properties.getBatchSize())) > 0) {
+                Map<String, TrainingData> batch = new LinkedHashMap<>();
+                for (HarvestedCall call : calls) {
+                    TrainingData sample = toTrainingData(call);
+                    if (recentIds.contains(sample.getId()) || batch.containsKey(sample.getId())) {
+                        pipelineMetrics.recordTrainingSample(call.task(), "duplicate");
+                    } else if (batch.size() >= remaining) {
+                        pipelineMetrics.recordTrainingSample(call.task(), "capped");
+                    } else {
+                        batch.put(sample.getId(), sample);
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    trainingDataRepository.saveAll(batch.values());
+                    // Only now, so samples of a failed write are not taken for duplicates when offered again
+                    recentIds.addAll(batch.keySet());
+                    remaining -= batch.size();
+                    batch.values().forEach(sample -> pipelineMetrics.recordTrainingSample(sample.getTask(), "stored"));
+                }
+                calls.clear();
+            }
+            if (remaining <= 0 && !capReached) {
+                log.info("Training data cap of {} samples reached, harvesting paused", properties.getMaxSamples());
+            }
+            capReached = remaining <= 0;
+        } catch (RuntimeException e) {
+            // The batch is lost, the extraction it came from has already succeeded
+            log.error("Error writing harvested training data: {}", e.getMessage());
+        }
+    }
+
+    private static TrainingData toTrainingData(HarvestedCall call) {
+        TrainingData sample = new TrainingData();
+        sample.setId(sampleId(call.task(), call.systemPrompt(), call.userPrompt()));
+        sample.setTask(call.task());
+        sample.setCreated(call.created());
+        sample.setMessages(List.of(
+                message("system", call.systemPrompt()),
+                message("user", call.userPrompt()),
+                message("assistant", call.response())));
+        return sample;
+    }
+
+    private static TrainingData.Message message(String role, String content) {
+        TrainingData.Message message = new TrainingData.Message();
+        message.setRole(role);
+        message.setContent(content);
+        return message;
+    }
+
+    /**
+     * Document ID for a sample: repeated extractions of the same input overwrite one document.
+     */
+    static String sampleId(String task, String systemPrompt, String userPrompt) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : List.of(task, systemPrompt, userPrompt)) {
+                digest.update(part.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record HarvestedCall(String task, String systemPrompt, String userPrompt, String response, Instant created) {
+    }
+}
@@ -0,0 +1,215 @@
+package org.gc.aiagents.service;
+
+import org.gc.aiagents.properties.UrlClassifierProperties;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Decides from its structure alone whether a candidate URL is an article, so that only the ambiguous
+ * ones go to the LLM. A URL gets a score from its path: date segments, long hyphenated slugs, article
+ * sections of common CMSs and WordPress {@code ?p=} links count for it; listing, pagination, author and
+ * tag paths and static assets against it. URLs at or above {@code accept-score} are accepted, those at
+ * or below {@code reject-score} rejected, everything in between is left to the LLM.
+ *
+ * The LLM's verdicts are also learned per site: URLs are reduced to a shape ({@code /{n}/{n}/{slug}}),
+ * and once enough scans agree on a shape, the shape adds or subtracts {@code learned-weight}, so a
+ * site's unusual but regular layout stops going to the LLM after a few scans. What is learned is kept in
+ * memory only and relearned after a restart.
+ */
+@Component
+public class UrlClassifier {
+
+    public enum Decision { ARTICLE, NOT_ARTICLE, UNSURE }
+
+    private static final Pattern DATE_SEGMENTS = Pattern.compile("/(19|20)\\d{2}/(0?[1-9]|1[0-2])(/|$)");
+    private static final Pattern DATE_IN_SLUG = Pattern.compile("(19|20)\\d{2}-\\d{2}-\\d{2}");
+    private static final Pattern ARTICLE_SECTION = Pattern.compile(
+            "/(blog|blogs|post|posts|article|articles|news|research|insights|reports?|labs|threat-intel(ligence)?)/[^/]+");
+    private static final Pattern LISTING = Pattern.compile(
+            "/(page|author|authors|tag|tags|category|categories|topic|topics|series|events?|webinars?|careers|jobs"
+                    + "|products?|solutions|pricing|wp-json|wp-content|wp-admin|cdn-cgi)(/|$)");
+    private static final Pattern LISTING_QUERY = Pattern.compile("[?&](paged|page|s|replytocom|share)=");
+    private static final Pattern WORDPRESS_POST = Pattern.compile("[?&]p=\\d+");
+    private static final Pattern ASSET = Pattern.compile("\\.(pdf|jpe?g|png|gif|svg|webp|ico|zip|gz|xml|json|css|js|mp4|mp3)$");
+    private static final Pattern PAGE_EXTENSION = Pattern.compile("\\.(html?|php|aspx?)$");
+    private static final Pattern SECTION_NAME = Pattern.compile(
+            "blog|blogs|posts?|articles?|news|research|insights|reports?|labs|resources|archive|home|index");
+
+    private final UrlClassifierProperties properties;
+    private final Map<String, Map<String, ShapeVerdicts>> learnedShapes = new ConcurrentHashMap<>();
+
+    public UrlClassifier(UrlClassifierProperties properties) {
+        this.properties = properties;
+    }
+
+    public Decision classify(String url) {
+        if (!properties.isEnabled()) {
+            return Decision.UNSURE;
+        }
+        double score = score(url);
+        if (score >= properties.getAcceptScore()) {
+            return Decision.ARTICLE;
+        }
+        if (score <= properties.getRejectScore()) {
+            return Decision.NOT_ARTICLE;
+        }
+        return Decision.UNSURE;
+    }
+
+    /**
+     * Positive for article-like URLs, negative for listing pages and assets; unparseable URLs score 0.
+     */
+    public double score(String url) {
+        URI uri = parse(url);
+        if (uri == null) {
+            return 0;
+        }
+        String path = uri.getRawPath() == null ? "" : uri.getRawPath().toLowerCase(Locale.ROOT);
+        String query = uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery().toLowerCase(Locale.ROOT);
+        double score = 0;
+
+        if (ASSET.matcher(path).find()) {
+            return -5;
+        }
+        boolean listing = LISTING.matcher(path).find() || LISTING_QUERY.matcher(query).find();
+        if (listing) {
+            score -= 4;
+        }
+        if (WORDPRESS_POST.matcher(query).find()) {
+            score += 3;
+        }
+        if (DATE_SEGMENTS.matcher(path).find()) {
+            score += 3;
+        }
+        if (DATE_IN_SLUG.matcher(path).find()) {
+            score += 2;
+        }
+
+        String slug = PAGE_EXTENSION.matcher(lastSegment(path)).replaceFirst("");
+        int words = slug.isEmpty() ? 0 : slug.split("[-_]+").length;
+        if (SECTION_NAME.matcher(slug).matches()) {
+            score -= 3; // The section's own index page
+        } else if (words >= 4) {
+            score += 2.5;
+        } else if (words == 3) {
+            score += 1.5;
+        } else if (words <= 1 && slug.length() < 12 && !slug.chars().allMatch(Character::isDigit)) {
+            score -= 1.5;
+        }
+        if (!listing && ARTICLE_SECTION.matcher(path).find() && !SECTION_NAME.matcher(slug).matches()) {
+            score += 1.5;
+        }
+        if (PAGE_EXTENSION.matcher(path).find() && words >= 2) {
+            score += 0.5;
+        }
+        return score + learnedScore(uri.getHost(), shape(path));
+    }
+
+    /**
+     * Records the LLM's verdicts from one scan of a site (URL to whether it is an article). Each shape counts
+     * at most once per scan, with the verdict its URLs agree on (none if they disagree), so a single answer,
+     * e.g. a flaky empty list for a chunk of look-alike URLs, is one observation and not one per URL; a
+     * shape is only learned once {@code min-observations} scans agree.
+     */
+    public void learn(Map<String, Boolean> verdicts) {
+        Map<String, Map<String, int[]>> scanCounts = new HashMap<>();
+        verdicts.forEach((url, article) -> {
+            URI uri = parse(url);
+            if (uri == null || uri.getHost() == null) {
+                return;
+            }
+            String path = uri.getRawPath() == null ? "" : uri.getRawPath().toLowerCase(Locale.ROOT);
+            int[] counts = scanCounts.computeIfAbsent(uri.getHost(), host -> new HashMap<>())
+                    .computeIfAbsent(shape(path), shape -> new int[2]);
+            counts[article ? 0 : 1]++;
+        });
+        scanCounts.forEach((host, shapeCounts) -> shapeCounts.forEach((shape, counts) -> {
+            int total = counts[0] + counts[1];
+            if (counts[0] >= total * properties.getMinAgreement()) {
+                observe(host, shape, true);
+            } else if (counts[1] >= total * properties.getMinAgreement()) {
+                observe(host, shape, false);
+            }
+        }));
+    }
+
+    private void observe(String host, String shape, boolean article) {
+        Map<String, ShapeVerdicts> shapes = learnedShapes.computeIfAbsent(host, key -> new ConcurrentHashMap<>());
+        ShapeVerdicts verdicts = shapes.get(shape);
+        if (verdicts == null) {
+            if (shapes.size() >= properties.getMaxShapesPerHost()) {
+                return;
+            }
+            verdicts = shapes.computeIfAbsent(shape, key -> new ShapeVerdicts());
+        }
+        (article ? verdicts.articles : verdicts.others).incrementAndGet();
+    }
+
+    private double learnedScore(String host, String shape) {
+        Map<String, ShapeVerdicts> shapes = host != null ? learnedShapes.get(host) : null;
+        ShapeVerdicts verdicts = shapes != null ? shapes.get(shape) : null;
+        if (verdicts == null) {
+            return 0;
+        }
+        int articles = verdicts.articles.get();
+        int others = verdicts.others.get();
+        int total = articles + others;
+        if (total < properties.getMinObservations()) {
+            return 0;
+        }
+        if (articles >= total * properties.getMinAgreement()) {
+            return properties.getLearnedWeight();
+        }
+        if (others >= total * properties.getMinAgreement()) {
+            return -properties.getLearnedWeight();
+        }
+        return 0;
+    }
+
+    /**
+     * The path with numbers replaced by {n} and slugs by {slug}, e.g. /2024/03/some-long-title to /{n}/{n}/{slug}.
+     */
+    static String shape(String path) {
+        StringBuilder shape = new StringBuilder();
+        for (String segment : path.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            shape.append('/');
+            String bare = PAGE_EXTENSION.matcher(segment).replaceFirst("");
+            if (bare.chars().allMatch(Character::isDigit)) {
+                shape.append("{n}");
+            } else if (bare.length() > 10 && (bare.indexOf('-') >= 0 || bare.indexOf('_') >= 0)) {
+                shape.append("{slug}");
+            } else {
+                shape.append(segment);
+            }
+        }
+        return shape.toString();
+    }
+
+    private static String lastSegment(String path) {
+        String trimmed = path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+        return trimmed.substring(trimmed.lastIndexOf('/') + 1);
+    }
+
+    private static URI parse(String url) {
+        try {
+            return URI.create(url.trim());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static final class ShapeVerdicts {
+        private final AtomicInteger articles = new AtomicInteger();
+        private final AtomicInteger others = new AtomicInteger();
+    }
+}
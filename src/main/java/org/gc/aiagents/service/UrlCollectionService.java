@@ -6,12 +6,16 @@ import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -20,7 +24,13 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class UrlCollectionService {
     
-    private final AzureOpenAIService azureOpenAIService;
+    private final LlmRouter llmRouter;
+    private final PipelineMetrics pipelineMetrics;
+    private final UrlClassifier urlClassifier;
+    
+    // LLM calls of one parent scan's classification in flight at once
+    @Value("${blog-manager.scan.classify-concurrency:4}")
+    private int classifyConcurrency;
     
     private static final int MAX_PAGES = 1;
     private static final int MAX_URLS = 10;
@@ -37,6 +47,10 @@ public class UrlCollectionService {
     }
     
     public List<String> collectContentUrls(String baseUrl, int maxPages, int maxUrls) {
+        return pipelineMetrics.recordStage(PipelineMetrics.STAGE_CRAWL, () -> crawlContentUrls(baseUrl, maxPages, maxUrls));
+    }
+    
+    private List<String> crawlContentUrls(String baseUrl, int maxPages, int maxUrls) {
         log.info("Starting URL collection for: {}", baseUrl);
         
         String normalizedBaseUrl = normalizeBaseUrl(baseUrl);
@@ -101,38 +115,65 @@ public class UrlCollectionService {
         }
     }
     
-    public List<String> identifyBlogLinksWithLlm(List<String> candidateUrls, String parentUrl) {
+    /**
+     * Keeps the candidates that are articles. The {@link UrlClassifier} decides the clear cases from the URL
+     * alone; the rest go to the LLM in chunks, up to {@code blog-manager.scan.classify-concurrency} at once.
+     * How fast the chunks are answered is left to the LLM client's concurrency limit. The LLM's verdicts are
+     * fed back to the classifier. A chunk whose call fails contributes no links.
+     */
+    public Mono<List<String>> identifyBlogLinksWithLlm(List<String> candidateUrls, String parentUrl) {
         if (candidateUrls.isEmpty()) {
-            return new ArrayList<>();
+            return Mono.just(new ArrayList<>());
         }
         
-        log.info("Identifying blog links using LLM for {} candidates from {}", candidateUrls.size(), parentUrl);
-        
-        Set<String> allIdentifiedBlogLinks = new HashSet<>();
-        
-        // Process URLs in chunks
-        for (int i = 0; i < candidateUrls.size(); i += MAX_URLS_PER_LLM_CALL) {
-            int endIndex = Math.min(i + MAX_URLS_PER_LLM_CALL, candidateUrls.size());
-            List<String> chunk = candidateUrls.subList(i, endIndex);
-            
-            try {
-                List<String> identifiedChunk = callLlmForBlogIdentification(chunk, parentUrl);
-                allIdentifiedBlogLinks.addAll(identifiedChunk);
-                
-                // Rate limiting for LLM calls
-                Thread.sleep(2000);
-                
-            } catch (Exception e) {
-                log.error("Error calling LLM for blog identification: {}", e.getMessage());
+        Set<String> locallyIdentified = new HashSet<>();
+        List<String> unsureUrls = new ArrayList<>();
+        for (String url : candidateUrls) {
+            switch (urlClassifier.classify(url)) {
+                case ARTICLE -> {
+                    locallyIdentified.add(url);
+                    pipelineMetrics.recordUrlClassification("local", "article");
+                }
+                case NOT_ARTICLE -> pipelineMetrics.recordUrlClassification("local", "not_article");
+                case UNSURE -> unsureUrls.add(url);
             }
         }
         
-        log.info("LLM identified {} unique blog links for {}", allIdentifiedBlogLinks.size(), parentUrl);
+        log.info("Classified {} of {} candidates from {} locally ({} articles), identifying {} using LLM",
+                candidateUrls.size() - unsureUrls.size(), candidateUrls.size(), parentUrl, locallyIdentified.size(), unsureUrls.size());
         
-        return new ArrayList<>(allIdentifiedBlogLinks);
+        List<List<String>> chunks = new ArrayList<>();
+        for (int i = 0; i < unsureUrls.size(); i += MAX_URLS_PER_LLM_CALL) {
+            chunks.add(unsureUrls.subList(i, Math.min(i + MAX_URLS_PER_LLM_CALL, unsureUrls.size())));
+        }
+        
+        Map<String, Boolean> verdicts = new ConcurrentHashMap<>();
+        return Flux.fromIterable(chunks)
+                .flatMap(chunk -> callLlmForBlogIdentification(chunk, parentUrl)
+                        .doOnNext(identifiedChunk -> collectVerdicts(chunk, identifiedChunk, verdicts)), Math.max(1, classifyConcurrency))
+                .collect(() -> new HashSet<>(locallyIdentified), Set::addAll)
+                // Learned once per scan, so one scan counts as a single observation per URL shape
+                .doOnNext(allIdentifiedBlogLinks -> urlClassifier.learn(verdicts))
+                .map(allIdentifiedBlogLinks -> {
+                    log.info("Identified {} unique blog links for {}", allIdentifiedBlogLinks.size(), parentUrl);
+                    return new ArrayList<>(allIdentifiedBlogLinks);
+                });
+    }
+    
+    private void collectVerdicts(List<String> chunk, List<String> identifiedChunk, Map<String, Boolean> verdicts) {
+        Set<String> identified = identifiedChunk.stream().map(this::withoutTrailingSlash).collect(Collectors.toSet());
+        for (String url : chunk) {
+            boolean article = identified.contains(withoutTrailingSlash(url));
+            verdicts.put(url, article);
+            pipelineMetrics.recordUrlClassification("llm", article ? "article" : "not_article");
+        }
+    }
+    
+    private String withoutTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
     }
     
-    private List<String> callLlmForBlogIdentification(List<String> candidateUrls, String parentUrl) {
+    private Mono<List<String>> callLlmForBlogIdentification(List<String> candidateUrls, String parentUrl) {
         String systemPrompt = """
             You are an expert at web content analysis. Given a base URL and a list of URLs found on that domain, 
             your task is to identify which of these URLs are likely to be blog posts or articles. 
@@ -157,15 +198,14 @@ public class UrlCollectionService {
             userPromptBuilder.append("- ").append(url).append("\n");
         }
         
-        try {
-            String response = azureOpenAIService.getChatCompletion("azure-1", systemPrompt, userPromptBuilder.toString());
-            
-            return parseLlmResponse(response);
-            
-        } catch (Exception e) {
-            log.error("Error calling LLM for blog identification: {}", e.getMessage());
-            return new ArrayList<>();
-        }
+        // Empty when the call fails or the answer cannot be parsed: no links, and nothing to learn
+        return pipelineMetrics.timeStage(PipelineMetrics.STAGE_CLASSIFY,
+                        llmRouter.getChatCompletionAsync(null, "azure-1", PipelineMetrics.STAGE_CLASSIFY, systemPrompt, userPromptBuilder.toString()))
+                .mapNotNull(this::parseLlmResponse)
+                .onErrorResume(e -> {
+                    log.error("Error calling LLM for blog identification: {}", e.getMessage());
+                    return Mono.empty();
+                });
     }
     
     private List<String> parseLlmResponse(String response) {
@@ -187,11 +227,12 @@ public class UrlCollectionService {
                 return parseUrlList(jsonStr);
             }
             
-            return new ArrayList<>();
+            log.warn("Unexpected LLM response format for blog identification");
+            return null;
             
         } catch (Exception e) {
             log.error("Failed to parse LLM response: {}", e.getMessage());
-            return new ArrayList<>();
+            return null;
         }
     }
     
@@ -256,12 +297,13 @@ public class UrlCollectionService {
                !containsExcludedKeywords(fullUrl);
     }
     
-    private boolean containsExcludedKeywords(String url) {
+    // Package-private, like filterContentUrls, for the benchmarks in src/jmh
+    boolean containsExcludedKeywords(String url) {
         String lowerUrl = url.toLowerCase();
         return EXCLUDED_KEYWORDS.stream().anyMatch(lowerUrl::contains);
     }
     
-    private List<String> filterContentUrls(Set<String> collectedUrls, String baseUrl) {
+    List<String> filterContentUrls(Set<String> collectedUrls, String baseUrl) {
         return collectedUrls.stream()
                 .filter(url -> {
                     String path = url.substring(baseUrl.length()).replaceAll("/$", "");
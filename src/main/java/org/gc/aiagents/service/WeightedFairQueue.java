@@ -0,0 +1,151 @@
+package org.gc.aiagents.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.ToIntFunction;
+
+/**
+ * Orders queued article work across parent blogs.
+ *
+ * Each parent has its own lane. Inside a lane fresh articles come before retries, but a retry that has
+ * waited longer than the aging period ranks like a fresh article, so retries are never starved.
+ * Lanes are served by stride scheduling: every turn advances the lane's pass by 1/weight and the lane
+ * with the lowest pass goes next, so each parent gets turns in proportion to its weight no matter how
+ * many articles it queued. Lanes whose head is fresh (or aged) are served before lanes holding only retries.
+ *
+ * Not thread-safe; callers synchronize.
+ */
+public class WeightedFairQueue {
+
+    public enum Priority {
+        FRESH,
+        RETRY
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class Item {
+        private String key;
+        private String parentUid;
+        private Priority priority;
+        private Instant enqueuedAt;
+    }
+
+    private final Duration agingPeriod;
+    private final ToIntFunction<String> weights;
+    private final Map<String, Lane> lanes = new HashMap<>();
+    private final Map<String, Entry> entriesByKey = new HashMap<>();
+    private double virtualTime = 0;
+    private long sequence = 0;
+
+    public WeightedFairQueue(Duration agingPeriod, ToIntFunction<String> weights) {
+        this.agingPeriod = agingPeriod;
+        this.weights = weights;
+    }
+
+    /**
+     * Adds an item, or upgrades an already queued item with the same key from RETRY to FRESH.
+     * Returns false if the key was already queued.
+     */
+    public boolean offer(Item item) {
+        Entry existing = entriesByKey.get(item.getKey());
+        if (existing != null) {
+            if (existing.item.getPriority() == Priority.RETRY && item.getPriority() == Priority.FRESH) {
+                Lane lane = lanes.get(existing.item.getParentUid());
+                lane.queue.remove(existing);
+                existing.item.setPriority(Priority.FRESH);
+                existing.deadline = existing.item.getEnqueuedAt();
+                lane.queue.add(existing);
+            }
+            return false;
+        }
+
+        Lane lane = lanes.computeIfAbsent(item.getParentUid(), uid -> new Lane());
+        if (lane.queue.isEmpty()) {
+            // An idle lane must not bank turns it did not use while it had nothing queued
+            lane.pass = Math.max(lane.pass, virtualTime);
+        }
+        Instant deadline = item.getPriority() == Priority.RETRY ? item.getEnqueuedAt().plus(agingPeriod) : item.getEnqueuedAt();
+        Entry entry = new Entry(item, deadline, sequence++);
+        lane.queue.add(entry);
+        entriesByKey.put(item.getKey(), entry);
+        return true;
+    }
+
+    /**
+     * Removes and returns the next item to process, or null if nothing is queued.
+     */
+    public Item poll(Instant now) {
+        Lane selected = null;
+        boolean selectedUrgent = false;
+        for (Lane lane : lanes.values()) {
+            Entry head = lane.queue.peek();
+            if (head == null) continue;
+
+            boolean urgent = !head.deadline.isAfter(now);
+            if (selected == null
+                    || (urgent && !selectedUrgent)
+                    || (urgent == selectedUrgent && isAheadOf(lane, selected))) {
+                selected = lane;
+                selectedUrgent = urgent;
+            }
+        }
+        if (selected == null) {
+            return null;
+        }
+
+        Entry entry = selected.queue.poll();
+        entriesByKey.remove(entry.item.getKey());
+        virtualTime = selected.pass;
+        selected.pass += 1.0 / Math.max(1, weights.applyAsInt(entry.item.getParentUid()));
+        return entry.item;
+    }
+
+    public boolean contains(String key) {
+        return entriesByKey.containsKey(key);
+    }
+
+    public int size() {
+        return entriesByKey.size();
+    }
+
+    public Map<String, Integer> sizeByParent() {
+        Map<String, Integer> sizes = new HashMap<>();
+        lanes.forEach((parentUid, lane) -> {
+            if (!lane.queue.isEmpty()) {
+                sizes.put(parentUid, lane.queue.size());
+            }
+        });
+        return sizes;
+    }
+
+    private boolean isAheadOf(Lane lane, Lane other) {
+        if (lane.pass != other.pass) {
+            return lane.pass < other.pass;
+        }
+        return ENTRY_ORDER.compare(lane.queue.peek(), other.queue.peek()) < 0;
+    }
+
+    private static final Comparator<Entry> ENTRY_ORDER = Comparator
+            .comparing((Entry entry) -> entry.deadline)
+            .thenComparingLong(entry -> entry.sequence);
+
+    private static class Lane {
+        private final PriorityQueue<Entry> queue = new PriorityQueue<>(ENTRY_ORDER);
+        private double pass;
+    }
+
+    @AllArgsConstructor
+    private static class Entry {
+        private final Item item;
+        private Instant deadline;
+        private final long sequence;
+    }
+}
@@ -0,0 +1,105 @@
+package org.gc.aiagents;
+
+import org.gc.aiagents.service.AdaptiveConcurrencyLimiter;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    void limitGrowsWhileSaturatedAndHalvesOnThrottling() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 8, 0.5, Double.MAX_VALUE);
+
+        // Keep the limit fully used: every round takes all permits and completes them
+        for (int round = 0; round < 40; round++) {
+            List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+            for (int i = 0; i < limiter.getLimit(); i++) {
+                permits.add(limiter.tryAcquire());
+            }
+            permits.forEach(AdaptiveConcurrencyLimiter.Permit::success);
+        }
+        assertEquals(8, limiter.getLimit());
+
+        AdaptiveConcurrencyLimiter.Permit throttled = limiter.tryAcquire();
+        throttled.dropped();
+        throttled.dropped(); // A second outcome for the same permit is ignored
+        assertEquals(4, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void limitStaysPutWhenCallersDoNotUseIt() {
+        // Latency tolerance off: back-to-back calls here take microseconds, so their latency is only noise
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 16, 0.5, Double.MAX_VALUE);
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire().success();
+        }
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    void fixedLimiterNeverMoves() {
+        AdaptiveConcurrencyLimiter limiter = AdaptiveConcurrencyLimiter.fixed(3);
+        limiter.tryAcquire().dropped();
+        List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            permits.add(limiter.tryAcquire());
+        }
+        permits.forEach(AdaptiveConcurrencyLimiter.Permit::success);
+        assertEquals(3, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void waitingCallersGetFreedPermitsInOrderAndCancelledOnesKeepNone() {
+        AdaptiveConcurrencyLimiter limiter = AdaptiveConcurrencyLimiter.fixed(1);
+        AdaptiveConcurrencyLimiter.Permit busy = limiter.tryAcquire();
+        assertNull(limiter.tryAcquire());
+
+        List<String> started = new ArrayList<>();
+        Sinks.One<String> secondCall = Sinks.one();
+        AtomicReference<AdaptiveConcurrencyLimiter.Permit> secondPermit = new AtomicReference<>();
+        Disposable first = limiter.withPermit(permit -> {
+            started.add("first");
+            return Mono.just("first");
+        }).subscribe();
+        limiter.withPermit(permit -> {
+            started.add("second");
+            secondPermit.set(permit);
+            return secondCall.asMono();
+        }).subscribe();
+        assertEquals(2, limiter.getWaiting());
+
+        first.dispose(); // Cancelled while waiting, e.g. a hedged call whose other side won
+        assertEquals(1, limiter.getWaiting());
+
+        busy.success();
+        assertEquals(List.of("second"), started);
+        assertEquals(1, limiter.getInFlight());
+
+        secondPermit.get().success();
+        secondCall.tryEmitValue("second");
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(0, limiter.getWaiting());
+    }
+
+    @Test
+    void cancellingARunningCallReleasesItsPermit() {
+        AdaptiveConcurrencyLimiter limiter = AdaptiveConcurrencyLimiter.fixed(1);
+
+        Disposable call = limiter.withPermit(permit -> Mono.never()).subscribe();
+        assertEquals(1, limiter.getInFlight());
+
+        call.dispose();
+        assertEquals(0, limiter.getInFlight());
+    }
+}
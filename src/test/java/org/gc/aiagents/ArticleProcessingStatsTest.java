@@ -0,0 +1,61 @@
+package org.gc.aiagents;
+
+import com.azure.ai.openai.models.CompletionsUsage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.propagation.Propagator;
+import org.gc.aiagents.domain.ArticleScrapeStatus;
+import org.gc.aiagents.repository.ArticleScrapeStatusRepository;
+import org.gc.aiagents.service.ArticleProcessingStats;
+import org.gc.aiagents.service.PipelineMetrics;
+import org.gc.aiagents.service.PipelineTracing;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ArticleProcessingStatsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PipelineMetrics metrics = new PipelineMetrics(meterRegistry,
+            new PipelineTracing(ObservationRegistry.NOOP, Propagator.NOOP), mock(ArticleScrapeStatusRepository.class));
+
+    @Test
+    void timedStagesAndLlmUsageAddToTheStatsInTheContext() {
+        ArticleProcessingStats stats = new ArticleProcessingStats();
+        CompletionsUsage usage = mock(CompletionsUsage.class);
+        when(usage.getPromptTokens()).thenReturn(1200);
+        when(usage.getCompletionTokens()).thenReturn(300);
+
+        Mono<String> llmCall = Mono.deferContextual(context -> {
+            metrics.recordLlmUsage("azure-2", "gpt-4o", PipelineMetrics.STAGE_EXTRACT_DFIR, usage, 0.0045, context);
+            return Mono.delay(Duration.ofMillis(20)).thenReturn("ok");
+        });
+        Mono.when(
+                metrics.timeStage(PipelineMetrics.STAGE_EXTRACT_DFIR, llmCall),
+                metrics.timeStage(PipelineMetrics.STAGE_EXTRACT_DFIR, llmCall))
+                .contextWrite(Context.of(ArticleProcessingStats.CONTEXT_KEY, stats))
+                .block();
+
+        // Both chunks ran concurrently, so the stage sum is about twice the wall time
+        assertTrue(stats.getStageDurationsMs().get(PipelineMetrics.STAGE_EXTRACT_DFIR) >= 40);
+        assertEquals(2400, stats.getPromptTokens());
+        assertEquals(600, stats.getCompletionTokens());
+        assertEquals(0.009, stats.getCostUsd(), 1e-9);
+        ArticleScrapeStatus.LlmUsage dfirUsage = stats.getLlmUsageByTask().get(PipelineMetrics.STAGE_EXTRACT_DFIR);
+        assertEquals(2, dfirUsage.getCalls());
+        assertEquals(2400, dfirUsage.getPromptTokens());
+        assertEquals(0.009, meterRegistry.get("blog.manager.llm.cost").tag("task", PipelineMetrics.STAGE_EXTRACT_DFIR).counter().count(), 1e-9);
+    }
+
+    @Test
+    void stagesOutsideAnArticleAreOnlyTimed() {
+        assertEquals("ok", metrics.timeStage(PipelineMetrics.STAGE_CRAWL, Mono.just("ok")).block());
+    }
+}
@@ -0,0 +1,92 @@
+package org.gc.aiagents;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.propagation.Propagator;
+import org.gc.aiagents.domain.ArticleScrapeStatus;
+import org.gc.aiagents.properties.WorkQueueProperties;
+import org.gc.aiagents.repository.ArticleScrapeStatusRepository;
+import org.gc.aiagents.repository.ParentBlogScheduleRepository;
+import org.gc.aiagents.service.ArticleWorkScheduler;
+import org.gc.aiagents.service.BlogManagerService;
+import org.gc.aiagents.service.ParentScanDispatcher;
+import org.gc.aiagents.service.PipelineSchedulers;
+import org.gc.aiagents.service.PipelineTracing;
+import org.gc.aiagents.service.PythonApiService;
+import org.gc.aiagents.service.ReportStore;
+import org.gc.aiagents.service.RetryBackoffPolicy;
+import org.gc.aiagents.service.UrlCollectionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BlogManagerServiceTest {
+
+    private static final String PARENT_URL = "https://blog.example.com/";
+
+    private final ParentBlogScheduleRepository parentBlogRepository = mock(ParentBlogScheduleRepository.class);
+    private final ArticleScrapeStatusRepository articleRepository = mock(ArticleScrapeStatusRepository.class);
+    private final UrlCollectionService urlCollectionService = mock(UrlCollectionService.class);
+    private final ArticleWorkScheduler articleWorkScheduler = new ArticleWorkScheduler(new WorkQueueProperties(), new SimpleMeterRegistry());
+    private BlogManagerService blogManagerService;
+
+    @BeforeEach
+    void setUp() {
+        when(parentBlogRepository.findById(anyString())).thenReturn(Mono.empty());
+        // The first article started holds the work queue's only slot
+        when(articleRepository.findByArticleUrl(anyString())).thenReturn(Mono.never());
+
+        PipelineSchedulers pipelineSchedulers = mock(PipelineSchedulers.class);
+        when(pipelineSchedulers.fetch()).thenReturn(Schedulers.immediate());
+
+        blogManagerService = new BlogManagerService(parentBlogRepository, articleRepository, urlCollectionService,
+                mock(PythonApiService.class), mock(ReportStore.class), articleWorkScheduler,
+                new ParentScanDispatcher(new SimpleMeterRegistry()),
+                new PipelineTracing(ObservationRegistry.NOOP, Propagator.NOOP), mock(RetryBackoffPolicy.class),
+                new ObjectMapper(), pipelineSchedulers);
+    }
+
+    @Test
+    void aScanEndsOnceItsArticlesAreQueued() {
+        List<String> articleUrls = List.of(PARENT_URL + "2024/01/a", PARENT_URL + "2024/01/b", PARENT_URL + "2024/01/c");
+        when(urlCollectionService.collectContentUrls(PARENT_URL)).thenReturn(articleUrls);
+        when(urlCollectionService.identifyBlogLinksWithLlm(articleUrls, PARENT_URL)).thenReturn(Mono.just(articleUrls));
+
+        blogManagerService.scanParentBlogUrl("parent-1", PARENT_URL).block(Duration.ofSeconds(5));
+
+        assertEquals(1, articleWorkScheduler.getInFlightCount());
+        assertEquals(2, articleWorkScheduler.getQueuedCount());
+        verify(parentBlogRepository, times(2)).findById("parent-1"); // Scan attempt and scan success
+    }
+
+    @Test
+    void everyPendingArticleReachesTheFairQueueBehindALargeBacklog() {
+        // More pending articles of one parent than flatMap's default concurrency, returned before the other parent's
+        List<ArticleScrapeStatus> pending = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            pending.add(ArticleScrapeStatus.create(PARENT_URL + "2024/01/" + i, "parent-1"));
+        }
+        pending.add(ArticleScrapeStatus.create("https://other.example.com/2024/01/a", "parent-2"));
+        when(articleRepository.findByScrapeStatus(ArticleScrapeStatus.ScrapeStatus.PENDING)).thenReturn(Flux.fromIterable(pending));
+
+        blogManagerService.processPendingArticles().subscribe();
+
+        assertEquals(1, articleWorkScheduler.getInFlightCount());
+        assertEquals(Map.of("parent-1", 299, "parent-2", 1), articleWorkScheduler.getQueuedCountByParent());
+    }
+}
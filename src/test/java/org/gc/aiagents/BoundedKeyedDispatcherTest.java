@@ -0,0 +1,56 @@
+package org.gc.aiagents;
+
+import org.gc.aiagents.service.BoundedKeyedDispatcher;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedKeyedDispatcherTest {
+
+    @Test
+    void startsInSubmissionOrderWithinTheLimitAndRunsEachKeyOnce() {
+        BoundedKeyedDispatcher<String> dispatcher =
+                new BoundedKeyedDispatcher<>(BoundedKeyedDispatcher.fifo(), Function.identity(), () -> 1, "test");
+        List<String> started = new ArrayList<>();
+        Sinks.Empty<Void> first = Sinks.empty();
+
+        Mono<Void> a = dispatcher.submit("a", () -> {
+            started.add("a");
+            return first.asMono();
+        });
+        dispatcher.submit("b", () -> Mono.fromRunnable(() -> started.add("b")));
+        dispatcher.submit("c", () -> Mono.fromRunnable(() -> started.add("c")));
+        dispatcher.submit("b", () -> Mono.fromRunnable(() -> started.add("b again"))); // Already queued
+
+        assertEquals(List.of("a"), started);
+        assertEquals(2, dispatcher.getQueuedCount());
+        assertEquals(1, dispatcher.getRunningCount());
+
+        first.tryEmitEmpty();
+
+        assertEquals(List.of("a", "b", "c"), started);
+        assertEquals(0, dispatcher.getQueuedCount());
+        assertEquals(0, dispatcher.getRunningCount());
+        assertTrue(a.toFuture().isDone());
+    }
+
+    @Test
+    void aFailedTaskStillCompletesItsSubmissionAndFreesItsSlot() {
+        BoundedKeyedDispatcher<String> dispatcher =
+                new BoundedKeyedDispatcher<>(BoundedKeyedDispatcher.fifo(), Function.identity(), () -> 1, "test");
+
+        Mono<Void> failed = dispatcher.submit("a", () -> Mono.error(new IllegalStateException("boom")));
+        Mono<Void> next = dispatcher.submit("b", Mono::empty);
+
+        assertTrue(failed.toFuture().isDone());
+        assertTrue(next.toFuture().isDone());
+        assertEquals(0, dispatcher.getRunningCount());
+    }
+}
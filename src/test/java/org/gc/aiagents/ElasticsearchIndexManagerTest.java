@@ -0,0 +1,114 @@
+package org.gc.aiagents;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.mapping.Property;
+import co.elastic.clients.elasticsearch.ilm.ElasticsearchIlmClient;
+import co.elastic.clients.elasticsearch.ilm.PutLifecycleRequest;
+import co.elastic.clients.elasticsearch.indices.CreateIndexRequest;
+import co.elastic.clients.elasticsearch.indices.ElasticsearchIndicesClient;
+import co.elastic.clients.elasticsearch.indices.ExistsAliasRequest;
+import co.elastic.clients.elasticsearch.indices.ExistsRequest;
+import co.elastic.clients.elasticsearch.indices.PutIndexTemplateRequest;
+import co.elastic.clients.elasticsearch.indices.PutIndicesSettingsRequest;
+import co.elastic.clients.transport.endpoints.BooleanResponse;
+import org.gc.aiagents.properties.ElasticsearchIndexProperties;
+import org.gc.aiagents.properties.ReportStoreProperties;
+import org.gc.aiagents.service.ElasticsearchIndexManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.elasticsearch.core.convert.MappingElasticsearchConverter;
+import org.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ElasticsearchIndexManagerTest {
+
+    private final ElasticsearchClient client = mock(ElasticsearchClient.class);
+    private final ElasticsearchIndicesClient indices = mock(ElasticsearchIndicesClient.class);
+    private final ElasticsearchIlmClient ilm = mock(ElasticsearchIlmClient.class);
+    private final ElasticsearchIndexProperties properties = new ElasticsearchIndexProperties();
+    private final ReportStoreProperties reportStoreProperties = new ReportStoreProperties();
+    private ElasticsearchIndexManager indexManager;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(client.indices()).thenReturn(indices);
+        when(client.ilm()).thenReturn(ilm);
+        when(indices.existsAlias(any(ExistsAliasRequest.class))).thenReturn(new BooleanResponse(false));
+        indexManager = new ElasticsearchIndexManager(client,
+                new MappingElasticsearchConverter(new SimpleElasticsearchMappingContext()), properties, reportStoreProperties);
+    }
+
+    @Test
+    void createsIndicesFromTemplatesWithTunedMappings() throws Exception {
+        when(indices.exists(any(ExistsRequest.class))).thenReturn(new BooleanResponse(false));
+
+        indexManager.manageIndices();
+
+        Map<String, PutIndexTemplateRequest> templates = captureTemplates();
+        assertEquals(List.of("article_scrape_status"), templates.get("article_scrape_status").indexPatterns());
+        Map<String, Property> status = templates.get("article_scrape_status").template().mappings().properties();
+        assertFalse(status.get("externalApiResponse").object().enabled());
+        assertFalse(status.get("articleUrl").keyword().docValues());
+        assertNotEquals(Boolean.FALSE, status.get("scrapeStatus").keyword().docValues()); // Aggregated by the stats endpoint
+        assertNotEquals(Boolean.FALSE, status.get("discoveryDatetimeUtc").date().docValues());
+        assertEquals("1s", templates.get("article_scrape_status").template().settings().refreshInterval().time());
+
+        PutIndexTemplateRequest threatIntel = templates.get("threat-intel");
+        assertEquals(List.of("threat-intel-*"), threatIntel.indexPatterns());
+        assertEquals("threat-intel-rollover", threatIntel.template().settings().lifecycle().name());
+        assertEquals("threat-intel", threatIntel.template().settings().lifecycle().rolloverAlias());
+
+        ArgumentCaptor<CreateIndexRequest> created = ArgumentCaptor.forClass(CreateIndexRequest.class);
+        verify(indices, times(4)).create(created.capture());
+        assertEquals(List.of("article_scrape_status", "parent_blog_schedules", "article_reports", "threat-intel-000001"),
+                created.getAllValues().stream().map(CreateIndexRequest::index).collect(Collectors.toList()));
+        assertTrue(created.getAllValues().get(3).aliases().get("threat-intel").isWriteIndex());
+
+        ArgumentCaptor<PutLifecycleRequest> policy = ArgumentCaptor.forClass(PutLifecycleRequest.class);
+        verify(ilm).putLifecycle(policy.capture());
+        assertTrue(policy.getValue().policy().phases().hot().actions().toString().contains("max_primary_shard_size"));
+    }
+
+    @Test
+    void existingIndicesOnlyGetTheirDynamicSettings() throws Exception {
+        properties.getArticleStatus().setReplicas(0);
+        properties.getThreatIntelRollover().setEnabled(false);
+        reportStoreProperties.setType(ReportStoreProperties.Type.FILESYSTEM); // No article_reports index
+        when(indices.exists(any(ExistsRequest.class))).thenReturn(new BooleanResponse(true));
+        when(indices.existsAlias(any(ExistsAliasRequest.class))).thenReturn(new BooleanResponse(true));
+
+        indexManager.manageIndices();
+
+        verify(indices, never()).create(any(CreateIndexRequest.class));
+        verify(ilm, never()).putLifecycle(any(PutLifecycleRequest.class));
+        ArgumentCaptor<PutIndicesSettingsRequest> updated = ArgumentCaptor.forClass(PutIndicesSettingsRequest.class);
+        verify(indices, times(3)).putSettings(updated.capture());
+        PutIndicesSettingsRequest articleStatus = updated.getAllValues().get(0);
+        assertEquals(List.of("article_scrape_status"), articleStatus.index());
+        assertEquals("0", articleStatus.settings().numberOfReplicas());
+        assertNull(articleStatus.settings().numberOfShards()); // Fixed once the index exists
+    }
+
+    private Map<String, PutIndexTemplateRequest> captureTemplates() throws Exception {
+        ArgumentCaptor<PutIndexTemplateRequest> templates = ArgumentCaptor.forClass(PutIndexTemplateRequest.class);
+        verify(indices, times(4)).putIndexTemplate(templates.capture());
+        return templates.getAllValues().stream().collect(Collectors.toMap(PutIndexTemplateRequest::name, Function.identity()));
+    }
+}
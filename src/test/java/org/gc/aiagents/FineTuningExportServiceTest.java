@@ -0,0 +1,176 @@
+package org.gc.aiagents;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.gc.aiagents.domain.ChatSample;
+import org.gc.aiagents.domain.TrainingData;
+import org.gc.aiagents.domain.ValidationData;
+import org.gc.aiagents.properties.PipelineSchedulerProperties;
+import org.gc.aiagents.service.FineTuningExportService;
+import org.gc.aiagents.service.PipelineSchedulers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FineTuningExportServiceTest {
+
+    private static final int TRAINING_SAMPLES = 25;
+    private static final int VALIDATION_SAMPLES = 5;
+
+    @TempDir
+    Path exportDir;
+
+    private final ElasticsearchOperations elasticsearchOperations = mock(ElasticsearchOperations.class);
+    private final AtomicBoolean failThirdTrainingPage = new AtomicBoolean(true);
+    private PipelineSchedulers pipelineSchedulers;
+    private FineTuningExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        when(elasticsearchOperations.getIndexCoordinatesFor(any())).thenReturn(IndexCoordinates.of("samples"));
+        when(elasticsearchOperations.openPointInTime(any(), any())).thenReturn("pit");
+        when(elasticsearchOperations.search(any(Query.class), eq(TrainingData.class)))
+                .thenAnswer(invocation -> page(invocation.getArgument(0), TRAINING_SAMPLES, i -> {
+                    TrainingData sample = new TrainingData();
+                    sample.setId("train-" + i);
+                    sample.setMessages(List.of(trainingMessage("train-" + i)));
+                    return sample;
+                }));
+        when(elasticsearchOperations.search(any(Query.class), eq(ValidationData.class)))
+                .thenAnswer(invocation -> page(invocation.getArgument(0), VALIDATION_SAMPLES, i -> {
+                    ValidationData sample = new ValidationData();
+                    sample.setId("validation-" + i);
+                    ValidationData.Message message = new ValidationData.Message();
+                    message.setRole("user");
+                    message.setContent("validation-" + i);
+                    sample.setMessages(List.of(message));
+                    return sample;
+                }));
+
+        pipelineSchedulers = new PipelineSchedulers(new PipelineSchedulerProperties(), new SimpleMeterRegistry());
+        exportService = new FineTuningExportService(elasticsearchOperations, new ObjectMapper(), pipelineSchedulers);
+        ReflectionTestUtils.setField(exportService, "exportDir", exportDir.toString());
+        ReflectionTestUtils.setField(exportService, "pageSize", 10);
+        ReflectionTestUtils.setField(exportService, "keepAliveMinutes", 30);
+        ReflectionTestUtils.setField(exportService, "checkpointEvery", 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipelineSchedulers.dispose();
+    }
+
+    @Test
+    void interruptedExportResumesWithoutLosingOrRepeatingSamples() throws IOException {
+        assertThrows(RuntimeException.class, () -> exportService.exportDataset(0.2).block());
+        assertTrue(Files.exists(exportDir.resolve(FineTuningExportService.CHECKPOINT_FILE)));
+        verify(elasticsearchOperations, never()).closePointInTime(any()); // The checkpoint still needs it
+
+        Map<String, Object> result = exportService.exportDataset(0.2).block();
+
+        List<String> train = contents(FineTuningExportService.TRAIN_FILE);
+        List<String> validation = contents(FineTuningExportService.VALIDATION_FILE);
+        assertEquals(true, result.get("resumed"));
+        assertEquals((long) train.size(), result.get("train_samples"));
+        assertEquals((long) validation.size(), result.get("validation_samples"));
+        assertEquals(TRAINING_SAMPLES + VALIDATION_SAMPLES, train.size() + validation.size());
+        assertEquals(TRAINING_SAMPLES + VALIDATION_SAMPLES, new HashSet<>(concat(train, validation)).size());
+        assertTrue(validation.containsAll(List.of("validation-0", "validation-4")));
+        assertFalse(Files.exists(exportDir.resolve(FineTuningExportService.CHECKPOINT_FILE)));
+        verify(elasticsearchOperations, times(2)).closePointInTime("pit"); // Training and validation, once read to the end
+    }
+
+    @Test
+    void trainingSamplesKeepTheirSideOfTheSplit() throws IOException {
+        failThirdTrainingPage.set(false);
+        exportService.exportDataset(0.2).block();
+        List<String> firstValidation = contents(FineTuningExportService.VALIDATION_FILE);
+
+        exportService.exportDataset(0.2).block();
+
+        assertEquals(firstValidation, contents(FineTuningExportService.VALIDATION_FILE));
+    }
+
+    private SearchHits<?> page(Query query, int total, Function<Integer, ChatSample> sample) {
+        SearchHits<?> hits = mock(SearchHits.class);
+        when(hits.getPointInTimeId()).thenReturn("pit");
+        int from = query.getSearchAfter() == null ? 0 : ((Number) query.getSearchAfter().get(0)).intValue() + 1;
+        if (query.getMaxResults() != null && query.getMaxResults() == 0) {
+            when(hits.getSearchHits()).thenReturn(List.of());
+            return hits;
+        }
+        if (total == TRAINING_SAMPLES && from == 20 && failThirdTrainingPage.getAndSet(false)) {
+            throw new IllegalStateException("connection reset");
+        }
+        List<SearchHit<ChatSample>> page = new ArrayList<>();
+        for (int i = from; i < Math.min(total, from + query.getPageable().getPageSize()); i++) {
+            @SuppressWarnings("unchecked")
+            SearchHit<ChatSample> hit = mock(SearchHit.class);
+            when(hit.getContent()).thenReturn(sample.apply(i));
+            when(hit.getSortValues()).thenReturn(List.of((long) i));
+            page.add(hit);
+        }
+        doReturn(page).when(hits).getSearchHits();
+        return hits;
+    }
+
+    private static TrainingData.Message trainingMessage(String content) {
+        TrainingData.Message message = new TrainingData.Message();
+        message.setRole("user");
+        message.setContent(content);
+        return message;
+    }
+
+    private List<String> contents(String file) throws IOException {
+        List<String> contents = new ArrayList<>();
+        ObjectMapper objectMapper = new ObjectMapper();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(exportDir.resolve(file))), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                contents.add(objectMapper.readTree(line).path("messages").path(0).path("content").asText());
+            }
+        }
+        return contents;
+    }
+
+    private static List<String> concat(List<String> first, List<String> second) {
+        List<String> all = new ArrayList<>(first);
+        all.addAll(second);
+        return all;
+    }
+}
@@ -0,0 +1,51 @@
+package org.gc.aiagents;
+
+import org.gc.aiagents.properties.AzureOpenAIProperties;
+import org.gc.aiagents.service.HedgingPolicy;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HedgingPolicyTest {
+
+    @Test
+    void hedgesAfterTheTaskPercentileOnceEnoughCallsWereSeen() {
+        HedgingPolicy policy = new HedgingPolicy(properties());
+
+        for (int millis = 1; millis <= 19; millis++) {
+            policy.recordLatency("extract_dfir", Duration.ofMillis(millis * 100L));
+        }
+        assertNull(policy.hedgeDelay("extract_dfir"));
+
+        policy.recordLatency("extract_dfir", Duration.ofMillis(2000));
+        assertEquals(Duration.ofMillis(1900), policy.hedgeDelay("extract_dfir"));
+        assertNull(policy.hedgeDelay("extract_indicators"));
+        assertEquals("azure-1", policy.alternateFor("azure-2"));
+    }
+
+    @Test
+    void hedgesAreCappedByTheBudget() {
+        HedgingPolicy policy = new HedgingPolicy(properties());
+
+        for (int call = 0; call < 19; call++) {
+            policy.onCall();
+        }
+        assertFalse(policy.tryAcquireHedge());
+        policy.onCall();
+        assertTrue(policy.tryAcquireHedge());
+        assertFalse(policy.tryAcquireHedge());
+    }
+
+    private static AzureOpenAIProperties properties() {
+        AzureOpenAIProperties properties = new AzureOpenAIProperties();
+        properties.getHedging().setEnabled(true);
+        properties.getHedging().setAlternates(Map.of("azure-1", "azure-2", "azure-2", "azure-1"));
+        return properties;
+    }
+}
@@ -0,0 +1,69 @@
+package org.gc.aiagents;
+
+import org.gc.aiagents.properties.LlmProperties;
+import org.gc.aiagents.service.LlmProvider;
+import org.gc.aiagents.service.LlmRouter;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LlmRouterTest {
+
+    private final LlmProperties properties = new LlmProperties();
+    private final LlmProvider azure = new NamedProvider("azure", "azure-1", "azure-2");
+    private final LlmProvider local = new NamedProvider("openai-compatible", "small", "large");
+
+    @Test
+    void taskRouteWinsOverTheCallersProvider() {
+        properties.getRoutes().put("classify", "openai-compatible");
+        properties.getRoutes().put("extract_dfir", "openai-compatible:large");
+        LlmRouter router = new LlmRouter(List.of(azure, local), properties);
+
+        assertEquals("openai-compatible/small", call(router, "azure", "azure-1", "classify"));
+        assertEquals("openai-compatible/large", call(router, "azure", "azure-2", "extract_dfir"));
+        assertEquals("azure/azure-1", call(router, "azure", "azure-1", "extract_indicators"));
+    }
+
+    @Test
+    void callersProviderIsUsedWithoutARouteAndUnknownOnesFallBack() {
+        LlmRouter router = new LlmRouter(List.of(azure, local), properties);
+
+        assertEquals("openai-compatible/small", call(router, "openai-compatible", "azure-2", "extract_dfir"));
+        assertEquals("azure/azure-2", call(router, "anthropic", "azure-2", "extract_dfir"));
+        assertEquals("azure/azure-2", call(router, null, "azure-2", "extract_dfir"));
+    }
+
+    private static String call(LlmRouter router, String provider, String defaultClient, String task) {
+        return router.getChatCompletionAsync(provider, defaultClient, task, "system", "user").block();
+    }
+
+    /**
+     * Answers every call with the provider and client it reached.
+     */
+    private record NamedProvider(String name, Set<String> clients) implements LlmProvider {
+
+        NamedProvider(String name, String... clients) {
+            this(name, new LinkedHashSet<>(List.of(clients)));
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Set<String> getClientNames() {
+            return clients;
+        }
+
+        @Override
+        public Mono<String> getChatCompletionAsync(String clientName, String task, String systemPrompt, String userPrompt) {
+            return Mono.just(name + "/" + clientName);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package org.gc.aiagents;
+
+import org.gc.aiagents.domain.ParentBlogSchedule;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParentBlogScheduleJitterTest {
+
+    private static final Instant T0 = Instant.parse("2025-01-01T00:00:00Z");
+    private static final Duration WEEK = Duration.ofDays(7);
+
+    @Test
+    void nextScanKeepsParentPhaseAndStaysNearInterval() {
+        String parentUid = UUID.randomUUID().toString();
+        Instant first = ParentBlogSchedule.nextAlignedScan(parentUid, WEEK, T0);
+        Duration gap = Duration.between(T0, first);
+        assertTrue(gap.compareTo(WEEK.dividedBy(2)) >= 0 && gap.compareTo(WEEK.multipliedBy(3).dividedBy(2)) < 0, "gap " + gap);
+
+        // A scan that starts on its slot (or a little late) is next due exactly one interval after the slot
+        assertEquals(first.plus(WEEK), ParentBlogSchedule.nextAlignedScan(parentUid, WEEK, first));
+        assertEquals(first.plus(WEEK), ParentBlogSchedule.nextAlignedScan(parentUid, WEEK, first.plus(Duration.ofMinutes(20))));
+    }
+
+    @Test
+    void parentsScannedTogetherAreSpreadAcrossTheInterval() {
+        Set<Long> busyDays = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            Instant next = ParentBlogSchedule.nextAlignedScan(UUID.randomUUID().toString(), WEEK, T0);
+            busyDays.add(Duration.between(T0, next).toDays());
+        }
+        // 200 parents scanned at the same moment are next due over a whole interval's worth of days
+        assertTrue(busyDays.size() >= 7, "next scans fall on " + busyDays);
+    }
+
+    @Test
+    void newParentsStartWithinInitialSpread() {
+        Instant before = Instant.now();
+        ParentBlogSchedule schedule = ParentBlogSchedule.create("https://example.com/blog", 24, Duration.ofMinutes(60));
+        Duration offset = Duration.between(before, schedule.getNextScanDatetimeUtc());
+        assertTrue(!offset.isNegative() && offset.compareTo(Duration.ofMinutes(61)) < 0, "offset " + offset);
+    }
+}
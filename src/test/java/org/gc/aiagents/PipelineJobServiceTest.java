@@ -0,0 +1,94 @@
+package org.gc.aiagents;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.gc.aiagents.domain.PipelineJob;
+import org.gc.aiagents.properties.WorkQueueProperties;
+import org.gc.aiagents.repository.PipelineJobRepository;
+import org.gc.aiagents.service.ArticleWorkScheduler;
+import org.gc.aiagents.service.BlogManagerService;
+import org.gc.aiagents.service.FineTuningExportService;
+import org.gc.aiagents.service.ParentScanDispatcher;
+import org.gc.aiagents.service.PipelineJobService;
+import org.gc.aiagents.service.PipelineSchedulers;
+import org.gc.aiagents.service.PythonApiService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PipelineJobServiceTest {
+
+    private static final String URL = "https://example.com/report";
+
+    private final PipelineJobRepository jobRepository = mock(PipelineJobRepository.class);
+    private final PythonApiService pythonApiService = mock(PythonApiService.class);
+    private final Map<String, PipelineJob> stored = new ConcurrentHashMap<>();
+    private PipelineJobService jobService;
+
+    @BeforeEach
+    void setUp() {
+        when(jobRepository.save(any(PipelineJob.class))).thenAnswer(invocation -> {
+            PipelineJob job = invocation.getArgument(0);
+            stored.put(job.getId(), job.toBuilder().build());
+            return job;
+        });
+        when(jobRepository.findById(anyString())).thenAnswer(invocation -> Optional.ofNullable(stored.get(invocation.<String>getArgument(0))));
+
+        // Jobs run in the calling thread so their states can be asserted right after submitting
+        PipelineSchedulers pipelineSchedulers = mock(PipelineSchedulers.class);
+        when(pipelineSchedulers.elasticsearch()).thenReturn(Schedulers.immediate());
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        jobService = new PipelineJobService(jobRepository, pythonApiService, mock(BlogManagerService.class),
+                new ArticleWorkScheduler(new WorkQueueProperties(), meterRegistry), new ParentScanDispatcher(meterRegistry),
+                mock(FineTuningExportService.class), pipelineSchedulers);
+        ReflectionTestUtils.setField(jobService, "eventsPollSeconds", 60);
+    }
+
+    @Test
+    void extractionJobReturnsAtOnceAndStoresTheReport() {
+        Sinks.One<Map<String, Object>> report = Sinks.one();
+        when(pythonApiService.extractBlogContent(URL, "azure")).thenReturn(report.asMono());
+
+        PipelineJob submitted = jobService.submitExtraction(URL, "azure").block();
+        assertEquals(PipelineJob.JobStatus.QUEUED, submitted.getStatus());
+        assertEquals(PipelineJob.JobStatus.RUNNING, jobService.getJob(submitted.getId()).block().getStatus());
+
+        Mono<List<PipelineJob.JobStatus>> updates = jobService.jobUpdates(submitted.getId())
+                .map(PipelineJob::getStatus)
+                .collectList()
+                .cache();
+        updates.subscribe();
+        report.tryEmitValue(Map.of("id", "report-1"));
+
+        assertEquals(List.of(PipelineJob.JobStatus.RUNNING, PipelineJob.JobStatus.SUCCEEDED), updates.block(Duration.ofSeconds(5)));
+        PipelineJob finished = jobService.getJob(submitted.getId()).block();
+        assertEquals(Map.of("id", "report-1"), finished.getResult());
+        assertEquals(1, finished.getAttempts());
+    }
+
+    @Test
+    void failedExtractionKeepsTheError() {
+        when(pythonApiService.extractBlogContent(URL, "azure")).thenReturn(Mono.error(new IllegalStateException("preprocessing failed")));
+
+        PipelineJob submitted = jobService.submitExtraction(URL, "azure").block();
+
+        PipelineJob finished = jobService.getJob(submitted.getId()).block();
+        assertEquals(PipelineJob.JobStatus.FAILED, finished.getStatus());
+        assertEquals("preprocessing failed", finished.getErrorMessage());
+    }
+}
@@ -0,0 +1,116 @@
+package org.gc.aiagents;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.gc.aiagents.domain.PipelineJob;
+import org.gc.aiagents.properties.PipelineSchedulerProperties;
+import org.gc.aiagents.repository.PipelineJobRepository;
+import org.gc.aiagents.service.ArticleWorkScheduler;
+import org.gc.aiagents.service.BlogManagerService;
+import org.gc.aiagents.service.FineTuningExportService;
+import org.gc.aiagents.service.ParentScanDispatcher;
+import org.gc.aiagents.service.PipelineJobService;
+import org.gc.aiagents.service.PipelineSchedulers;
+import org.gc.aiagents.service.PythonApiService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PipelineSchedulersTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PipelineSchedulers pipelineSchedulers;
+
+    @AfterEach
+    void tearDown() {
+        pipelineSchedulers.dispose();
+    }
+
+    @Test
+    void repositoryCallsLeaveNonBlockingThreads() {
+        pipelineSchedulers = new PipelineSchedulers(new PipelineSchedulerProperties(), meterRegistry);
+        PipelineJobRepository jobRepository = mock(PipelineJobRepository.class);
+        StringBuilder calledOn = new StringBuilder();
+        when(jobRepository.findById("job-1")).thenAnswer(invocation -> {
+            // Parallel and Netty threads are NonBlocking; a blocking call must never run on one
+            assertFalse(Schedulers.isInNonBlockingThread(), "blocking call on " + Thread.currentThread().getName());
+            calledOn.append(Thread.currentThread().getName());
+            return Optional.of(PipelineJob.export(0.1));
+        });
+        PipelineJobService jobService = new PipelineJobService(jobRepository, mock(PythonApiService.class), mock(BlogManagerService.class),
+                mock(ArticleWorkScheduler.class), mock(ParentScanDispatcher.class), mock(FineTuningExportService.class), pipelineSchedulers);
+
+        PipelineJob job = Mono.defer(() -> jobService.getJob("job-1"))
+                .subscribeOn(Schedulers.parallel())
+                .block(Duration.ofSeconds(5));
+
+        assertNotNull(job);
+        assertTrue(calledOn.toString().startsWith("es-"), calledOn.toString());
+    }
+
+    @Test
+    void computeThreadsRejectBlockingCalls() {
+        pipelineSchedulers = new PipelineSchedulers(new PipelineSchedulerProperties(), meterRegistry);
+
+        Mono<Long> blocking = Mono.fromCallable(() -> Mono.delay(Duration.ofMillis(10)).block())
+                .subscribeOn(pipelineSchedulers.compute());
+
+        IllegalStateException error = assertThrows(IllegalStateException.class, () -> blocking.block(Duration.ofSeconds(5)));
+        assertTrue(error.getMessage().contains("not supported in thread compute-"), error.getMessage());
+    }
+
+    @Test
+    void virtualThreadModeFollowsSpringsSwitch() {
+        MockEnvironment environment = new MockEnvironment().withProperty("spring.threads.virtual.enabled", "true");
+        pipelineSchedulers = new PipelineSchedulers(new PipelineSchedulerProperties(), meterRegistry, environment);
+
+        Thread thread = Mono.fromCallable(Thread::currentThread)
+                .subscribeOn(pipelineSchedulers.fetch())
+                .block(Duration.ofSeconds(5));
+
+        // Before Java 21 the switch has no effect and the bounded platform pool is used
+        assertTrue(thread.getName().startsWith("fetch-"), thread.getName());
+        assertEquals(Runtime.version().feature() >= 21, isVirtual(thread));
+    }
+
+    @Test
+    void saturatedPoolRejectsWorkAndReportsItsQueue() {
+        PipelineSchedulerProperties properties = new PipelineSchedulerProperties();
+        properties.setElasticsearch(new PipelineSchedulerProperties.Pool(1, 1));
+        pipelineSchedulers = new PipelineSchedulers(properties, meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Mono<Boolean> stuck = Mono.fromCallable(() -> release.await(5, TimeUnit.SECONDS)).subscribeOn(pipelineSchedulers.elasticsearch());
+        stuck.subscribe();
+        stuck.subscribe(); // Waits in the queue
+
+        assertThrows(RejectedExecutionException.class, () -> stuck.block(Duration.ofSeconds(5)));
+        assertEquals(1.0, meterRegistry.get("executor.queued").tag("name", "es").gauge().value());
+        release.countDown();
+    }
+
+    private static boolean isVirtual(Thread thread) {
+        try {
+            return (Boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+        } catch (NoSuchMethodException e) {
+            return false;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package org.gc.aiagents;
+
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import org.gc.aiagents.domain.ArticleScrapeStatus;
+import org.gc.aiagents.service.PipelineSchedulers;
+import org.gc.aiagents.service.PipelineStatsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.convert.MappingElasticsearchConverter;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+
+class PipelineStatsServiceTest {
+
+    @Test
+    void llmUsageOfAFailedArticleIsBookedOnItsLastAttempt() {
+        ArticleScrapeStatus failed = ArticleScrapeStatus.create("https://blog.example.com/2024/01/a", "parent-1");
+        failed.setScrapeStatus(ArticleScrapeStatus.ScrapeStatus.FAILED);
+        failed.setFailureCount(2);
+        failed.setUpdatedAtUtc(Instant.now());
+        failed.setLlmPromptTokens(12_000L);
+        failed.setLlmCompletionTokens(900L);
+        failed.setLlmCostUsd(0.04);
+        MappingElasticsearchConverter converter = new MappingElasticsearchConverter(new SimpleElasticsearchMappingContext());
+        converter.afterPropertiesSet();
+        Document stored = converter.mapObject(failed);
+
+        PipelineStatsService statsService = new PipelineStatsService(mock(ElasticsearchOperations.class), mock(PipelineSchedulers.class));
+        NativeQuery query = ReflectionTestUtils.invokeMethod(statsService, "statsQuery", 24, 7);
+        Aggregation tokens = query.getAggregations().get("tokens");
+
+        // The article has no success time; the window and the day buckets must use a field it does have
+        assertNull(stored.get("lastSuccessDatetimeUtc"));
+        assertNotNull(stored.get(tokens.filter().range().field()));
+        assertNotNull(stored.get(tokens.aggregations().get("per_day").dateHistogram().field()));
+    }
+}
@@ -0,0 +1,47 @@
+package org.gc.aiagents;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.propagation.Propagator;
+import org.gc.aiagents.service.PipelineTracing;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class PipelineTracingTest {
+
+    @Test
+    void stageSpansAreChildrenOfTheArticleSpanAndCarryItsAttributes() {
+        List<Observation.Context> stopped = new CopyOnWriteArrayList<>();
+        ObservationRegistry registry = ObservationRegistry.create();
+        registry.observationConfig().observationHandler(new ObservationHandler<>() {
+            @Override
+            public void onStop(Observation.Context context) {
+                stopped.add(context);
+            }
+
+            @Override
+            public boolean supportsContext(Observation.Context context) {
+                return true;
+            }
+        });
+        PipelineTracing tracing = new PipelineTracing(registry, Propagator.NOOP);
+
+        Mono<String> stage = tracing.span("preprocess", Map.of(), Mono.just("done"));
+        tracing.span("article", PipelineTracing.articleAttributes("https://example.com/post", "parent-1"), stage).block();
+
+        assertEquals(2, stopped.size());
+        Observation.Context preprocess = stopped.stream().filter(context -> "preprocess".equals(context.getContextualName())).findFirst().orElseThrow();
+        Observation.Context article = stopped.stream().filter(context -> "article".equals(context.getContextualName())).findFirst().orElseThrow();
+        assertSame(article, preprocess.getParentObservation().getContextView());
+        assertEquals("https://example.com/post", preprocess.getHighCardinalityKeyValue(PipelineTracing.ARTICLE_URL).getValue());
+        assertEquals("parent-1", preprocess.getHighCardinalityKeyValue(PipelineTracing.PARENT_UID).getValue());
+    }
+}
@@ -0,0 +1,58 @@
+package org.gc.aiagents;
+
+import org.gc.aiagents.service.PythonApiService;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.withSettings;
+
+class PythonApiServiceBatchExtractTest {
+
+    @Test
+    void everyDistinctUrlGetsOneResultWithinTheConcurrencyLimit() {
+        PythonApiService pythonApiService = mock(PythonApiService.class, withSettings().defaultAnswer(invocation -> invocation.callRealMethod()));
+        ReflectionTestUtils.setField(pythonApiService, "batchExtractConcurrency", 2);
+
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        doAnswer(invocation -> {
+            String url = invocation.getArgument(0);
+            return Mono.defer(() -> {
+                        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                        return url.endsWith("/broken")
+                                ? Mono.<Map<String, Object>>error(new IllegalStateException("preprocessing failed"))
+                                : Mono.<Map<String, Object>>just(Map.of("url", url));
+                    })
+                    .delayElement(Duration.ofMillis(20))
+                    .doOnTerminate(inFlight::decrementAndGet);
+        }).when(pythonApiService).extractBlogContent(anyString(), eq("azure"));
+
+        List<Map<String, Object>> results = pythonApiService.extractBlogContents(List.of(
+                        "https://example.com/a", "https://example.com/broken", "https://example.com/b",
+                        "https://example.com/a", "https://example.com/c"), "azure")
+                .collectList()
+                .block();
+
+        results.sort(Comparator.comparing(result -> (Integer) result.get("index")));
+        assertEquals(List.of(0, 1, 2, 4), results.stream().map(result -> result.get("index")).toList());
+        assertEquals(List.of(true, false, true, true), results.stream().map(result -> result.get("success")).toList());
+        assertEquals("preprocessing failed", results.get(1).get("errorMessage"));
+        assertEquals(Map.of("url", "https://example.com/c"), results.get(3).get("report"));
+        assertEquals(2, maxInFlight.get());
+        verify(pythonApiService, times(1)).extractBlogContent(eq("https://example.com/a"), eq("azure"));
+    }
+}
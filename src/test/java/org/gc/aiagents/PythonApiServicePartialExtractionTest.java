@@ -0,0 +1,129 @@
+package org.gc.aiagents;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.propagation.Propagator;
+import org.gc.aiagents.properties.LlmProperties;
+import org.gc.aiagents.properties.PipelineSchedulerProperties;
+import org.gc.aiagents.properties.RetryBackoffProperties;
+import org.gc.aiagents.properties.TrainingDataProperties;
+import org.gc.aiagents.repository.ArticleScrapeStatusRepository;
+import org.gc.aiagents.repository.TrainingDataRepository;
+import org.gc.aiagents.repository.es.ThreatIntelRepository;
+import org.gc.aiagents.service.AzureOpenAIService;
+import org.gc.aiagents.service.LlmRouter;
+import org.gc.aiagents.service.PipelineMetrics;
+import org.gc.aiagents.service.PipelineSchedulers;
+import org.gc.aiagents.service.PipelineTracing;
+import org.gc.aiagents.service.PythonApiService;
+import org.gc.aiagents.service.RetryBackoffPolicy;
+import org.gc.aiagents.service.TrainingDataHarvester;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PythonApiServicePartialExtractionTest {
+
+    private static final String URL = "https://example.com/report";
+
+    private final AzureOpenAIService azureOpenAIService = mock(AzureOpenAIService.class);
+    private final Set<String> failingChunks = ConcurrentHashMap.newKeySet();
+    private PythonApiService pythonApiService;
+
+    @BeforeEach
+    void setUp() {
+        when(azureOpenAIService.getName()).thenReturn(AzureOpenAIService.NAME);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PipelineMetrics pipelineMetrics = new PipelineMetrics(meterRegistry,
+                new PipelineTracing(ObservationRegistry.NOOP, Propagator.NOOP), mock(ArticleScrapeStatusRepository.class));
+        pythonApiService = new PythonApiService(WebClient.builder(), new ObjectMapper(),
+                new LlmRouter(List.of(azureOpenAIService), new LlmProperties()), mock(ThreatIntelRepository.class), pipelineMetrics,
+                new TrainingDataHarvester(mock(TrainingDataRepository.class), new TrainingDataProperties(), pipelineMetrics,
+                        mock(PipelineSchedulers.class)),
+                new PipelineSchedulers(new PipelineSchedulerProperties(), meterRegistry),
+                new RetryBackoffPolicy(new RetryBackoffProperties()));
+        ReflectionTestUtils.setField(pythonApiService, "llmCallMaxAttempts", 1);
+
+        when(azureOpenAIService.getChatCompletionAsync(eq("azure-2"), anyString(), anyString(), anyString()))
+                .thenAnswer(invocation -> {
+                    String content = invocation.getArgument(3);
+                    if (failingChunks.contains(content)) {
+                        return Mono.empty();
+                    }
+                    return Mono.just("[{\"technique_id\": \"T1059\", \"technique_name\": \"Command and Scripting Interpreter\", "
+                            + "\"technique_procedure\": \"ran " + content + "\"}]");
+                });
+    }
+
+    @Test
+    void failedDfirChunkIsRecordedAndReextractedAlone() {
+        List<List<Map<String, Object>>> dfirData = List.of(
+                List.of(Map.of("content", "chunk-0")),
+                List.of(Map.of("content", "chunk-1")),
+                List.of(Map.of("content", "chunk-2")));
+        failingChunks.add("chunk-1");
+
+        Map<String, Object> report = pythonApiService.extractIntel(URL, List.of(), List.of(), dfirData, Map.of(), "azure").block();
+
+        assertTrue(PythonApiService.isPartialExtraction(report));
+        assertEquals(List.of(1), PythonApiService.getMissingDfirChunks(report));
+        assertEquals(List.of("* ran chunk-0\n* ran chunk-2"), usages(report));
+
+        failingChunks.clear();
+        Map<String, Object> completed = pythonApiService.reextractMissingParts(URL, Map.of("dfir_data", dfirData), report, "azure").block();
+
+        assertFalse(PythonApiService.isPartialExtraction(completed));
+        assertEquals(report.get("id"), completed.get("id"));
+        assertEquals(List.of("* ran chunk-0\n* ran chunk-2\n* ran chunk-1"), usages(completed));
+    }
+
+    @Test
+    void onlyThrottlingAndServerErrorsAreRetried() {
+        ReflectionTestUtils.setField(pythonApiService, "llmCallMaxAttempts", 2);
+        Map<String, Integer> statusByChunk = Map.of("chunk-0", 400, "chunk-1", 503);
+        Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+        when(azureOpenAIService.getChatCompletionAsync(eq("azure-2"), anyString(), anyString(), anyString()))
+                .thenAnswer(invocation -> {
+                    String content = invocation.getArgument(3);
+                    calls.computeIfAbsent(content, key -> new AtomicInteger()).incrementAndGet();
+                    Integer status = statusByChunk.get(content);
+                    return status == null
+                            ? Mono.just("[]")
+                            : Mono.error(WebClientResponseException.create(status, "error", HttpHeaders.EMPTY, new byte[0], null));
+                });
+
+        Map<String, Object> report = pythonApiService.extractIntel(URL, List.of(), List.of(), List.of(
+                List.of(Map.of("content", "chunk-0")), List.of(Map.of("content", "chunk-1")), List.of(Map.of("content", "chunk-2"))),
+                Map.of(), "azure").block();
+
+        assertEquals(List.of(0, 1), PythonApiService.getMissingDfirChunks(report));
+        assertEquals(1, calls.get("chunk-0").get()); // A bad request gets the same answer again
+        assertEquals(2, calls.get("chunk-1").get());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object> usages(Map<String, Object> report) {
+        return ((List<Map<String, Object>>) report.get("techniques")).stream()
+                .map(tech -> ((List<Map<String, Object>>) tech.get("usage")).get(0).get("usage"))
+                .toList();
+    }
+}
@@ -0,0 +1,82 @@
+package org.gc.aiagents;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.gc.aiagents.properties.PipelineSchedulerProperties;
+import org.gc.aiagents.properties.ReportStoreProperties;
+import org.gc.aiagents.service.FileSystemReportBlobStore;
+import org.gc.aiagents.service.PipelineSchedulers;
+import org.gc.aiagents.service.ReportStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReportStoreTest {
+
+    private static final String ARTICLE_UID = "3f1c2a9e-8d4b-4c7a-9e1f-0a2b3c4d5e6f";
+
+    @TempDir
+    Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private PipelineSchedulers pipelineSchedulers;
+    private ReportStore reportStore;
+
+    @BeforeEach
+    void setUp() {
+        ReportStoreProperties properties = new ReportStoreProperties();
+        properties.setDirectory(directory.toString());
+        pipelineSchedulers = new PipelineSchedulers(new PipelineSchedulerProperties(), new SimpleMeterRegistry());
+        reportStore = new ReportStore(new FileSystemReportBlobStore(properties, pipelineSchedulers), objectMapper, pipelineSchedulers);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipelineSchedulers.dispose();
+    }
+
+    @Test
+    void storesACompressedReportAndReadsItBack() throws Exception {
+        Map<String, Object> report = report();
+
+        ReportStore.StoredReport stored = reportStore.put(ARTICLE_UID, report).block();
+
+        assertEquals(ARTICLE_UID, stored.ref());
+        assertEquals(64, stored.digest().length());
+        Path file = directory.resolve("3f").resolve(ARTICLE_UID + ".json.gz");
+        assertEquals(Files.size(file), stored.sizeBytes());
+        // Repetitive LLM output compresses well; the status document no longer carries any of it
+        assertTrue(stored.sizeBytes() * 5 < objectMapper.writeValueAsBytes(report).length, stored.sizeBytes() + " bytes");
+        assertEquals(report, reportStore.get(stored.ref(), stored.digest()).block());
+    }
+
+    @Test
+    void rejectsAReportThatDoesNotMatchItsDigest() {
+        ReportStore.StoredReport first = reportStore.put(ARTICLE_UID, report()).block();
+        reportStore.put(ARTICLE_UID, Map.of("id", "report-1", "extraction", Map.of())).block(); // Re-extraction replaced it
+
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> reportStore.get(first.ref(), first.digest()).block());
+        assertTrue(error.getMessage().contains("does not match its digest"), error.getMessage());
+        assertThrows(IllegalStateException.class, () -> reportStore.get("missing-article", null).block());
+    }
+
+    private static Map<String, Object> report() {
+        List<Map<String, Object>> indicators = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            indicators.add(Map.of("type", "domain", "value", "c2-" + i + ".example.com", "context", "Command and control server"));
+        }
+        return Map.of("id", "report-1", "report_url", "https://example.com/post-1", "indicators", indicators);
+    }
+}
@@ -0,0 +1,55 @@
+package org.gc.aiagents;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import org.gc.aiagents.domain.ArticleScrapeStatus.FailureType;
+import org.gc.aiagents.properties.RetryBackoffProperties;
+import org.gc.aiagents.service.RetryBackoffPolicy;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RetryBackoffPolicyTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+    private final RetryBackoffProperties properties = new RetryBackoffProperties();
+    private final RetryBackoffPolicy policy = new RetryBackoffPolicy(properties);
+
+    @Test
+    void classifiesByErrorType() {
+        assertEquals(FailureType.CLIENT_ERROR, policy.classify(WebClientResponseException.create(404, "Not Found", null, null, null)));
+        assertEquals(FailureType.SERVER_ERROR, policy.classify(WebClientResponseException.create(503, "Unavailable", null, null, null)));
+        assertEquals(FailureType.THROTTLED, policy.classify(
+                new RuntimeException(WebClientResponseException.create(HttpStatus.TOO_MANY_REQUESTS.value(), "Too Many Requests", null, null, null))));
+        assertEquals(FailureType.SERVER_ERROR, policy.classify(new TimeoutException("no response")));
+        assertEquals(FailureType.PARSE_ERROR, policy.classify(new JsonParseException(null, "bad json")));
+        assertEquals(FailureType.UNKNOWN, policy.classify(new IllegalStateException("Empty response")));
+    }
+
+    @Test
+    void delayDoublesPerFailureWithinJitterAndCap() {
+        properties.setJitter(0.5);
+        properties.setServerError(new RetryBackoffProperties.Backoff(Duration.ofMinutes(10), Duration.ofMinutes(60)));
+
+        assertDelayBetween(FailureType.SERVER_ERROR, 1, Duration.ofMinutes(5), Duration.ofMinutes(10));
+        assertDelayBetween(FailureType.SERVER_ERROR, 2, Duration.ofMinutes(10), Duration.ofMinutes(20));
+        assertDelayBetween(FailureType.SERVER_ERROR, 3, Duration.ofMinutes(20), Duration.ofMinutes(40));
+        assertDelayBetween(FailureType.SERVER_ERROR, 4, Duration.ofMinutes(30), Duration.ofMinutes(60));
+        assertDelayBetween(FailureType.SERVER_ERROR, 40, Duration.ofMinutes(30), Duration.ofMinutes(60));
+    }
+
+    private void assertDelayBetween(FailureType type, int failureCount, Duration min, Duration max) {
+        for (int i = 0; i < 50; i++) {
+            Duration delay = Duration.between(NOW, policy.nextRetryAt(type, failureCount, NOW));
+            assertTrue(delay.compareTo(min) >= 0 && delay.compareTo(max) <= 0,
+                    "failure " + failureCount + " delay " + delay + " not in [" + min + ", " + max + "]");
+        }
+    }
+}
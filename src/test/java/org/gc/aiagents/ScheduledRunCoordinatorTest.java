@@ -0,0 +1,62 @@
+package org.gc.aiagents;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.gc.aiagents.service.ScheduledRunCoordinator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ScheduledRunCoordinatorTest {
+
+    private final TaskScheduler taskScheduler = mock(TaskScheduler.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ScheduledRunCoordinator coordinator;
+
+    @BeforeEach
+    void setUp() {
+        coordinator = new ScheduledRunCoordinator(taskScheduler, meterRegistry);
+        ReflectionTestUtils.setField(coordinator, "backlogRerunDelayMs", 0L);
+        ReflectionTestUtils.setField(coordinator, "minIdleSpacingMs", 0L);
+        ReflectionTestUtils.setField(coordinator, "runTimeoutMs", 100L);
+    }
+
+    @Test
+    void hungRunTimesOutAndTheJobRunsAgain() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger();
+        Supplier<Mono<Long>> run = () -> runs.incrementAndGet() == 1 ? Mono.never() : Mono.just(1L);
+
+        coordinator.trigger("hung", run, () -> Mono.just(0L));
+        Thread.sleep(300);
+        coordinator.trigger("hung", run, () -> Mono.just(0L));
+
+        assertEquals(2, runs.get());
+        assertEquals(1, meterRegistry.get("blog.manager.scheduler.run").tags("job", "hung", "outcome", "error").timer().count());
+        assertEquals(1, meterRegistry.get("blog.manager.scheduler.run").tags("job", "hung", "outcome", "success").timer().count());
+    }
+
+    @Test
+    void rejectedFollowUpLeavesTheJobToTheNextTick() {
+        when(taskScheduler.schedule(any(Runnable.class), any(Instant.class))).thenThrow(new TaskRejectedException("shutting down"));
+        AtomicInteger runs = new AtomicInteger();
+        Supplier<Mono<Long>> run = () -> Mono.fromCallable(() -> (long) runs.incrementAndGet());
+
+        // A backlog is left, so a follow-up run is scheduled and rejected
+        coordinator.trigger("backlog", run, () -> Mono.just(5L));
+        coordinator.trigger("backlog", run, () -> Mono.just(5L));
+
+        assertEquals(2, runs.get());
+        assertEquals(0.0, meterRegistry.get("blog.manager.scheduler.skipped").tags("job", "backlog", "reason", "in_flight").counter().count());
+    }
+}
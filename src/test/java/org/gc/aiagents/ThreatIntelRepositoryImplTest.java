@@ -0,0 +1,68 @@
+package org.gc.aiagents;
+
+import org.gc.aiagents.domain.es.ThreatIntelDoc;
+import org.gc.aiagents.repository.es.ThreatIntelRepositoryImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.elasticsearch.core.ReactiveElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ThreatIntelRepositoryImplTest {
+
+    private static final IndexCoordinates ALIAS = IndexCoordinates.of("threat-intel");
+
+    private final ReactiveElasticsearchOperations elasticsearchOperations = mock(ReactiveElasticsearchOperations.class);
+    private final ThreatIntelRepositoryImpl repository = new ThreatIntelRepositoryImpl(elasticsearchOperations);
+    private final ThreatIntelDoc doc = new ThreatIntelDoc();
+
+    @BeforeEach
+    void setUp() {
+        doc.setId("report-1");
+        when(elasticsearchOperations.getIndexCoordinatesFor(ThreatIntelDoc.class)).thenReturn(ALIAS);
+        when(elasticsearchOperations.save(eq(doc), any(IndexCoordinates.class))).thenReturn(Mono.just(doc));
+        when(elasticsearchOperations.delete(anyString(), any(IndexCoordinates.class))).thenReturn(Mono.just("report-1"));
+    }
+
+    @Test
+    void aNewReportIsWrittenThroughTheAlias() {
+        when(elasticsearchOperations.search(any(Query.class), eq(ThreatIntelDoc.class), eq(ALIAS))).thenReturn(Flux.empty());
+
+        assertSame(doc, repository.replace(doc).block());
+
+        verify(elasticsearchOperations).save(doc, ALIAS);
+    }
+
+    @Test
+    void aReextractedReportOverwritesTheCopyInItsRolledOverIndexAndDropsOtherCopies() {
+        SearchHit<ThreatIntelDoc> older = hitIn("threat-intel-000001");
+        SearchHit<ThreatIntelDoc> newer = hitIn("threat-intel-000002");
+        when(elasticsearchOperations.search(any(Query.class), eq(ThreatIntelDoc.class), eq(ALIAS))).thenReturn(Flux.just(older, newer));
+
+        assertSame(doc, repository.replace(doc).block());
+
+        verify(elasticsearchOperations).save(doc, IndexCoordinates.of("threat-intel-000001"));
+        verify(elasticsearchOperations, never()).save(doc, ALIAS);
+        verify(elasticsearchOperations).delete("report-1", IndexCoordinates.of("threat-intel-000002"));
+        verify(elasticsearchOperations, never()).delete("report-1", IndexCoordinates.of("threat-intel-000001"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private SearchHit<ThreatIntelDoc> hitIn(String index) {
+        SearchHit<ThreatIntelDoc> hit = mock(SearchHit.class);
+        when(hit.getIndex()).thenReturn(index);
+        return hit;
+    }
+}
@@ -0,0 +1,143 @@
+package org.gc.aiagents;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.propagation.Propagator;
+import org.gc.aiagents.domain.TrainingData;
+import org.gc.aiagents.properties.PipelineSchedulerProperties;
+import org.gc.aiagents.properties.TrainingDataProperties;
+import org.gc.aiagents.repository.ArticleScrapeStatusRepository;
+import org.gc.aiagents.repository.TrainingDataRepository;
+import org.gc.aiagents.service.PipelineMetrics;
+import org.gc.aiagents.service.PipelineSchedulers;
+import org.gc.aiagents.service.PipelineTracing;
+import org.gc.aiagents.service.TrainingDataHarvester;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TrainingDataHarvesterTest {
+
+    private final TrainingDataRepository repository = mock(TrainingDataRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<TrainingData> stored = new ArrayList<>();
+    private TrainingDataProperties properties;
+    private PipelineSchedulers pipelineSchedulers;
+    private TrainingDataHarvester harvester;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        properties = new TrainingDataProperties();
+        properties.setEnabled(true);
+        properties.setMaxSamples(3);
+        when(repository.count()).thenAnswer(invocation -> (long) stored.size());
+        when(repository.saveAll(ArgumentMatchers.<Iterable<TrainingData>>any())).thenAnswer(invocation -> {
+            ((Iterable<TrainingData>) invocation.getArgument(0)).forEach(stored::add);
+            return invocation.getArgument(0);
+        });
+        PipelineMetrics metrics = new PipelineMetrics(meterRegistry,
+                new PipelineTracing(ObservationRegistry.NOOP, Propagator.NOOP), mock(ArticleScrapeStatusRepository.class));
+        pipelineSchedulers = new PipelineSchedulers(new PipelineSchedulerProperties(), meterRegistry);
+        harvester = new TrainingDataHarvester(repository, properties, metrics, pipelineSchedulers);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipelineSchedulers.dispose();
+    }
+
+    @Test
+    void storesEachInputOnceAndStopsAtTheCap() {
+        harvester.offer("indicators", "system", "article 1", "{}");
+        harvester.offer("indicators", "system", "article 1", "{\"other\":true}");
+        harvester.offer("techniques", "system", "article 1", "{}");
+        harvester.offer("indicators", "system", "article 2", "{}");
+        harvester.offer("indicators", "system", "article 3", "{}");
+        harvester.flush();
+
+        assertEquals(3, stored.size());
+        assertEquals(List.of("indicators", "techniques", "indicators"), stored.stream().map(TrainingData::getTask).toList());
+        assertEquals(3, stored.get(0).getMessages().size());
+        assertEquals(1.0, count("duplicate"));
+        assertEquals(1.0, count("capped"));
+
+        // Once capped, offers are counted but not queued
+        harvester.offer("indicators", "system", "article 4", "{}");
+        harvester.flush();
+        assertEquals(3, stored.size());
+        assertEquals(2.0, count("capped"));
+    }
+
+    @Test
+    void appliesPerTaskSampleRatesAndSizeLimit() {
+        properties.setTaskSampleRates(Map.of("dfir", 0.0));
+        properties.setMaxSampleChars(20);
+
+        harvester.offer("dfir", "system", "article 1", "{}");
+        harvester.offer("indicators", "system", "a much longer article body", "{}");
+        harvester.offer("indicators", "system", "article 1", "{}");
+        harvester.flush();
+
+        assertEquals(1, stored.size());
+        assertEquals(1.0, count("sampled_out"));
+        assertEquals(1.0, count("too_large"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void samplesOfAFailedWriteAreStoredWhenOfferedAgain() {
+        doThrow(new IllegalStateException("cluster unavailable"))
+                .doAnswer(invocation -> {
+                    ((Iterable<TrainingData>) invocation.getArgument(0)).forEach(stored::add);
+                    return invocation.getArgument(0);
+                })
+                .when(repository).saveAll(ArgumentMatchers.<Iterable<TrainingData>>any());
+
+        harvester.offer("indicators", "system", "article 1", "{}");
+        harvester.flush();
+        harvester.offer("indicators", "system", "article 1", "{}");
+        harvester.flush();
+
+        assertEquals(1, stored.size());
+        assertEquals(0.0, count("duplicate"));
+    }
+
+    @Test
+    void scheduledFlushesWriteOnTheTrainingDataScheduler() throws InterruptedException {
+        CountDownLatch saved = new CountDownLatch(1);
+        AtomicReference<String> savedOn = new AtomicReference<>();
+        doAnswer(invocation -> {
+            savedOn.set(Thread.currentThread().getName());
+            saved.countDown();
+            return invocation.getArgument(0);
+        }).when(repository).saveAll(ArgumentMatchers.<Iterable<TrainingData>>any());
+
+        harvester.offer("indicators", "system", "article 1", "{}");
+        harvester.scheduleFlush();
+
+        assertTrue(saved.await(5, TimeUnit.SECONDS));
+        assertTrue(savedOn.get().startsWith("training-"), savedOn.get());
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.find("blog.manager.training.samples").tag("outcome", outcome).counters().stream()
+                .mapToDouble(Counter::count).sum();
+    }
+}
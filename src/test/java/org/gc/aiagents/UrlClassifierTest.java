@@ -0,0 +1,69 @@
+package org.gc.aiagents;
+
+import org.gc.aiagents.properties.UrlClassifierProperties;
+import org.gc.aiagents.service.UrlClassifier;
+import org.gc.aiagents.service.UrlClassifier.Decision;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UrlClassifierTest {
+
+    private final UrlClassifierProperties properties = new UrlClassifierProperties();
+    private final UrlClassifier classifier = new UrlClassifier(properties);
+
+    @Test
+    void decidesClearCasesFromTheUrlAlone() {
+        assertEquals(Decision.ARTICLE, classifier.classify(
+                "https://thedfirreport.com/2024/03/04/threat-brief-wordpress-exploit-leads-to-godzilla-web-shell-discovery-new-cve"));
+        assertEquals(Decision.ARTICLE, classifier.classify("https://example.com/blog/inside-a-lockbit-affiliate-intrusion"));
+        assertEquals(Decision.ARTICLE, classifier.classify("https://example.com/?p=4711"));
+
+        assertEquals(Decision.NOT_ARTICLE, classifier.classify("https://example.com/blog/"));
+        assertEquals(Decision.NOT_ARTICLE, classifier.classify("https://example.com/blog/page/2/"));
+        assertEquals(Decision.NOT_ARTICLE, classifier.classify("https://example.com/author/jdoe"));
+        assertEquals(Decision.NOT_ARTICLE, classifier.classify("https://example.com/research/report-2024.pdf"));
+
+        assertEquals(Decision.UNSURE, classifier.classify("https://example.com/research/volt-typhoon"));
+    }
+
+    @Test
+    void learnsASitesLayoutFromAgreeingLlmVerdicts() {
+        String url = "https://example.com/research/volt-typhoon";
+        classifier.learn(Map.of("https://example.com/research/scattered-spider", true));
+        classifier.learn(Map.of("https://example.com/research/black-basta", true));
+        assertEquals(Decision.UNSURE, classifier.classify(url));
+
+        classifier.learn(Map.of("https://example.com/research/midnight-blizzard", true));
+        assertEquals(Decision.ARTICLE, classifier.classify(url));
+        // Learned per site
+        assertEquals(Decision.UNSURE, classifier.classify("https://other.example.org/research/volt-typhoon"));
+    }
+
+    @Test
+    void oneScanCountsOncePerShapeHoweverManyUrlsItJudged() {
+        String url = "https://example.com/research/volt-typhoon";
+        Map<String, Boolean> flakyEmptyAnswer = new HashMap<>();
+        for (int i = 0; i < 25; i++) {
+            flakyEmptyAnswer.put("https://example.com/research/threat-actor-" + i, false);
+        }
+
+        classifier.learn(flakyEmptyAnswer);
+        assertEquals(Decision.UNSURE, classifier.classify(url));
+
+        // A scan whose verdicts on the shape disagree teaches nothing either
+        classifier.learn(Map.of("https://example.com/research/black-basta", true, "https://example.com/research/lazarus", false));
+        classifier.learn(flakyEmptyAnswer);
+        assertEquals(Decision.UNSURE, classifier.classify(url));
+    }
+
+    @Test
+    void sendsEverythingToTheLlmWhenDisabled() {
+        properties.setEnabled(false);
+
+        assertEquals(Decision.UNSURE, classifier.classify("https://example.com/2024/03/04/some-long-article-title"));
+    }
+}
@@ -0,0 +1,88 @@
+package org.gc.aiagents;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.propagation.Propagator;
+import org.gc.aiagents.properties.UrlClassifierProperties;
+import org.gc.aiagents.repository.ArticleScrapeStatusRepository;
+import org.gc.aiagents.service.LlmRouter;
+import org.gc.aiagents.service.PipelineMetrics;
+import org.gc.aiagents.service.PipelineTracing;
+import org.gc.aiagents.service.UrlClassifier;
+import org.gc.aiagents.service.UrlCollectionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UrlCollectionServiceTest {
+
+    private static final String PARENT_URL = "https://example.com/";
+
+    private final LlmRouter llmRouter = mock(LlmRouter.class);
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private UrlCollectionService urlCollectionService;
+
+    @BeforeEach
+    void setUp() {
+        UrlClassifierProperties classifierProperties = new UrlClassifierProperties();
+        classifierProperties.setEnabled(false); // Every candidate goes to the LLM
+        PipelineMetrics pipelineMetrics = new PipelineMetrics(new SimpleMeterRegistry(),
+                new PipelineTracing(ObservationRegistry.NOOP, Propagator.NOOP), mock(ArticleScrapeStatusRepository.class));
+        urlCollectionService = new UrlCollectionService(llmRouter, pipelineMetrics, new UrlClassifier(classifierProperties));
+        ReflectionTestUtils.setField(urlCollectionService, "classifyConcurrency", 8);
+
+        // Answers after 200 ms with every even-numbered candidate of the chunk; the chunk holding post-100 fails
+        when(llmRouter.getChatCompletionAsync(any(), eq("azure-1"), eq(PipelineMetrics.STAGE_CLASSIFY), anyString(), anyString()))
+                .thenAnswer(invocation -> {
+                    String userPrompt = invocation.getArgument(4);
+                    List<String> articles = userPrompt.lines()
+                            .filter(line -> line.startsWith("- "))
+                            .map(line -> line.substring(2))
+                            .filter(url -> Integer.parseInt(url.substring(url.lastIndexOf('-') + 1)) % 2 == 0)
+                            .collect(Collectors.toList());
+                    Mono<String> answer = userPrompt.contains("/post-100\n")
+                            ? Mono.error(new IllegalStateException("LLM unavailable"))
+                            : Mono.just("{\"blog_article_urls\": [" + articles.stream().map(url -> "\"" + url + "\"")
+                                    .collect(Collectors.joining(", ")) + "]}");
+                    return Mono.delay(Duration.ofMillis(200))
+                            .doOnSubscribe(subscription -> maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max))
+                            .then(answer)
+                            .doFinally(signal -> inFlight.decrementAndGet());
+                });
+    }
+
+    @Test
+    void classifiesChunksInParallelAndSkipsFailedChunks() {
+        List<String> candidates = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            candidates.add(PARENT_URL + "post-" + i);
+        }
+
+        long startNanos = System.nanoTime();
+        List<String> articles = urlCollectionService.identifyBlogLinksWithLlm(candidates, PARENT_URL).block();
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+
+        // 8 chunks of 25 in one round trip instead of one after another with pauses in between
+        assertEquals(8, maxInFlight.get());
+        assertTrue(elapsed.compareTo(Duration.ofMillis(1000)) < 0, "took " + elapsed.toMillis() + " ms");
+        // Chunk 5 (post-100 to post-124) failed and contributes nothing
+        assertEquals(100 - 13, articles.size());
+        assertTrue(articles.stream().noneMatch(url -> url.endsWith("-100") || url.endsWith("-124")));
+    }
+}
@@ -0,0 +1,81 @@
+package org.gc.aiagents;
+
+import org.gc.aiagents.service.WeightedFairQueue;
+import org.gc.aiagents.service.WeightedFairQueue.Priority;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class WeightedFairQueueTest {
+
+    private static final Instant T0 = Instant.parse("2025-01-01T00:00:00Z");
+
+    @Test
+    void floodingParentDoesNotStarveOthers() {
+        WeightedFairQueue queue = new WeightedFairQueue(Duration.ofMinutes(30), parentUid -> 1);
+        for (int i = 0; i < 200; i++) {
+            queue.offer(item("busy-" + i, "busy", Priority.FRESH, T0));
+        }
+        queue.offer(item("quiet-0", "quiet", Priority.FRESH, T0.plusSeconds(5)));
+        queue.offer(item("quiet-1", "quiet", Priority.FRESH, T0.plusSeconds(5)));
+
+        assertEquals(List.of("busy-0", "quiet-0", "busy-1", "quiet-1", "busy-2"), pollKeys(queue, 5, T0.plusSeconds(10)));
+    }
+
+    @Test
+    void turnsFollowParentWeights() {
+        WeightedFairQueue queue = new WeightedFairQueue(Duration.ofMinutes(30), parentUid -> parentUid.equals("heavy") ? 3 : 1);
+        for (int i = 0; i < 10; i++) {
+            queue.offer(item("heavy-" + i, "heavy", Priority.FRESH, T0));
+            queue.offer(item("light-" + i, "light", Priority.FRESH, T0));
+        }
+
+        long heavyTurns = pollKeys(queue, 8, T0).stream().filter(key -> key.startsWith("heavy")).count();
+        assertEquals(6, heavyTurns);
+    }
+
+    @Test
+    void freshArticlesGoBeforeRetriesUntilRetriesAge() {
+        WeightedFairQueue queue = new WeightedFairQueue(Duration.ofMinutes(30), parentUid -> 1);
+        queue.offer(item("retry-a", "a", Priority.RETRY, T0));
+        queue.offer(item("retry-b", "b", Priority.RETRY, T0.plus(Duration.ofMinutes(20))));
+        queue.offer(item("fresh-b", "b", Priority.FRESH, T0.plus(Duration.ofMinutes(25))));
+
+        // At minute 26 neither retry has aged: the fresh article goes first
+        assertEquals(List.of("fresh-b"), pollKeys(queue, 1, T0.plus(Duration.ofMinutes(26))));
+        // At minute 31 retry-a has aged past 30 minutes and outranks the younger retry
+        assertEquals(List.of("retry-a", "retry-b"), pollKeys(queue, 2, T0.plus(Duration.ofMinutes(31))));
+        assertNull(queue.poll(T0));
+    }
+
+    @Test
+    void resubmittingAsFreshUpgradesQueuedRetry() {
+        WeightedFairQueue queue = new WeightedFairQueue(Duration.ofMinutes(30), parentUid -> 1);
+        queue.offer(item("fresh-a", "a", Priority.FRESH, T0));
+        queue.offer(item("article", "b", Priority.RETRY, T0));
+
+        assertFalse(queue.offer(item("article", "b", Priority.FRESH, T0.plusSeconds(1))));
+        assertEquals(Map.of("a", 1, "b", 1), queue.sizeByParent());
+        assertEquals(List.of("fresh-a", "article"), pollKeys(queue, 2, T0.plusSeconds(2)));
+    }
+
+    private static WeightedFairQueue.Item item(String key, String parentUid, Priority priority, Instant enqueuedAt) {
+        return new WeightedFairQueue.Item(key, parentUid, priority, enqueuedAt);
+    }
+
+    private static List<String> pollKeys(WeightedFairQueue queue, int count, Instant now) {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            keys.add(queue.poll(now).getKey());
+        }
+        return keys;
+    }
+}